@@ -0,0 +1,179 @@
+package com.leo.util.build;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 由模板生成{@link com.leo.util.algorithm.Arrays}中long[]、short[]、char[]、float[]、double[]的重载. <br/>
+ * 读取src/build/templates/PrimitiveArrays.template,为每种类型各生成一份, <br/>
+ * 替换Arrays.java中"// @generated-begin 名称"与"// @generated-end 名称"之间的内容. <br/>
+ * 用法(在项目根目录下): <br/>
+ * javac -encoding UTF-8 -d target/build src/build/java/com/leo/util/build/PrimitiveArraysGenerator.java <br/>
+ * java -cp target/build com.leo.util.build.PrimitiveArraysGenerator [--check] <br/>
+ * 带--check时只检查Arrays.java是否与模板一致,不一致时以状态码1退出,不修改文件
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/6/9
+ * @since 1.0
+ */
+public final class PrimitiveArraysGenerator {
+
+    private static final Path TEMPLATE = Paths.get("src/build/templates/PrimitiveArrays.template");
+
+    private static final Path TARGET = Paths.get("src/main/java/com/leo/util/algorithm/Arrays.java");
+
+    private static final String[] TYPES = {"long", "short", "char", "float", "double"};
+
+    private static final String BEGIN = "    // @generated-begin ";
+
+    private static final String END = "    // @generated-end ";
+
+    private PrimitiveArraysGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        boolean check = args.length > 0 && "--check".equals(args[0]);
+
+        Map<String, List<String>> sections = readSections(readLines(TEMPLATE));
+        List<String> source = readLines(TARGET);
+        List<String> generated = generate(source, sections);
+
+        if (generated.equals(source)) {
+            System.out.println(TARGET + " is up to date");
+        } else if (check) {
+            System.err.println(TARGET + " differs from " + TEMPLATE + ", run PrimitiveArraysGenerator to regenerate");
+            System.exit(1);
+        } else {
+            Files.write(TARGET, (String.join("\n", generated)).getBytes(StandardCharsets.UTF_8));
+            System.out.println(TARGET + " regenerated");
+        }
+    }
+
+    /**
+     * 解析模板: "@section 名称"与"@end"之间为一个区域,以#开头的行为注释
+     */
+    private static Map<String, List<String>> readSections(List<String> template) {
+        Map<String, List<String>> sections = new LinkedHashMap<>();
+        List<String> current = null;
+        for (String line : template) {
+            if (line.startsWith("@section ")) {
+                current = new ArrayList<>();
+                sections.put(line.substring("@section ".length()).trim(), current);
+            } else if (line.equals("@end")) {
+                current = null;
+            } else if (current != null) {
+                current.add(line);
+            } else if (!line.isEmpty() && !line.startsWith("#")) {
+                throw new IllegalStateException("line outside of a section: " + line);
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * 将source中每个生成区域替换为模板展开后的内容.每个区域都必须在模板中存在,反之亦然
+     */
+    private static List<String> generate(List<String> source, Map<String, List<String>> sections) {
+        List<String> result = new ArrayList<>(source.size());
+        List<String> unused = new ArrayList<>(sections.keySet());
+        for (int i = 0, size = source.size(); i < size; i++) {
+            String line = source.get(i);
+            result.add(line);
+            if (!line.startsWith(BEGIN)) {
+                continue;
+            }
+
+            String name = line.substring(BEGIN.length()).trim();
+            List<String> template = sections.get(name);
+            if (template == null || !unused.remove(name)) {
+                throw new IllegalStateException("unknown or duplicate section: " + name);
+            }
+            for (int t = 0; t < TYPES.length; t++) {
+                if (t > 0) {
+                    result.add("");
+                }
+                for (String templateLine : template) {
+                    String expanded = expand(templateLine, TYPES[t]);
+                    if (expanded != null) {
+                        result.add(expanded);
+                    }
+                }
+            }
+
+            // 跳过旧的内容,保留结束标记
+            do {
+                if (++i == size) {
+                    throw new IllegalStateException("missing end of section: " + name);
+                }
+            } while (!source.get(i).equals(END + name));
+            result.add(source.get(i));
+        }
+        if (!unused.isEmpty()) {
+            throw new IllegalStateException("sections not found in " + TARGET + ": " + unused);
+        }
+        return result;
+    }
+
+    /**
+     * 展开模板中的一行
+     *
+     * @return 展开后的行;该行只属于float/double而type为整数类型时返回null
+     */
+    private static String expand(String line, String type) {
+        String boxed = type.equals("float") ? "Float" : type.equals("double") ? "Double" : null;
+        if (line.contains("$note$")) {
+            if (boxed == null) {
+                return null;
+            }
+            line = line.replace("$note$", "Note: 大小关系与{@link " + boxed + "#compare(" + type + ", " + type
+                    + ")}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等");
+        }
+        line = line.replace("$type$", type);
+        line = expandMacro(line, "LESS", boxed == null ? "%s < %s" : boxed + ".compare(%s, %s) < 0");
+        return expandMacro(line, "EQUAL", boxed == null ? "%s == %s" : boxed + ".compare(%s, %s) == 0");
+    }
+
+    /**
+     * 将line中的name(a, b)替换为format展开后的内容.参数中可以包含括号,但不能包含顶层以外的逗号
+     */
+    private static String expandMacro(String line, String name, String format) {
+        String prefix = name + "(";
+        int index;
+        while ((index = line.indexOf(prefix)) >= 0) {
+            int start = index + prefix.length(), depth = 1, comma = -1, i = start;
+            for (; depth > 0; i++) {
+                char c = line.charAt(i);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == ',' && depth == 1) {
+                    comma = i;
+                }
+            }
+            if (comma < 0) {
+                throw new IllegalStateException(name + " needs two arguments: " + line);
+            }
+            String first = line.substring(start, comma).trim(), second = line.substring(comma + 1, i - 1).trim();
+            line = line.substring(0, index) + String.format(format, first, second) + line.substring(i);
+        }
+        return line;
+    }
+
+    private static List<String> readLines(Path path) throws IOException {
+        String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        for (String line : text.split("\n", -1)) {
+            lines.add(line);
+        }
+        return lines;
+    }
+}
@@ -2,9 +2,15 @@ package com.leo.util.algorithm;
 
 import java.util.Comparator;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
- * 关于数组的算法.如排序、查找
+ * 关于数组的算法.如排序、查找. <br/>
+ * Note: "// @generated-begin"与"// @generated-end"之间的long[]、short[]、char[]、float[]、double[]重载由模板生成, <br/>
+ * 不要直接修改,见src/build/README.md
  *
  * @author leo
  * @version 1.0
@@ -50,7 +56,10 @@ public final class Arrays {
             throw new IllegalArgumentException();
         }
 
-        endIndex = (endIndex == array.length) ? array.length - 1 : endIndex - 1;
+        if (startIndex == endIndex) {
+            return -(startIndex + 1);
+        }
+        endIndex--;
 
         int start = array[startIndex], end = array[endIndex];
         if (key < start) {
@@ -61,7 +70,7 @@ public final class Arrays {
         }
 
         if (key > end) {
-            return -(endIndex - startIndex + 2);
+            return -(endIndex + 2);
         }
         if (key == end) {
             return endIndex;
@@ -84,205 +93,1442 @@ public final class Arrays {
     }
 
     /**
-     * 在数组的 [0,array.length) 范围内查找key
+     * 无分支的二分查找.在数组的 [0,array.length) 范围内查找key
      *
-     * @param array      按从小到大顺序排列好的数组
-     * @param key        待查找的元素
-     * @param comparator 比较器,自定义规则比较对象大小
-     * @return 当 return >= 0 时,表示key在array中的位置;<br/>
-     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
-     * @throws IllegalArgumentException 当array或key为null时抛出异常
+     * @param array 按从小到大顺序排列好的数组
+     * @param key   待查找的元素
+     * @return 同{@link #binarySearch(int[], int)};存在多个key时返回第一个的位置
+     * @throws NullPointerException 当array为空时抛出异常
      */
-    public static <E> int binarySearch(E[] array, E key, Comparator<E> comparator) throws IllegalArgumentException {
-        return binarySearch(array, 0, array.length, key, comparator);
+    public static int branchFreeBinarySearch(int[] array, int key) throws NullPointerException {
+        return branchFreeBinarySearch(array, 0, array.length, key);
     }
 
     /**
-     * 在数组的 [startIndex,endIndex) 范围内查找key
+     * 无分支的二分查找.在数组的 [startIndex,endIndex) 范围内查找key <br/>
+     * 每轮只根据比较结果选择下一段的起点(可编译为条件传送指令),循环次数固定为log<sub>2</sub>n,
+     * 没有难以预测的分支,适合在大数组上大量查找
      *
      * @param array      按从小到大顺序排列好的数组
      * @param startIndex 起始索引,包含该索引.取值  [0, endIndex]
      * @param endIndex   结束索引，不包含该索引.取值 [startIndex, array.length)
      * @param key        待查找的元素
-     * @param comparator 比较器,自定义规则比较对象大小
-     * @return 当 return >= 0 时,表示key在array中的位置; <br/>
-     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @return 同{@link #binarySearch(int[], int, int, int)};存在多个key时返回第一个的位置
      * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
      *                                  1. array = null <br/>
-     *                                  2. key = mull <br/>
-     *                                  3. comparator = null <br/>
-     *                                  1. startIndex > endIndex <br/>
-     *                                  2. startIndex < 0 <br/>
-     *                                  3. endIndex > array.length <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
      */
-    public static <E> int binarySearch(E[] array, int startIndex, int endIndex, E key, Comparator<E> comparator) throws IllegalArgumentException {
-        if (array == null || key == null || comparator == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+    public static int branchFreeBinarySearch(int[] array, int startIndex, int endIndex, int key) throws IllegalArgumentException {
+        if (array == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
             throw new IllegalArgumentException();
         }
+        if (startIndex == endIndex) {
+            return -(startIndex + 1);
+        }
+
+        int base = startIndex, length = endIndex - startIndex;
+        while (length > 1) {
+            int half = length >>> 1;
+            base = (array[base + half - 1] < key) ? base + half : base;
+            length -= half;
+        }
+        int index = base + (array[base] < key ? 1 : 0);
 
-        endIndex = (endIndex == array.length) ? array.length - 1 : endIndex - 1;
+        return (index < endIndex && array[index] == key) ? index : -(index + 1);
+    }
 
-        E start = array[startIndex], end = array[endIndex];
-        int result = 0;
+    /**
+     * 批量二分查找时同时推进的查找个数
+     */
+    private static final int BATCH_SEARCH_WIDTH = 8;
 
-        if ((result = comparator.compare(key, start)) < 0) {
-            return -(startIndex + 1);
+    /**
+     * 批量二分查找.在sorted中查找keys中的每一个元素,结果依次写入out <br/>
+     * 1. keys有序时,每个key从上一个key的位置开始指数(galloping)查找,总代价O(m * log(n / m)) <br/>
+     * 2. keys无序时,每次同时推进{@value #BATCH_SEARCH_WIDTH}个查找,各查找间的访存互不依赖,缓存未命中可以重叠
+     *
+     * @param sorted 按从小到大顺序排列好的数组
+     * @param keys   待查找的元素
+     * @param out    保存结果,out[i]对应keys[i],约定同{@link #binarySearch(int[], int)};存在多个相同元素时为第一个的位置
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. sorted、keys或out为null <br/>
+     *                                  2. out.length < keys.length <br/>
+     */
+    public static void binarySearchAll(int[] sorted, int[] keys, int[] out) throws IllegalArgumentException {
+        if (sorted == null || keys == null || out == null || out.length < keys.length) {
+            throw new IllegalArgumentException();
         }
-        if (result == 0) {
-            return startIndex;
+
+        int length = sorted.length, count = keys.length;
+        if (isSorted(keys)) {
+            for (int i = 0, from = 0; i < count; i++) {
+                int key = keys[i];
+                from = gallopLowerBound(sorted, from, length, key);
+                out[i] = (from < length && sorted[from] == key) ? from : -(from + 1);
+            }
+            return;
         }
 
-        if ((result = comparator.compare(key, end)) > 0) {
-            return -(endIndex - startIndex + 2);
+        int[] bases = new int[BATCH_SEARCH_WIDTH];
+        for (int i = 0; i < count; i += BATCH_SEARCH_WIDTH) {
+            int width = Math.min(BATCH_SEARCH_WIDTH, count - i);
+            java.util.Arrays.fill(bases, 0);
+
+            // 所有查找的区间长度相同,逐层同时推进
+            for (int remaining = length; remaining > 1; ) {
+                int half = remaining >>> 1;
+                for (int j = 0; j < width; j++) {
+                    int base = bases[j];
+                    bases[j] = (sorted[base + half - 1] < keys[i + j]) ? base + half : base;
+                }
+                remaining -= half;
+            }
+
+            for (int j = 0; j < width; j++) {
+                int key = keys[i + j], index = bases[j];
+                if (index < length && sorted[index] < key) {
+                    index++;
+                }
+                out[i + j] = (index < length && sorted[index] == key) ? index : -(index + 1);
+            }
         }
-        if (result == 0) {
-            return endIndex;
+    }
+
+    /**
+     * 批量二分查找.在sorted中查找keys中的每一个元素,结果依次写入out.策略同{@link #binarySearchAll(int[], int[], int[])}
+     *
+     * @param sorted     按comparator从小到大顺序排列好的数组
+     * @param keys       待查找的元素
+     * @param out        保存结果,out[i]对应keys[i],约定同{@link #binarySearch(Object[], Object, Comparator)};存在多个相同元素时为第一个的位置
+     * @param comparator 比较器,自定义规则比较对象大小
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. sorted、keys、out或comparator为null <br/>
+     *                                  2. out.length < keys.length <br/>
+     */
+    public static <E> void binarySearchAll(E[] sorted, E[] keys, int[] out, Comparator<? super E> comparator) throws IllegalArgumentException {
+        if (sorted == null || keys == null || out == null || comparator == null || out.length < keys.length) {
+            throw new IllegalArgumentException();
         }
 
-        int middleIndex = 0, middle = 0;
-        while (startIndex <= endIndex) {
-            middleIndex = ((startIndex + endIndex) >>> 1);
-            if ((result = comparator.compare(key, array[middleIndex])) == 0) {
-                return middleIndex;
-            } else if (result > 0) {
-                startIndex = middleIndex + 1;
-            } else {
-                endIndex = middleIndex - 1;
+        int length = sorted.length, count = keys.length;
+        if (isSorted(keys, comparator)) {
+            for (int i = 0, from = 0; i < count; i++) {
+                E key = keys[i];
+                from = gallopLowerBound(sorted, from, length, key, comparator);
+                out[i] = (from < length && comparator.compare(sorted[from], key) == 0) ? from : -(from + 1);
             }
+            return;
         }
 
-        return -(startIndex + 1);
+        int[] bases = new int[BATCH_SEARCH_WIDTH];
+        for (int i = 0; i < count; i += BATCH_SEARCH_WIDTH) {
+            int width = Math.min(BATCH_SEARCH_WIDTH, count - i);
+            java.util.Arrays.fill(bases, 0);
+
+            for (int remaining = length; remaining > 1; ) {
+                int half = remaining >>> 1;
+                for (int j = 0; j < width; j++) {
+                    int base = bases[j];
+                    bases[j] = (comparator.compare(sorted[base + half - 1], keys[i + j]) < 0) ? base + half : base;
+                }
+                remaining -= half;
+            }
+
+            for (int j = 0; j < width; j++) {
+                E key = keys[i + j];
+                int index = bases[j];
+                if (index < length && comparator.compare(sorted[index], key) < 0) {
+                    index++;
+                }
+                out[i + j] = (index < length && comparator.compare(sorted[index], key) == 0) ? index : -(index + 1);
+            }
+        }
     }
 
     /**
-     * 交换数组中两个元素
-     *
-     * @param array
-     * @param index1
-     * @param index2
+     * 数组是否按从小到大的顺序排列
      */
-    private static final void swap(int[] array, int index1, int index2) {
-        if (index1 == index2) {
-            return;
+    private static boolean isSorted(int[] array) {
+        for (int i = 1, length = array.length; i < length; i++) {
+            if (array[i] < array[i - 1]) {
+                return false;
+            }
         }
-        array[index1] ^= array[index2];
-        array[index2] ^= array[index1];
-        array[index1] ^= array[index2];
+        return true;
     }
 
     /**
-     * 交换数组中两个元素
+     * 数组是否按comparator从小到大的顺序排列
+     */
+    private static <E> boolean isSorted(E[] array, Comparator<? super E> comparator) {
+        for (int i = 1, length = array.length; i < length; i++) {
+            if (comparator.compare(array[i], array[i - 1]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 从from开始以1, 2, 4, ...的步长指数查找,再在最后一段中二分,找出有序的array[from,to)中第一个不小于key的元素的索引
      *
-     * @param array
-     * @param index1
-     * @param index2
+     * @return 第一个不小于key的元素的索引;不存在时返回to
      */
-    private static <E> void swap(E[] array, int index1, int index2) {
-        E temp = array[index1];
-        array[index1] = array[index2];
-        array[index2] = temp;
+    private static int gallopLowerBound(int[] array, int from, int to, int key) {
+        int offset = 0, bound = 1;
+        while (bound > 0 && bound <= to - from && array[from + bound - 1] < key) {
+            offset = bound;
+            bound <<= 1;
+        }
+        int end = (bound > 0 && bound <= to - from) ? from + bound : to;
+        return lowerBound(array, from + offset, end, key);
     }
 
     /**
-     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     * 同{@link #gallopLowerBound(int[], int, int, int)},使用comparator比较大小
+     */
+    private static <E> int gallopLowerBound(E[] array, int from, int to, E key, Comparator<? super E> comparator) {
+        int offset = 0, bound = 1;
+        while (bound > 0 && bound <= to - from && comparator.compare(array[from + bound - 1], key) < 0) {
+            offset = bound;
+            bound <<= 1;
+        }
+        int startIndex = from + offset, endIndex = (bound > 0 && bound <= to - from) ? from + bound : to;
+        while (startIndex < endIndex) {
+            int middleIndex = (startIndex + endIndex) >>> 1;
+            if (comparator.compare(array[middleIndex], key) < 0) {
+                startIndex = middleIndex + 1;
+            } else {
+                endIndex = middleIndex;
+            }
+        }
+        return startIndex;
+    }
+
+    /**
+     * 有序集合运算中,较长数组的长度不小于较短数组长度的该倍数时,改用指数查找
+     */
+    private static final int SET_OPERATION_GALLOP_RATIO = 16;
+
+    /**
+     * 求两个有序数组的交集,结果按从小到大的顺序写入out.不分配内存 <br/>
+     * 两个数组长度相近时线性归并,O(m + n);相差较大时较短数组的每个元素在较长数组中指数查找,O(m * log(n / m)). <br/>
+     * 存在重复元素时,按多重集合处理: 某个值在结果中的个数为其在a、b中个数的较小值
      *
-     * @param array
-     * @param startIndex 起始索引
-     * @param endIndex   结束索引
+     * @param a   按从小到大顺序排列好的数组
+     * @param b   按从小到大顺序排列好的数组
+     * @param out 保存结果
+     * @return 写入out的元素个数
      * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
-     *                                  1. startIndex > endIndex <br/>
-     *                                  2. startIndex < 0 <br/>
-     *                                  3. endIndex > array.length <br/>
+     *                                  1. a、b或out为null <br/>
+     *                                  2. out.length < min(a.length, b.length) <br/>
      */
-    private static void checkIndex(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
-        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+    public static int intersect(int[] a, int[] b, int[] out) throws IllegalArgumentException {
+        if (a == null || b == null || out == null || out.length < Math.min(a.length, b.length)) {
             throw new IllegalArgumentException();
         }
+        return intersectImplements(a, b, out);
     }
 
     /**
-     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     * 求两个有序数组交集的元素个数.同{@link #intersect(int[], int[], int[])},但不写出结果
      *
-     * @param array
-     * @param startIndex 起始索引
-     * @param endIndex   结束索引
-     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
-     *                                  1. startIndex > endIndex <br/>
-     *                                  2. startIndex < 0 <br/>
-     *                                  3. endIndex > array.length <br/>
+     * @param a 按从小到大顺序排列好的数组
+     * @param b 按从小到大顺序排列好的数组
+     * @return 交集的元素个数
+     * @throws IllegalArgumentException 当a或b为null时抛出异常
      */
-    private static void checkIndex(Object[] array, int startIndex, int endIndex) throws IllegalArgumentException {
-        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+    public static int intersectCount(int[] a, int[] b) throws IllegalArgumentException {
+        if (a == null || b == null) {
             throw new IllegalArgumentException();
         }
+        return intersectImplements(a, b, null);
     }
 
     /**
-     * 冒泡排序(只有int[],该算法实际应用不大).按照升序排序.时间复杂度 O(n ^ 2)
+     * 求交集
      *
-     * @param array 待排序的数组
-     * @return 排序(以从小到大的顺序)完的数组
+     * @param out 保存结果;为null时只计数
+     * @return 交集的元素个数
      */
-    public static Optional<int[]> bubbleSort(int[] array) {
-        if (array != null) {
-            return Optional.empty();
+    private static int intersectImplements(int[] a, int[] b, int[] out) {
+        if (a.length > b.length) {
+            int[] temp = a;
+            a = b;
+            b = temp;
         }
 
-        for (int i = 0, length = array.length - 1; i < length; i++) {
-            int min = array[i];
-            for (int j = i + 1, limit = array.length; j < limit; j++) {
-                if (array[j] < min) {
-                    swap(array, i, j);
+        int m = a.length, n = b.length, count = 0;
+        if ((long) m * SET_OPERATION_GALLOP_RATIO <= n) {
+            for (int i = 0, j = 0; i < m && j < n; i++) {
+                int key = a[i];
+                j = gallopLowerBound(b, j, n, key);
+                if (j < n && b[j] == key) {
+                    if (out != null) {
+                        out[count] = key;
+                    }
+                    count++;
+                    j++;
                 }
             }
+            return count;
         }
 
-        return Optional.of(array);
+        for (int i = 0, j = 0; i < m && j < n; ) {
+            int x = a[i], y = b[j];
+            if (x < y) {
+                i++;
+            } else if (x > y) {
+                j++;
+            } else {
+                if (out != null) {
+                    out[count] = x;
+                }
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
     }
 
     /**
-     * 选择排序(只有int[],该算法实际应用不大).按照升序排序.时间复杂度 O(n ^ 2)
+     * 求两个有序数组的并集,结果按从小到大的顺序写入out.不分配内存 <br/>
+     * 长度相差较大时,较短数组的每个元素在较长数组中指数查找,其间的元素整段复制. <br/>
+     * 存在重复元素时,按多重集合处理: 某个值在结果中的个数为其在a、b中个数的较大值
      *
-     * @param array 待排序的数组
-     * @return 排序(以从小到大的顺序)完的数组
+     * @param a   按从小到大顺序排列好的数组
+     * @param b   按从小到大顺序排列好的数组
+     * @param out 保存结果
+     * @return 写入out的元素个数
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. a、b或out为null <br/>
+     *                                  2. out.length < a.length + b.length <br/>
      */
-    public static Optional<int[]> selectSort(int[] array) {
-        if (array == null) {
-            return Optional.empty();
+    public static int union(int[] a, int[] b, int[] out) throws IllegalArgumentException {
+        if (a == null || b == null || out == null || out.length < (long) a.length + b.length) {
+            throw new IllegalArgumentException();
+        }
+        if (a.length > b.length) {
+            int[] temp = a;
+            a = b;
+            b = temp;
         }
 
-        for (int i = 0, length = array.length - 1; i < length; i++) {
-            int position = i;
-            for (int j = i + 1, limit = array.length; j < limit; j++) {
-                if (array[j] < array[position]) {
-                    position = j;
+        int m = a.length, n = b.length, count = 0, i = 0, j = 0;
+        if ((long) m * SET_OPERATION_GALLOP_RATIO <= n) {
+            for (; i < m; i++) {
+                int key = a[i];
+                int index = gallopLowerBound(b, j, n, key);
+                System.arraycopy(b, j, out, count, index - j);
+                count += index - j;
+                j = index < n && b[index] == key ? index + 1 : index;
+                out[count++] = key;
+            }
+        } else {
+            while (i < m && j < n) {
+                int x = a[i], y = b[j];
+                if (x < y) {
+                    out[count++] = x;
+                    i++;
+                } else if (x > y) {
+                    out[count++] = y;
+                    j++;
+                } else {
+                    out[count++] = x;
+                    i++;
+                    j++;
                 }
             }
-            if (position != i) {
-                swap(array, i, position);
+            System.arraycopy(a, i, out, count, m - i);
+            count += m - i;
+        }
+        System.arraycopy(b, j, out, count, n - j);
+        return count + n - j;
+    }
+
+    /**
+     * 求两个有序数组的差集a - b,结果按从小到大的顺序写入out.不分配内存 <br/>
+     * b较短时,b的每个元素在a中指数查找,其间的元素整段复制;a较短时,a的每个元素在b中指数查找. <br/>
+     * 存在重复元素时,按多重集合处理: 某个值在结果中的个数为其在a中的个数减去在b中的个数
+     *
+     * @param a   按从小到大顺序排列好的数组
+     * @param b   按从小到大顺序排列好的数组
+     * @param out 保存结果
+     * @return 写入out的元素个数
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. a、b或out为null <br/>
+     *                                  2. out.length < a.length <br/>
+     */
+    public static int difference(int[] a, int[] b, int[] out) throws IllegalArgumentException {
+        if (a == null || b == null || out == null || out.length < a.length) {
+            throw new IllegalArgumentException();
+        }
+
+        int m = a.length, n = b.length, count = 0, i = 0, j = 0;
+        if ((long) n * SET_OPERATION_GALLOP_RATIO <= m) {
+            for (; j < n && i < m; j++) {
+                int key = b[j];
+                int index = gallopLowerBound(a, i, m, key);
+                System.arraycopy(a, i, out, count, index - i);
+                count += index - i;
+                i = index < m && a[index] == key ? index + 1 : index;
+            }
+        } else if ((long) m * SET_OPERATION_GALLOP_RATIO <= n) {
+            for (; i < m && j < n; i++) {
+                int key = a[i];
+                j = gallopLowerBound(b, j, n, key);
+                if (j < n && b[j] == key) {
+                    j++;
+                } else {
+                    out[count++] = key;
+                }
+            }
+        } else {
+            while (i < m && j < n) {
+                int x = a[i], y = b[j];
+                if (x < y) {
+                    out[count++] = x;
+                    i++;
+                } else if (x > y) {
+                    j++;
+                } else {
+                    i++;
+                    j++;
+                }
             }
         }
+        System.arraycopy(a, i, out, count, m - i);
+        return count + m - i;
+    }
 
-        return Optional.of(array);
+    // @generated-begin binarySearch
+    /**
+     * 在数组的 [0,array.length) 范围内查找key
+     *
+     * @param array 按从小到大顺序排列好的数组
+     * @param key   待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置;<br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws NullPointerException 当array为空时抛出异常
+     */
+    public static int binarySearch(long[] array, long key) throws NullPointerException {
+        return binarySearch(array, 0, array.length, key);
     }
 
     /**
-     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
-     * Note: 适用范围(数组部分有序): <br/>
-     * 1. 数组中每个元素距它的最终位置不远 <br/>
-     * 2. 一个有序的大数组接上一个小数组 <br/>
-     * 3. 数组中只有几个元素位置不正确 <br/>
+     * 在数组的 [startIndex,endIndex) 范围内查找key
      *
-     * @param array 待排序的数组
-     * @return 排序(以从小到大的顺序)完的数组
+     * @param array      按从小到大顺序排列好的数组
+     * @param startIndex 起始索引,包含该索引.取值  [0, endIndex]
+     * @param endIndex   结束索引，不包含该索引.取值 [startIndex, array.length)
+     * @param key        待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置; <br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
      */
-    public static Optional<int[]> insertSort(int[] array) {
-        return insertSort(array, 0, array.length);
+    public static int binarySearch(long[] array, int startIndex, int endIndex, long key) throws IllegalArgumentException {
+        if (array == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        if (startIndex == endIndex) {
+            return -(startIndex + 1);
+        }
+        endIndex--;
+
+        long start = array[startIndex], end = array[endIndex];
+        if (key < start) {
+            return -(startIndex + 1);
+        }
+        if (key == start) {
+            return startIndex;
+        }
+
+        if (end < key) {
+            return -(endIndex + 2);
+        }
+        if (key == end) {
+            return endIndex;
+        }
+
+        int middleIndex;
+        long middle;
+        while (startIndex <= endIndex) {
+            middleIndex = ((startIndex + endIndex) >>> 1);
+            middle = array[middleIndex];
+            if (key == middle) {
+                return middleIndex;
+            } else if (middle < key) {
+                startIndex = middleIndex + 1;
+            } else {
+                endIndex = middleIndex - 1;
+            }
+        }
+
+        return -(startIndex + 1);
     }
 
     /**
-     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
-     * Note: 适用范围(数组部分有序): <br/>
+     * 在数组的 [0,array.length) 范围内查找key
+     *
+     * @param array 按从小到大顺序排列好的数组
+     * @param key   待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置;<br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws NullPointerException 当array为空时抛出异常
+     */
+    public static int binarySearch(short[] array, short key) throws NullPointerException {
+        return binarySearch(array, 0, array.length, key);
+    }
+
+    /**
+     * 在数组的 [startIndex,endIndex) 范围内查找key
+     *
+     * @param array      按从小到大顺序排列好的数组
+     * @param startIndex 起始索引,包含该索引.取值  [0, endIndex]
+     * @param endIndex   结束索引，不包含该索引.取值 [startIndex, array.length)
+     * @param key        待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置; <br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     */
+    public static int binarySearch(short[] array, int startIndex, int endIndex, short key) throws IllegalArgumentException {
+        if (array == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        if (startIndex == endIndex) {
+            return -(startIndex + 1);
+        }
+        endIndex--;
+
+        short start = array[startIndex], end = array[endIndex];
+        if (key < start) {
+            return -(startIndex + 1);
+        }
+        if (key == start) {
+            return startIndex;
+        }
+
+        if (end < key) {
+            return -(endIndex + 2);
+        }
+        if (key == end) {
+            return endIndex;
+        }
+
+        int middleIndex;
+        short middle;
+        while (startIndex <= endIndex) {
+            middleIndex = ((startIndex + endIndex) >>> 1);
+            middle = array[middleIndex];
+            if (key == middle) {
+                return middleIndex;
+            } else if (middle < key) {
+                startIndex = middleIndex + 1;
+            } else {
+                endIndex = middleIndex - 1;
+            }
+        }
+
+        return -(startIndex + 1);
+    }
+
+    /**
+     * 在数组的 [0,array.length) 范围内查找key
+     *
+     * @param array 按从小到大顺序排列好的数组
+     * @param key   待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置;<br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws NullPointerException 当array为空时抛出异常
+     */
+    public static int binarySearch(char[] array, char key) throws NullPointerException {
+        return binarySearch(array, 0, array.length, key);
+    }
+
+    /**
+     * 在数组的 [startIndex,endIndex) 范围内查找key
+     *
+     * @param array      按从小到大顺序排列好的数组
+     * @param startIndex 起始索引,包含该索引.取值  [0, endIndex]
+     * @param endIndex   结束索引，不包含该索引.取值 [startIndex, array.length)
+     * @param key        待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置; <br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     */
+    public static int binarySearch(char[] array, int startIndex, int endIndex, char key) throws IllegalArgumentException {
+        if (array == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        if (startIndex == endIndex) {
+            return -(startIndex + 1);
+        }
+        endIndex--;
+
+        char start = array[startIndex], end = array[endIndex];
+        if (key < start) {
+            return -(startIndex + 1);
+        }
+        if (key == start) {
+            return startIndex;
+        }
+
+        if (end < key) {
+            return -(endIndex + 2);
+        }
+        if (key == end) {
+            return endIndex;
+        }
+
+        int middleIndex;
+        char middle;
+        while (startIndex <= endIndex) {
+            middleIndex = ((startIndex + endIndex) >>> 1);
+            middle = array[middleIndex];
+            if (key == middle) {
+                return middleIndex;
+            } else if (middle < key) {
+                startIndex = middleIndex + 1;
+            } else {
+                endIndex = middleIndex - 1;
+            }
+        }
+
+        return -(startIndex + 1);
+    }
+
+    /**
+     * 在数组的 [0,array.length) 范围内查找key
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 按从小到大顺序排列好的数组
+     * @param key   待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置;<br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws NullPointerException 当array为空时抛出异常
+     */
+    public static int binarySearch(float[] array, float key) throws NullPointerException {
+        return binarySearch(array, 0, array.length, key);
+    }
+
+    /**
+     * 在数组的 [startIndex,endIndex) 范围内查找key
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array      按从小到大顺序排列好的数组
+     * @param startIndex 起始索引,包含该索引.取值  [0, endIndex]
+     * @param endIndex   结束索引，不包含该索引.取值 [startIndex, array.length)
+     * @param key        待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置; <br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     */
+    public static int binarySearch(float[] array, int startIndex, int endIndex, float key) throws IllegalArgumentException {
+        if (array == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        if (startIndex == endIndex) {
+            return -(startIndex + 1);
+        }
+        endIndex--;
+
+        float start = array[startIndex], end = array[endIndex];
+        if (Float.compare(key, start) < 0) {
+            return -(startIndex + 1);
+        }
+        if (Float.compare(key, start) == 0) {
+            return startIndex;
+        }
+
+        if (Float.compare(end, key) < 0) {
+            return -(endIndex + 2);
+        }
+        if (Float.compare(key, end) == 0) {
+            return endIndex;
+        }
+
+        int middleIndex;
+        float middle;
+        while (startIndex <= endIndex) {
+            middleIndex = ((startIndex + endIndex) >>> 1);
+            middle = array[middleIndex];
+            if (Float.compare(key, middle) == 0) {
+                return middleIndex;
+            } else if (Float.compare(middle, key) < 0) {
+                startIndex = middleIndex + 1;
+            } else {
+                endIndex = middleIndex - 1;
+            }
+        }
+
+        return -(startIndex + 1);
+    }
+
+    /**
+     * 在数组的 [0,array.length) 范围内查找key
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 按从小到大顺序排列好的数组
+     * @param key   待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置;<br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws NullPointerException 当array为空时抛出异常
+     */
+    public static int binarySearch(double[] array, double key) throws NullPointerException {
+        return binarySearch(array, 0, array.length, key);
+    }
+
+    /**
+     * 在数组的 [startIndex,endIndex) 范围内查找key
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array      按从小到大顺序排列好的数组
+     * @param startIndex 起始索引,包含该索引.取值  [0, endIndex]
+     * @param endIndex   结束索引，不包含该索引.取值 [startIndex, array.length)
+     * @param key        待查找的元素
+     * @return 当 return >= 0 时,表示key在array中的位置; <br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     */
+    public static int binarySearch(double[] array, int startIndex, int endIndex, double key) throws IllegalArgumentException {
+        if (array == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        if (startIndex == endIndex) {
+            return -(startIndex + 1);
+        }
+        endIndex--;
+
+        double start = array[startIndex], end = array[endIndex];
+        if (Double.compare(key, start) < 0) {
+            return -(startIndex + 1);
+        }
+        if (Double.compare(key, start) == 0) {
+            return startIndex;
+        }
+
+        if (Double.compare(end, key) < 0) {
+            return -(endIndex + 2);
+        }
+        if (Double.compare(key, end) == 0) {
+            return endIndex;
+        }
+
+        int middleIndex;
+        double middle;
+        while (startIndex <= endIndex) {
+            middleIndex = ((startIndex + endIndex) >>> 1);
+            middle = array[middleIndex];
+            if (Double.compare(key, middle) == 0) {
+                return middleIndex;
+            } else if (Double.compare(middle, key) < 0) {
+                startIndex = middleIndex + 1;
+            } else {
+                endIndex = middleIndex - 1;
+            }
+        }
+
+        return -(startIndex + 1);
+    }
+    // @generated-end binarySearch
+
+    /**
+     * 在数组的 [0,array.length) 范围内查找key
+     *
+     * @param array      按从小到大顺序排列好的数组
+     * @param key        待查找的元素
+     * @param comparator 比较器,自定义规则比较对象大小
+     * @return 当 return >= 0 时,表示key在array中的位置;<br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws IllegalArgumentException 当array或key为null时抛出异常
+     */
+    public static <E> int binarySearch(E[] array, E key, Comparator<E> comparator) throws IllegalArgumentException {
+        return binarySearch(array, 0, array.length, key, comparator);
+    }
+
+    /**
+     * 在数组的 [startIndex,endIndex) 范围内查找key
+     *
+     * @param array      按从小到大顺序排列好的数组
+     * @param startIndex 起始索引,包含该索引.取值  [0, endIndex]
+     * @param endIndex   结束索引，不包含该索引.取值 [startIndex, array.length)
+     * @param key        待查找的元素
+     * @param comparator 比较器,自定义规则比较对象大小
+     * @return 当 return >= 0 时,表示key在array中的位置; <br/>
+     * 当 return < 0 时,-return + 1 表示key插入array时，应该在的位置
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. key = mull <br/>
+     *                                  3. comparator = null <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static <E> int binarySearch(E[] array, int startIndex, int endIndex, E key, Comparator<E> comparator) throws IllegalArgumentException {
+        if (array == null || key == null || comparator == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        if (startIndex == endIndex) {
+            return -(startIndex + 1);
+        }
+        endIndex--;
+
+        E start = array[startIndex], end = array[endIndex];
+        int result = 0;
+
+        if ((result = comparator.compare(key, start)) < 0) {
+            return -(startIndex + 1);
+        }
+        if (result == 0) {
+            return startIndex;
+        }
+
+        if ((result = comparator.compare(key, end)) > 0) {
+            return -(endIndex + 2);
+        }
+        if (result == 0) {
+            return endIndex;
+        }
+
+        int middleIndex = 0, middle = 0;
+        while (startIndex <= endIndex) {
+            middleIndex = ((startIndex + endIndex) >>> 1);
+            if ((result = comparator.compare(key, array[middleIndex])) == 0) {
+                return middleIndex;
+            } else if (result > 0) {
+                startIndex = middleIndex + 1;
+            } else {
+                endIndex = middleIndex - 1;
+            }
+        }
+
+        return -(startIndex + 1);
+    }
+
+    /**
+     * 交换数组中两个元素
+     *
+     * @param array
+     * @param index1
+     * @param index2
+     */
+    private static final void swap(int[] array, int index1, int index2) {
+        if (index1 == index2) {
+            return;
+        }
+        array[index1] ^= array[index2];
+        array[index2] ^= array[index1];
+        array[index1] ^= array[index2];
+    }
+
+    // @generated-begin swap
+    /**
+     * 交换数组中两个元素
+     *
+     * @param array
+     * @param index1
+     * @param index2
+     */
+    private static void swap(long[] array, int index1, int index2) {
+        long temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+
+    /**
+     * 交换数组中两个元素
+     *
+     * @param array
+     * @param index1
+     * @param index2
+     */
+    private static void swap(short[] array, int index1, int index2) {
+        short temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+
+    /**
+     * 交换数组中两个元素
+     *
+     * @param array
+     * @param index1
+     * @param index2
+     */
+    private static void swap(char[] array, int index1, int index2) {
+        char temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+
+    /**
+     * 交换数组中两个元素
+     *
+     * @param array
+     * @param index1
+     * @param index2
+     */
+    private static void swap(float[] array, int index1, int index2) {
+        float temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+
+    /**
+     * 交换数组中两个元素
+     *
+     * @param array
+     * @param index1
+     * @param index2
+     */
+    private static void swap(double[] array, int index1, int index2) {
+        double temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+    // @generated-end swap
+
+    /**
+     * 交换数组中两个元素
+     *
+     * @param array
+     * @param index1
+     * @param index2
+     */
+    private static <E> void swap(E[] array, int index1, int index2) {
+        E temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+
+    /**
+     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     *
+     * @param array
+     * @param startIndex 起始索引
+     * @param endIndex   结束索引
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    private static void checkIndex(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     *
+     * @param array
+     * @param startIndex 起始索引
+     * @param endIndex   结束索引
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    private static void checkIndex(Object[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    // @generated-begin checkIndex
+    /**
+     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     *
+     * @param array
+     * @param startIndex 起始索引
+     * @param endIndex   结束索引
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    private static void checkIndex(long[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     *
+     * @param array
+     * @param startIndex 起始索引
+     * @param endIndex   结束索引
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    private static void checkIndex(short[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     *
+     * @param array
+     * @param startIndex 起始索引
+     * @param endIndex   结束索引
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    private static void checkIndex(char[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     *
+     * @param array
+     * @param startIndex 起始索引
+     * @param endIndex   结束索引
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    private static void checkIndex(float[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * 判断 [startIndex,endIndex) 是否是 [0,array.length)的子集
+     *
+     * @param array
+     * @param startIndex 起始索引
+     * @param endIndex   结束索引
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    private static void checkIndex(double[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+    // @generated-end checkIndex
+
+    /**
+     * 自适应排序.按照升序排序
+     *
+     * @param array 待排序的数组
+     * @return 数组的特征以及选择的排序算法,便于记录日志;array为null时返回null
+     */
+    public static SortProfile sort(int[] array) {
+        if (array == null) {
+            return null;
+        }
+        return sort(array, 0, array.length);
+    }
+
+    /**
+     * 自适应排序.将数组[startIndex,endIndex)内的元素按升序排序. <br/>
+     * 先用{@link SortProfile#of(int[], int, int)}一次遍历统计run、逆序对、取值范围和重复比例,再选择: <br/>
+     * 1. 很短或已有序: 插入排序 <br/>
+     * 2. 取值范围不大于长度: 计数排序 <br/>
+     * 3. 由较长的有序run组成: 归并排序 <br/>
+     * 4. 重复元素较多: 内省排序 <br/>
+     * 5. 较长: 基数排序;否则内省排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 数组的特征以及选择的排序算法,便于记录日志;array为null时返回null
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static SortProfile sort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return null;
+        }
+
+        SortProfile profile = SortProfile.of(array, startIndex, endIndex);
+        switch (profile.getAlgorithm()) {
+            case INSERTION:
+                insertSortImplements(array, startIndex, endIndex);
+                break;
+            case COUNTING:
+                countingSort(array, startIndex, endIndex, profile.getMin(), profile.getMax());
+                break;
+            case MERGE:
+                mergeSort(array, startIndex, endIndex);
+                break;
+            case RADIX:
+                radixSort(array, startIndex, endIndex);
+                break;
+            default:
+                quickSortImplementsWithRecursive(array, startIndex, endIndex - 1, depthLimit(endIndex - startIndex));
+                break;
+        }
+        return profile;
+    }
+
+    /**
+     * 自适应排序.同{@link #sort(int[], int, int)},SortProfile的抽样数组以及计数排序、归并排序、基数排序的辅助空间取自context, <br/>
+     * 足够大时除返回的SortProfile外不分配内存
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param context    提供可重复使用的辅助空间
+     * @return 数组的特征以及选择的排序算法,便于记录日志;array为null时返回null
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     *                                  4. context = null <br/>
+     */
+    public static SortProfile sort(int[] array, int startIndex, int endIndex, SortContext context) throws IllegalArgumentException {
+        if (array == null) {
+            return null;
+        }
+        if (context == null) {
+            throw new IllegalArgumentException();
+        }
+
+        SortProfile profile = SortProfile.of(array, startIndex, endIndex, context.intBuffer(SortProfile.DUPLICATE_SAMPLES));
+        switch (profile.getAlgorithm()) {
+            case INSERTION:
+                insertSortImplements(array, startIndex, endIndex);
+                break;
+            case COUNTING:
+                countingSort(array, startIndex, endIndex, profile.getMin(), profile.getMax(), context);
+                break;
+            case MERGE:
+                mergeSort(array, startIndex, endIndex, context);
+                break;
+            case RADIX:
+                radixSort(array, startIndex, endIndex, context);
+                break;
+            default:
+                quickSortImplementsWithRecursive(array, startIndex, endIndex - 1, depthLimit(endIndex - startIndex));
+                break;
+        }
+        return profile;
+    }
+
+    /**
+     * 计数排序.按照升序排序.时间复杂度O(n+k),辅助空间O(k),k为取值范围. <br/>
+     * 先一次遍历得到最小值和最大值;取值范围不大于max(数组长度, 256)且不大于{@link SortProfile#COUNTING_SORT_MAX_RANGE}时 <br/>
+     * 使用计数排序(与{@link #sort(int[])}的选择条件一致),否则直方图相对数组过大,改用{@link #radixSort(int[])}
+     *
+     * @param array 待排序的数组
+     */
+    public static void countingSort(int[] array) {
+        if (array == null || array.length < 2) {
+            return;
+        }
+
+        int min = array[0], max = min;
+        for (int value : array) {
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+
+        long range = (long) max - min + 1;
+        if (range <= Math.max(array.length, 256) && range <= SortProfile.COUNTING_SORT_MAX_RANGE) {
+            countingSort(array, 0, array.length, min, max);
+        } else {
+            radixSort(array, 0, array.length);
+        }
+    }
+
+    /**
+     * 计数排序.按照升序排序.适用于取值范围已知且较小的数据,如HTTP状态码、分片编号
+     *
+     * @param array 待排序的数组
+     * @param min   最小值,包含
+     * @param max   最大值,包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. min > max <br/>
+     *                                  2. 取值范围超出数组的最大长度 <br/>
+     *                                  3. 数组中存在[min,max]以外的元素,此时数组不会被修改 <br/>
+     */
+    public static void countingSort(int[] array, int min, int max) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        countingSort(array, 0, array.length, min, max);
+    }
+
+    /**
+     * 计数排序.将数组[startIndex,endIndex)内取值在[min,max]的元素按升序排序.时间复杂度O(n+k),辅助空间O(k)
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param min        最小值,包含
+     * @param max        最大值,包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     *                                  4. min > max <br/>
+     *                                  5. 取值范围超出数组的最大长度 <br/>
+     *                                  6. 数组中存在[min,max]以外的元素,此时数组不会被修改 <br/>
+     */
+    public static void countingSort(int[] array, int startIndex, int endIndex, int min, int max) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        long range = (long) max - min + 1;
+        if (range <= 0 || range > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException();
+        }
+        countingSort(array, startIndex, endIndex, min, max, new int[(int) range]);
+    }
+
+    /**
+     * 计数排序.同{@link #countingSort(int[], int, int, int, int)},直方图取自context,足够大时不分配内存
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param min        最小值,包含
+     * @param max        最大值,包含
+     * @param context    提供可重复使用的辅助空间
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     *                                  4. min > max <br/>
+     *                                  5. 取值范围超出数组的最大长度 <br/>
+     *                                  6. 数组中存在[min,max]以外的元素,此时数组不会被修改 <br/>
+     *                                  7. context = null <br/>
+     */
+    public static void countingSort(int[] array, int startIndex, int endIndex, int min, int max, SortContext context) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        long range = (long) max - min + 1;
+        if (range <= 0 || range > Integer.MAX_VALUE - 8 || context == null) {
+            throw new IllegalArgumentException();
+        }
+        countingSort(array, startIndex, endIndex, min, max, context.countBuffer((int) range));
+    }
+
+    /**
+     * 计数排序的实现
+     *
+     * @param counts 已清零的直方图,长度不小于max - min + 1
+     */
+    private static void countingSort(int[] array, int startIndex, int endIndex, int min, int max, int[] counts) throws IllegalArgumentException {
+        // 1. 统计直方图,同时检查取值范围
+        for (int i = startIndex; i < endIndex; i++) {
+            int value = array[i];
+            if (value < min || value > max) {
+                throw new IllegalArgumentException();
+            }
+            counts[value - min]++;
+        }
+
+        // 2. 按值从小到大依次写回
+        int index = startIndex;
+        for (int i = 0, length = max - min + 1; i < length; i++) {
+            for (int count = counts[i], value = min + i; count > 0; count--) {
+                array[index++] = value;
+            }
+        }
+    }
+
+    /**
+     * 桶排序.按照升序排序.适用于在[min,max]上均匀分布的数据,平均时间复杂度O(n),辅助空间O(n). <br/>
+     * 1. 将NaN移到末尾,并得到其余元素的最小值和最大值 <br/>
+     * 2. 分为n个等宽的桶,由直方图的前缀和得到每个桶的位置,将元素分配到辅助数组 <br/>
+     * 3. 对每个桶用{@link #quickSort(double[])}的实现排序(桶较小时即为插入排序),最坏情况也为O(nlogn) <br/>
+     * 存在无穷大或最大值与最小值之差溢出时,无法等宽分桶,直接使用快速排序. <br/>
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值
+     *
+     * @param array 待排序的数组
+     */
+    public static void bucketSort(double[] array) {
+        if (array == null || array.length < 2) {
+            return;
+        }
+
+        // 1. 将NaN移到末尾
+        int length = array.length;
+        for (int i = length - 1; i >= 0; i--) {
+            if (Double.isNaN(array[i])) {
+                swap(array, i, --length);
+            }
+        }
+        if (length < 2) {
+            return;
+        }
+
+        double min = array[0], max = min;
+        for (int i = 1; i < length; i++) {
+            double value = array[i];
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        double width = max - min;
+        if (Double.isInfinite(width)) {
+            quickSortImplementsWithRecursive(array, 0, length - 1, depthLimit(length));
+            return;
+        }
+
+        // 2. 统计每个桶的大小,并转换为每个桶的起始位置
+        double scale = width == 0 ? 0 : length / width;
+        int[] bucketStarts = new int[length + 1];
+        for (int i = 0; i < length; i++) {
+            bucketStarts[bucketOf(array[i], min, scale, length) + 1]++;
+        }
+        for (int i = 0; i < length; i++) {
+            bucketStarts[i + 1] += bucketStarts[i];
+        }
+
+        // 3. 分配到辅助数组
+        double[] buffer = new double[length];
+        int[] offsets = java.util.Arrays.copyOf(bucketStarts, length);
+        for (int i = 0; i < length; i++) {
+            double value = array[i];
+            buffer[offsets[bucketOf(value, min, scale, length)]++] = value;
+        }
+
+        // 4. 对每个桶排序,再复制回原数组
+        for (int bucket = 0; bucket < length; bucket++) {
+            int from = bucketStarts[bucket], to = bucketStarts[bucket + 1];
+            if (to - from > 1) {
+                quickSortImplementsWithRecursive(buffer, from, to - 1, depthLimit(to - from));
+            }
+        }
+        System.arraycopy(buffer, 0, array, 0, length);
+    }
+
+    /**
+     * 计算元素所在的桶
+     *
+     * @param value   元素
+     * @param min     最小值
+     * @param scale   每单位取值对应的桶数
+     * @param buckets 桶数
+     * @return 桶的位置,[0,buckets)
+     */
+    private static int bucketOf(double value, double min, double scale, int buckets) {
+        return Math.min((int) ((value - min) * scale), buckets - 1);
+    }
+
+    /**
+     * 冒泡排序(只有int[],该算法实际应用不大).按照升序排序.时间复杂度 O(n ^ 2)
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<int[]> bubbleSort(int[] array) {
+        if (array != null) {
+            return Optional.empty();
+        }
+
+        for (int i = 0, length = array.length - 1; i < length; i++) {
+            int min = array[i];
+            for (int j = i + 1, limit = array.length; j < limit; j++) {
+                if (array[j] < min) {
+                    swap(array, i, j);
+                }
+            }
+        }
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 选择排序(只有int[],该算法实际应用不大).按照升序排序.时间复杂度 O(n ^ 2)
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<int[]> selectSort(int[] array) {
+        if (array == null) {
+            return Optional.empty();
+        }
+
+        for (int i = 0, length = array.length - 1; i < length; i++) {
+            int position = i;
+            for (int j = i + 1, limit = array.length; j < limit; j++) {
+                if (array[j] < array[position]) {
+                    position = j;
+                }
+            }
+            if (position != i) {
+                swap(array, i, position);
+            }
+        }
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     * Note: 适用范围(数组部分有序): <br/>
+     * 1. 数组中每个元素距它的最终位置不远 <br/>
+     * 2. 一个有序的大数组接上一个小数组 <br/>
+     * 3. 数组中只有几个元素位置不正确 <br/>
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<int[]> insertSort(int[] array) {
+        return insertSort(array, 0, array.length);
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     * Note: 适用范围(数组部分有序): <br/>
      * 1. 数组中每个元素距它的最终位置不远 <br/>
      * 2. 一个有序的大数组接上一个小数组 <br/>
      * 3. 数组中只有几个元素位置不正确 <br/>
@@ -290,131 +1536,2731 @@ public final class Arrays {
      * @param array      待排序的数组
      * @param startIndex 起始索引,包含
      * @param endIndex   结束索引,不包含
-     * @return 排序(以从小到大的顺序)完的数组
-     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
-     *                                  1. startIndex > endIndex <br/>
-     *                                  2. startIndex < 0 <br/>
-     *                                  3. endIndex > array.length <br/>
+     * @return 排序(以从小到大的顺序)完的数组
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static final Optional<int[]> insertSort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+        insertSortImplements(array, startIndex, endIndex);
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 插入排序的实现.不检查参数,也不包装返回值,供其他排序的小区间调用
+     */
+    private static void insertSortImplements(int[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1, index; i < endIndex; i++) {
+            index = i;
+            while (index > startIndex && array[index] < array[index - 1]) {
+                swap(array, index, index - 1);
+                index--;
+            }
+        }
+    }
+
+    // @generated-begin insertSort
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<long[]> insertSort(long[] array) {
+        return insertSort(array, 0, array.length);
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<long[]> insertSort(long[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+        insertSortImplements(array, startIndex, endIndex);
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 插入排序的实现.不检查参数,也不包装返回值,供其他排序的小区间调用
+     */
+    private static void insertSortImplements(long[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1, index; i < endIndex; i++) {
+            index = i;
+            while (index > startIndex && array[index] < array[index - 1]) {
+                swap(array, index, index - 1);
+                index--;
+            }
+        }
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<short[]> insertSort(short[] array) {
+        return insertSort(array, 0, array.length);
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<short[]> insertSort(short[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+        insertSortImplements(array, startIndex, endIndex);
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 插入排序的实现.不检查参数,也不包装返回值,供其他排序的小区间调用
+     */
+    private static void insertSortImplements(short[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1, index; i < endIndex; i++) {
+            index = i;
+            while (index > startIndex && array[index] < array[index - 1]) {
+                swap(array, index, index - 1);
+                index--;
+            }
+        }
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<char[]> insertSort(char[] array) {
+        return insertSort(array, 0, array.length);
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<char[]> insertSort(char[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+        insertSortImplements(array, startIndex, endIndex);
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 插入排序的实现.不检查参数,也不包装返回值,供其他排序的小区间调用
+     */
+    private static void insertSortImplements(char[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1, index; i < endIndex; i++) {
+            index = i;
+            while (index > startIndex && array[index] < array[index - 1]) {
+                swap(array, index, index - 1);
+                index--;
+            }
+        }
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<float[]> insertSort(float[] array) {
+        return insertSort(array, 0, array.length);
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<float[]> insertSort(float[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+        insertSortImplements(array, startIndex, endIndex);
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 插入排序的实现.不检查参数,也不包装返回值,供其他排序的小区间调用
+     */
+    private static void insertSortImplements(float[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1, index; i < endIndex; i++) {
+            index = i;
+            while (index > startIndex && Float.compare(array[index], array[index - 1]) < 0) {
+                swap(array, index, index - 1);
+                index--;
+            }
+        }
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<double[]> insertSort(double[] array) {
+        return insertSort(array, 0, array.length);
+    }
+
+    /**
+     * 插入排序.按照升序排序.时间复杂度O(n ^ 2).
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<double[]> insertSort(double[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+        insertSortImplements(array, startIndex, endIndex);
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 插入排序的实现.不检查参数,也不包装返回值,供其他排序的小区间调用
+     */
+    private static void insertSortImplements(double[] array, int startIndex, int endIndex) {
+        for (int i = startIndex + 1, index; i < endIndex; i++) {
+            index = i;
+            while (index > startIndex && Double.compare(array[index], array[index - 1]) < 0) {
+                swap(array, index, index - 1);
+                index--;
+            }
+        }
+    }
+    // @generated-end insertSort
+
+    /**
+     * 获得希尔排序中的最大h.步长序列为 1, 4, 13, 40, ...
+     *
+     * @param startIndex
+     * @param endIndex
+     * @return
+     */
+    static int getShellSortMaxH(int startIndex, int endIndex) {
+        int h = 1, hMax = (endIndex - startIndex) / 3;
+        while (h < hMax) {
+            h = 3 * h + 1;
+        }
+        return h;
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [0,array.length) 上对数组从小到大排序
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<int[]> shellSort(int[] array) {
+        return shellSort(array, 0, array.length);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [startIndex,endIndex) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组, 或为null
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<int[]> shellSort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        int h = getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && array[j] < array[j - h]; j -= h) {
+                    swap(array, j, j - h);
+                }
+            }
+            h /= 3;
+        }
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 希尔排序.同{@link #shellSort(int[])},排序过程通知stats
+     *
+     * @param array 待排序的数组
+     * @param stats 排序过程的监听器
+     * @throws IllegalArgumentException 当stats为null时抛出异常
+     */
+    public static void shellSort(int[] array, SortStats stats) throws IllegalArgumentException {
+        if (stats == null) {
+            throw new IllegalArgumentException();
+        }
+        if (array == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        InstrumentedIntSort.shellSort(array, 0, array.length, stats);
+        stats.onFinish(System.nanoTime() - start);
+    }
+
+    // @generated-begin shellSort
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [0,array.length) 上对数组从小到大排序
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<long[]> shellSort(long[] array) {
+        return shellSort(array, 0, array.length);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [startIndex,endIndex) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组, 或为null
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<long[]> shellSort(long[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        int h = getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && array[j] < array[j - h]; j -= h) {
+                    swap(array, j, j - h);
+                }
+            }
+            h /= 3;
+        }
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [0,array.length) 上对数组从小到大排序
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<short[]> shellSort(short[] array) {
+        return shellSort(array, 0, array.length);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [startIndex,endIndex) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组, 或为null
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<short[]> shellSort(short[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        int h = getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && array[j] < array[j - h]; j -= h) {
+                    swap(array, j, j - h);
+                }
+            }
+            h /= 3;
+        }
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [0,array.length) 上对数组从小到大排序
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<char[]> shellSort(char[] array) {
+        return shellSort(array, 0, array.length);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [startIndex,endIndex) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组, 或为null
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<char[]> shellSort(char[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        int h = getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && array[j] < array[j - h]; j -= h) {
+                    swap(array, j, j - h);
+                }
+            }
+            h /= 3;
+        }
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [0,array.length) 上对数组从小到大排序
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<float[]> shellSort(float[] array) {
+        return shellSort(array, 0, array.length);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [startIndex,endIndex) 上对数组从小到大排序
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组, 或为null
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<float[]> shellSort(float[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        int h = getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && Float.compare(array[j], array[j - h]) < 0; j -= h) {
+                    swap(array, j, j - h);
+                }
+            }
+            h /= 3;
+        }
+
+        return Optional.of(array);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [0,array.length) 上对数组从小到大排序
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 待排序的数组
+     * @return 排序(以从小到大的顺序)完的数组
+     */
+    public static Optional<double[]> shellSort(double[] array) {
+        return shellSort(array, 0, array.length);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进. 在 [startIndex,endIndex) 上对数组从小到大排序
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 排序(以从小到大的顺序)完的数组, 或为null
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static Optional<double[]> shellSort(double[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return Optional.empty();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        int h = getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && Double.compare(array[j], array[j - h]) < 0; j -= h) {
+                    swap(array, j, j - h);
+                }
+            }
+            h /= 3;
+        }
+
+        return Optional.of(array);
+    }
+    // @generated-end shellSort
+
+    /**
+     * 希尔排序.在 [0,array.length) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param comparator 比较器.自定义排序规则
+     */
+    public static <E> void shellSort(Object[] array, Comparator<E> comparator) {
+        shellSort(array, 0, array.length, comparator);
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进.在 [startIndex,endIndex) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param comparator 比较器.自定义排序规则
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. 当comparator为空时，抛出异常
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     */
+    public static final <E> void shellSort(Object[] array, int startIndex, int endIndex, Comparator<E> comparator) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        int h = getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && comparator.compare((E) array[j], (E) array[j - h]) < 0; j -= h) {
+                    swap(array, j, j - h);
+                }
+            }
+            h /= 3;
+        }
+    }
+
+    /**
+     * 希尔排序.在插入排序的基础上改进.在 [startIndex,endIndex) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static <E extends Comparable> void shellSort(Object[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        int h = getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && ((E) array[j]).compareTo(array[j - h]) < 0; j -= h) {
+                    swap(array, j, j - h);
+                }
+            }
+            h /= 3;
+        }
+    }
+
+    /**
+     * TimSort.稳定、自适应的归并排序.在 [0,array.length) 上按元素的自然顺序从小到大排序
+     *
+     * @param array 待排序的数组
+     */
+    public static <E extends Comparable<? super E>> void timSort(E[] array) {
+        if (array == null) {
+            return;
+        }
+        timSort(array, 0, array.length, Comparator.naturalOrder());
+    }
+
+    /**
+     * TimSort.稳定、自适应的归并排序.在 [0,array.length) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param comparator 比较器.自定义排序规则
+     * @throws IllegalArgumentException 当comparator为空时，抛出异常
+     */
+    public static <E> void timSort(E[] array, Comparator<? super E> comparator) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        timSort(array, 0, array.length, comparator);
+    }
+
+    /**
+     * TimSort.稳定、自适应的归并排序.在 [startIndex,endIndex) 上对数组从小到大排序. <br/>
+     * 相等的元素保持原有的相对顺序;已有序或基本有序时接近O(n);最坏O(nlog<sub>2</sub>n),辅助空间不超过n/2
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param comparator 比较器.自定义排序规则
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. 当comparator为空时，抛出异常
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     *                                  5. comparator不满足比较的约定 <br/>
+     */
+    public static <E> void timSort(E[] array, int startIndex, int endIndex, Comparator<? super E> comparator) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        TimSort.sort(array, startIndex, endIndex, comparator);
+    }
+
+    /**
+     * TimSort.同{@link #timSort(Object[], int, int, Comparator)},辅助数组取自context,足够大时不分配内存
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param comparator 比较器.自定义排序规则
+     * @param context    提供可重复使用的辅助空间
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. comparator = null 或 context = null <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     */
+    public static <E> void timSort(E[] array, int startIndex, int endIndex, Comparator<? super E> comparator, SortContext context) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        if (comparator == null || context == null) {
+            throw new IllegalArgumentException();
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        TimSort.sort(array, startIndex, endIndex, comparator, context);
+    }
+
+    /**
+     * 原地归并排序.将数组[0.array.length)内的元素排序
+     *
+     * @param array 待排序的数组
+     */
+    public static void mergeSort(int[] array) {
+        mergeSort(array, 0, array.length);
+    }
+
+    /**
+     * 归并排序.同{@link #mergeSort(int[])},排序过程通知stats
+     *
+     * @param array 待排序的数组
+     * @param stats 排序过程的监听器
+     * @throws IllegalArgumentException 当stats为null时抛出异常
+     */
+    public static void mergeSort(int[] array, SortStats stats) throws IllegalArgumentException {
+        if (stats == null) {
+            throw new IllegalArgumentException();
+        }
+        if (array == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        InstrumentedIntSort.mergeSort(array, 0, array.length, stats);
+        stats.onFinish(System.nanoTime() - start);
+    }
+
+    /**
+     * 原地归并排序.将数组[startIndex,endIndex)内的元素排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void mergeSort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        if (BranchlessIntSort.ENABLED) {
+            BranchlessIntSort.mergeSort(array, startIndex, endIndex);
+            return;
+        }
+
+        // 1. 当排序长度太小直接用插入排序
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(array, startIndex, endIndex);
+            return;
+        }
+
+        int[] cache = new int[endIndex - startIndex];
+        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, cache, startIndex);
+    }
+
+    /**
+     * 归并排序.同{@link #mergeSort(int[], int, int)},辅助数组取自context,足够大时不分配内存
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param context    提供可重复使用的辅助空间
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     *                                  4. context = null <br/>
+     */
+    public static void mergeSort(int[] array, int startIndex, int endIndex, SortContext context) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        if (context == null) {
+            throw new IllegalArgumentException();
+        }
+        if (BranchlessIntSort.ENABLED) {
+            BranchlessIntSort.mergeSort(array, startIndex, endIndex, context.intBuffer(endIndex - startIndex));
+            return;
+        }
+
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(array, startIndex, endIndex);
+            return;
+        }
+
+        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, context.intBuffer(endIndex - startIndex), startIndex);
+    }
+
+
+    /**
+     * 真正实现merge sort的函数.将src的[startIndex,endIndex)元素排序至dest
+     *
+     * @param src         待排序的数组
+     * @param startIndex  要排序的起始索引,包含
+     * @param middleIndex 要排序中间索引
+     * @param endIndex    要排序的结束索引,不包含
+     * @param cache       需要的辅助数组
+     * @param cacheBase   src中索引为cacheBase的元素对应cache[0].不同的[startIndex,endIndex)使用cache中互不重叠的区域
+     */
+    private static void mergeSort(int[] src, int startIndex, int middleIndex, int endIndex, int[] cache, int cacheBase) {
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(src, startIndex, endIndex);
+            return;
+        }
+
+        // 左半边数组排序
+        mergeSort(src, startIndex, (startIndex + middleIndex) >> 1, middleIndex, cache, cacheBase);
+
+        // 右半边数组排序
+        mergeSort(src, middleIndex, (endIndex + middleIndex) >> 1, endIndex, cache, cacheBase);
+
+        int cacheStartIndex = startIndex - cacheBase, cacheLength = endIndex - startIndex;
+        int cacheEndIndex = cacheStartIndex + cacheLength - 1, cacheMiddleIndex = cacheStartIndex + (cacheLength >> 1);
+        System.arraycopy(src, startIndex, cache, cacheStartIndex, cacheLength);
+
+        int leftIndex = cacheStartIndex, rightIndex = cacheMiddleIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (leftIndex >= cacheMiddleIndex) {
+                src[i] = cache[rightIndex++];
+            } else if (rightIndex > cacheEndIndex) {
+                src[i] = cache[leftIndex++];
+            } else if (cache[leftIndex] < cache[rightIndex]) {
+                src[i] = cache[leftIndex++];
+            } else {
+                src[i] = cache[rightIndex++];
+            }
+        }
+    }
+
+    // @generated-begin mergeSort
+    /**
+     * 原地归并排序.将数组[0.array.length)内的元素排序
+     *
+     * @param array 待排序的数组
+     */
+    public static void mergeSort(long[] array) {
+        mergeSort(array, 0, array.length);
+    }
+
+    /**
+     * 原地归并排序.将数组[startIndex,endIndex)内的元素排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void mergeSort(long[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        // 1. 当排序长度太小直接用插入排序
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(array, startIndex, endIndex);
+            return;
+        }
+
+        long[] cache = new long[endIndex - startIndex];
+        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, cache, startIndex);
+    }
+
+    /**
+     * 真正实现merge sort的函数.将src的[startIndex,endIndex)元素排序至dest
+     *
+     * @param src         待排序的数组
+     * @param startIndex  要排序的起始索引,包含
+     * @param middleIndex 要排序中间索引
+     * @param endIndex    要排序的结束索引,不包含
+     * @param cache       需要的辅助数组
+     * @param cacheBase   src中索引为cacheBase的元素对应cache[0]
+     */
+    private static void mergeSort(long[] src, int startIndex, int middleIndex, int endIndex, long[] cache, int cacheBase) {
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(src, startIndex, endIndex);
+            return;
+        }
+
+        // 左半边数组排序
+        mergeSort(src, startIndex, (startIndex + middleIndex) >> 1, middleIndex, cache, cacheBase);
+
+        // 右半边数组排序
+        mergeSort(src, middleIndex, (endIndex + middleIndex) >> 1, endIndex, cache, cacheBase);
+
+        int cacheStartIndex = startIndex - cacheBase, cacheLength = endIndex - startIndex;
+        int cacheEndIndex = cacheStartIndex + cacheLength - 1, cacheMiddleIndex = cacheStartIndex + (cacheLength >> 1);
+        System.arraycopy(src, startIndex, cache, cacheStartIndex, cacheLength);
+
+        int leftIndex = cacheStartIndex, rightIndex = cacheMiddleIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (leftIndex >= cacheMiddleIndex) {
+                src[i] = cache[rightIndex++];
+            } else if (rightIndex > cacheEndIndex) {
+                src[i] = cache[leftIndex++];
+            } else if (cache[rightIndex] < cache[leftIndex]) {
+                src[i] = cache[rightIndex++];
+            } else {
+                src[i] = cache[leftIndex++];
+            }
+        }
+    }
+
+    /**
+     * 原地归并排序.将数组[0.array.length)内的元素排序
+     *
+     * @param array 待排序的数组
+     */
+    public static void mergeSort(short[] array) {
+        mergeSort(array, 0, array.length);
+    }
+
+    /**
+     * 原地归并排序.将数组[startIndex,endIndex)内的元素排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void mergeSort(short[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        // 1. 当排序长度太小直接用插入排序
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(array, startIndex, endIndex);
+            return;
+        }
+
+        short[] cache = new short[endIndex - startIndex];
+        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, cache, startIndex);
+    }
+
+    /**
+     * 真正实现merge sort的函数.将src的[startIndex,endIndex)元素排序至dest
+     *
+     * @param src         待排序的数组
+     * @param startIndex  要排序的起始索引,包含
+     * @param middleIndex 要排序中间索引
+     * @param endIndex    要排序的结束索引,不包含
+     * @param cache       需要的辅助数组
+     * @param cacheBase   src中索引为cacheBase的元素对应cache[0]
+     */
+    private static void mergeSort(short[] src, int startIndex, int middleIndex, int endIndex, short[] cache, int cacheBase) {
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(src, startIndex, endIndex);
+            return;
+        }
+
+        // 左半边数组排序
+        mergeSort(src, startIndex, (startIndex + middleIndex) >> 1, middleIndex, cache, cacheBase);
+
+        // 右半边数组排序
+        mergeSort(src, middleIndex, (endIndex + middleIndex) >> 1, endIndex, cache, cacheBase);
+
+        int cacheStartIndex = startIndex - cacheBase, cacheLength = endIndex - startIndex;
+        int cacheEndIndex = cacheStartIndex + cacheLength - 1, cacheMiddleIndex = cacheStartIndex + (cacheLength >> 1);
+        System.arraycopy(src, startIndex, cache, cacheStartIndex, cacheLength);
+
+        int leftIndex = cacheStartIndex, rightIndex = cacheMiddleIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (leftIndex >= cacheMiddleIndex) {
+                src[i] = cache[rightIndex++];
+            } else if (rightIndex > cacheEndIndex) {
+                src[i] = cache[leftIndex++];
+            } else if (cache[rightIndex] < cache[leftIndex]) {
+                src[i] = cache[rightIndex++];
+            } else {
+                src[i] = cache[leftIndex++];
+            }
+        }
+    }
+
+    /**
+     * 原地归并排序.将数组[0.array.length)内的元素排序
+     *
+     * @param array 待排序的数组
+     */
+    public static void mergeSort(char[] array) {
+        mergeSort(array, 0, array.length);
+    }
+
+    /**
+     * 原地归并排序.将数组[startIndex,endIndex)内的元素排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void mergeSort(char[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        // 1. 当排序长度太小直接用插入排序
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(array, startIndex, endIndex);
+            return;
+        }
+
+        char[] cache = new char[endIndex - startIndex];
+        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, cache, startIndex);
+    }
+
+    /**
+     * 真正实现merge sort的函数.将src的[startIndex,endIndex)元素排序至dest
+     *
+     * @param src         待排序的数组
+     * @param startIndex  要排序的起始索引,包含
+     * @param middleIndex 要排序中间索引
+     * @param endIndex    要排序的结束索引,不包含
+     * @param cache       需要的辅助数组
+     * @param cacheBase   src中索引为cacheBase的元素对应cache[0]
+     */
+    private static void mergeSort(char[] src, int startIndex, int middleIndex, int endIndex, char[] cache, int cacheBase) {
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(src, startIndex, endIndex);
+            return;
+        }
+
+        // 左半边数组排序
+        mergeSort(src, startIndex, (startIndex + middleIndex) >> 1, middleIndex, cache, cacheBase);
+
+        // 右半边数组排序
+        mergeSort(src, middleIndex, (endIndex + middleIndex) >> 1, endIndex, cache, cacheBase);
+
+        int cacheStartIndex = startIndex - cacheBase, cacheLength = endIndex - startIndex;
+        int cacheEndIndex = cacheStartIndex + cacheLength - 1, cacheMiddleIndex = cacheStartIndex + (cacheLength >> 1);
+        System.arraycopy(src, startIndex, cache, cacheStartIndex, cacheLength);
+
+        int leftIndex = cacheStartIndex, rightIndex = cacheMiddleIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (leftIndex >= cacheMiddleIndex) {
+                src[i] = cache[rightIndex++];
+            } else if (rightIndex > cacheEndIndex) {
+                src[i] = cache[leftIndex++];
+            } else if (cache[rightIndex] < cache[leftIndex]) {
+                src[i] = cache[rightIndex++];
+            } else {
+                src[i] = cache[leftIndex++];
+            }
+        }
+    }
+
+    /**
+     * 原地归并排序.将数组[0.array.length)内的元素排序
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 待排序的数组
+     */
+    public static void mergeSort(float[] array) {
+        mergeSort(array, 0, array.length);
+    }
+
+    /**
+     * 原地归并排序.将数组[startIndex,endIndex)内的元素排序
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void mergeSort(float[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        // 1. 当排序长度太小直接用插入排序
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(array, startIndex, endIndex);
+            return;
+        }
+
+        float[] cache = new float[endIndex - startIndex];
+        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, cache, startIndex);
+    }
+
+    /**
+     * 真正实现merge sort的函数.将src的[startIndex,endIndex)元素排序至dest
+     *
+     * @param src         待排序的数组
+     * @param startIndex  要排序的起始索引,包含
+     * @param middleIndex 要排序中间索引
+     * @param endIndex    要排序的结束索引,不包含
+     * @param cache       需要的辅助数组
+     * @param cacheBase   src中索引为cacheBase的元素对应cache[0]
+     */
+    private static void mergeSort(float[] src, int startIndex, int middleIndex, int endIndex, float[] cache, int cacheBase) {
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(src, startIndex, endIndex);
+            return;
+        }
+
+        // 左半边数组排序
+        mergeSort(src, startIndex, (startIndex + middleIndex) >> 1, middleIndex, cache, cacheBase);
+
+        // 右半边数组排序
+        mergeSort(src, middleIndex, (endIndex + middleIndex) >> 1, endIndex, cache, cacheBase);
+
+        int cacheStartIndex = startIndex - cacheBase, cacheLength = endIndex - startIndex;
+        int cacheEndIndex = cacheStartIndex + cacheLength - 1, cacheMiddleIndex = cacheStartIndex + (cacheLength >> 1);
+        System.arraycopy(src, startIndex, cache, cacheStartIndex, cacheLength);
+
+        int leftIndex = cacheStartIndex, rightIndex = cacheMiddleIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (leftIndex >= cacheMiddleIndex) {
+                src[i] = cache[rightIndex++];
+            } else if (rightIndex > cacheEndIndex) {
+                src[i] = cache[leftIndex++];
+            } else if (Float.compare(cache[rightIndex], cache[leftIndex]) < 0) {
+                src[i] = cache[rightIndex++];
+            } else {
+                src[i] = cache[leftIndex++];
+            }
+        }
+    }
+
+    /**
+     * 原地归并排序.将数组[0.array.length)内的元素排序
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 待排序的数组
+     */
+    public static void mergeSort(double[] array) {
+        mergeSort(array, 0, array.length);
+    }
+
+    /**
+     * 原地归并排序.将数组[startIndex,endIndex)内的元素排序
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void mergeSort(double[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+
+        // 1. 当排序长度太小直接用插入排序
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(array, startIndex, endIndex);
+            return;
+        }
+
+        double[] cache = new double[endIndex - startIndex];
+        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, cache, startIndex);
+    }
+
+    /**
+     * 真正实现merge sort的函数.将src的[startIndex,endIndex)元素排序至dest
+     *
+     * @param src         待排序的数组
+     * @param startIndex  要排序的起始索引,包含
+     * @param middleIndex 要排序中间索引
+     * @param endIndex    要排序的结束索引,不包含
+     * @param cache       需要的辅助数组
+     * @param cacheBase   src中索引为cacheBase的元素对应cache[0]
+     */
+    private static void mergeSort(double[] src, int startIndex, int middleIndex, int endIndex, double[] cache, int cacheBase) {
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(src, startIndex, endIndex);
+            return;
+        }
+
+        // 左半边数组排序
+        mergeSort(src, startIndex, (startIndex + middleIndex) >> 1, middleIndex, cache, cacheBase);
+
+        // 右半边数组排序
+        mergeSort(src, middleIndex, (endIndex + middleIndex) >> 1, endIndex, cache, cacheBase);
+
+        int cacheStartIndex = startIndex - cacheBase, cacheLength = endIndex - startIndex;
+        int cacheEndIndex = cacheStartIndex + cacheLength - 1, cacheMiddleIndex = cacheStartIndex + (cacheLength >> 1);
+        System.arraycopy(src, startIndex, cache, cacheStartIndex, cacheLength);
+
+        int leftIndex = cacheStartIndex, rightIndex = cacheMiddleIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (leftIndex >= cacheMiddleIndex) {
+                src[i] = cache[rightIndex++];
+            } else if (rightIndex > cacheEndIndex) {
+                src[i] = cache[leftIndex++];
+            } else if (Double.compare(cache[rightIndex], cache[leftIndex]) < 0) {
+                src[i] = cache[rightIndex++];
+            } else {
+                src[i] = cache[leftIndex++];
+            }
+        }
+    }
+    // @generated-end mergeSort
+
+    /**
+     * 归并排序.同{@link #mergeSort(long[], int, int)},辅助数组取自context,足够大时不分配内存
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param context    提供可重复使用的辅助空间
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     *                                  4. context = null <br/>
+     */
+    public static void mergeSort(long[] array, int startIndex, int endIndex, SortContext context) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        if (context == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (endIndex - 4 < startIndex) {
+            insertSortImplements(array, startIndex, endIndex);
+            return;
+        }
+
+        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, context.longBuffer(endIndex - startIndex), startIndex);
+    }
+
+    /**
+     * 并行归并排序默认的串行阈值.当待排序的长度不大于该值时,直接使用串行的归并排序
+     */
+    public static final int DEFAULT_PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    /**
+     * 并行归并排序.将数组[0,array.length)内的元素排序
+     *
+     * @param array 待排序的数组
+     */
+    public static void parallelMergeSort(int[] array) {
+        if (array == null) {
+            return;
+        }
+        parallelMergeSort(array, 0, array.length);
+    }
+
+    /**
+     * 并行归并排序.使用{@link ForkJoinPool#commonPool()}将数组[startIndex,endIndex)内的元素排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void parallelMergeSort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        parallelMergeSort(array, startIndex, endIndex, DEFAULT_PARALLEL_SORT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行归并排序.将数组[startIndex,endIndex)内的元素排序,结果与{@link #mergeSort(int[], int, int)}相同. <br/>
+     * 左右两半在pool中并行排序,合并时按较长一半的中间元素二分切分,两段再并行合并
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param threshold  串行阈值.长度不大于该值的区间直接串行排序或合并
+     * @param pool       执行排序任务的线程池
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     *                                  4. threshold < 1 <br/>
+     *                                  5. pool = null <br/>
+     */
+    public static void parallelMergeSort(int[] array, int startIndex, int endIndex, int threshold, ForkJoinPool pool) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        if (threshold < 1 || pool == null) {
+            throw new IllegalArgumentException();
+        }
+
+        if (endIndex - startIndex <= threshold) {
+            mergeSort(array, startIndex, endIndex);
+            return;
+        }
+
+        int[] cache = new int[endIndex - startIndex];
+        pool.invoke(new ParallelMergeSortTask(array, startIndex, endIndex, cache, startIndex, threshold));
+    }
+
+    /**
+     * 并行归并排序中的排序任务.将src的[startIndex,endIndex)排序
+     */
+    private static final class ParallelMergeSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+
+        private final int startIndex;
+
+        private final int endIndex;
+
+        private final int[] cache;
+
+        /**
+         * src中索引为cacheBase的元素对应cache[0]
+         */
+        private final int cacheBase;
+
+        private final int threshold;
+
+        ParallelMergeSortTask(int[] src, int startIndex, int endIndex, int[] cache, int cacheBase, int threshold) {
+            this.src = src;
+            this.startIndex = startIndex;
+            this.endIndex = endIndex;
+            this.cache = cache;
+            this.cacheBase = cacheBase;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (endIndex - startIndex <= threshold) {
+                mergeSort(src, startIndex, (startIndex + endIndex) >> 1, endIndex, cache, cacheBase);
+                return;
+            }
+
+            int middleIndex = (startIndex + endIndex) >>> 1;
+            invokeAll(new ParallelMergeSortTask(src, startIndex, middleIndex, cache, cacheBase, threshold),
+                    new ParallelMergeSortTask(src, middleIndex, endIndex, cache, cacheBase, threshold));
+
+            // 已排序的两半复制到cache中各自的区域,再从cache合并回src
+            System.arraycopy(src, startIndex, cache, startIndex - cacheBase, endIndex - startIndex);
+            new ParallelMergeTask(cache, startIndex - cacheBase, middleIndex - cacheBase,
+                    middleIndex - cacheBase, endIndex - cacheBase, src, startIndex, threshold).compute();
+        }
+    }
+
+    /**
+     * 并行归并排序中的合并任务.将有序的cache[leftStart,leftEnd)与cache[rightStart,rightEnd)合并至dest的destIndex处
+     */
+    private static final class ParallelMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] cache;
+
+        private final int leftStart;
+
+        private final int leftEnd;
+
+        private final int rightStart;
+
+        private final int rightEnd;
+
+        private final int[] dest;
+
+        private final int destIndex;
+
+        private final int threshold;
+
+        ParallelMergeTask(int[] cache, int leftStart, int leftEnd, int rightStart, int rightEnd, int[] dest, int destIndex, int threshold) {
+            this.cache = cache;
+            this.leftStart = leftStart;
+            this.leftEnd = leftEnd;
+            this.rightStart = rightStart;
+            this.rightEnd = rightEnd;
+            this.dest = dest;
+            this.destIndex = destIndex;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            int leftLength = leftEnd - leftStart, rightLength = rightEnd - rightStart;
+            if (leftLength + rightLength <= threshold) {
+                merge(cache, leftStart, leftEnd, rightStart, rightEnd, dest, destIndex);
+                return;
+            }
+
+            // 1. 取较长一半的中间元素作为切分点,在另一半中二分查找它的位置
+            int leftMiddle, rightMiddle;
+            if (leftLength >= rightLength) {
+                leftMiddle = (leftStart + leftEnd) >>> 1;
+                rightMiddle = lowerBound(cache, rightStart, rightEnd, cache[leftMiddle]);
+            } else {
+                rightMiddle = (rightStart + rightEnd) >>> 1;
+                leftMiddle = lowerBound(cache, leftStart, leftEnd, cache[rightMiddle]);
+            }
+
+            // 切分点落在两端时(如threshold很小、只剩1+1个元素),某一侧的子任务与当前任务相同,直接串行合并
+            if ((leftMiddle == leftStart && rightMiddle == rightStart) || (leftMiddle == leftEnd && rightMiddle == rightEnd)) {
+                merge(cache, leftStart, leftEnd, rightStart, rightEnd, dest, destIndex);
+                return;
+            }
+
+            // 2. 切分点两侧分别合并
+            int destMiddle = destIndex + (leftMiddle - leftStart) + (rightMiddle - rightStart);
+            invokeAll(new ParallelMergeTask(cache, leftStart, leftMiddle, rightStart, rightMiddle, dest, destIndex, threshold),
+                    new ParallelMergeTask(cache, leftMiddle, leftEnd, rightMiddle, rightEnd, dest, destMiddle, threshold));
+        }
+    }
+
+    /**
+     * 将有序的src[leftStart,leftEnd)与src[rightStart,rightEnd)合并至dest的destIndex处
+     */
+    private static void merge(int[] src, int leftStart, int leftEnd, int rightStart, int rightEnd, int[] dest, int destIndex) {
+        while (leftStart < leftEnd && rightStart < rightEnd) {
+            dest[destIndex++] = src[leftStart] < src[rightStart] ? src[leftStart++] : src[rightStart++];
+        }
+        if (leftStart < leftEnd) {
+            System.arraycopy(src, leftStart, dest, destIndex, leftEnd - leftStart);
+        } else if (rightStart < rightEnd) {
+            System.arraycopy(src, rightStart, dest, destIndex, rightEnd - rightStart);
+        }
+    }
+
+    /**
+     * 在有序的array[startIndex,endIndex)中查找第一个不小于key的元素的索引
+     *
+     * @return 第一个不小于key的元素的索引;不存在时返回endIndex
+     */
+    private static int lowerBound(int[] array, int startIndex, int endIndex, int key) {
+        while (startIndex < endIndex) {
+            int middleIndex = (startIndex + endIndex) >>> 1;
+            if (array[middleIndex] < key) {
+                startIndex = middleIndex + 1;
+            } else {
+                endIndex = middleIndex;
+            }
+        }
+        return startIndex;
+    }
+
+    /**
+     * 快速排序区间长度不大于该值时,改用插入排序
+     */
+    private static final int QUICK_SORT_INSERTION_THRESHOLD = 16;
+
+    /**
+     * 快速排序.按照升序排序. <br/>
+     * 采用内省排序(introsort)的方式: <br/>
+     * 1. 三者取中选取基准,三路(荷兰国旗)切分,大量重复元素时不会退化 <br/>
+     * 2. 递归深度超过 2 * log<sub>2</sub>n 时改用堆排序,最坏情况为O(nlog<sub>2</sub>n) <br/>
+     * 3. 小区间使用插入排序 <br/>
+     * 设置系统属性 -Dcom.leo.util.algorithm.branchlessSort=true 时改用{@link BranchlessIntSort}的无分支内核
+     *
+     * @param array 待排序的数组
+     * @throws IllegalArgumentException 数组为null
+     */
+    public static void quickSort(int[] array) throws IllegalArgumentException {
+        quickSort(array, 0, array.length - 1);
+    }
+
+    /**
+     * 快速排序.同{@link #quickSort(int[])},排序过程通知stats.切分中的每次元素交换计为一次交换
+     *
+     * @param array 待排序的数组
+     * @param stats 排序过程的监听器
+     * @throws IllegalArgumentException 当stats为null时抛出异常
+     */
+    public static void quickSort(int[] array, SortStats stats) throws IllegalArgumentException {
+        if (stats == null) {
+            throw new IllegalArgumentException();
+        }
+        if (array == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        InstrumentedIntSort.quickSort(array, 0, array.length - 1, depthLimit(array.length), stats);
+        stats.onFinish(System.nanoTime() - start);
+    }
+
+    /**
+     * 快速排序
+     *
+     * @param array 待排序的数组
+     * @param start 起始索引,包含在内
+     * @param end   结束索引,包含在内
+     * @throws IllegalArgumentException
+     */
+    private static void quickSort(int[] array, int start, int end) throws IllegalArgumentException {
+        if (array == null || start > end + 1 || start < 0 || end >= array.length) {
+            throw new IllegalArgumentException();
+        }
+        if (BranchlessIntSort.ENABLED) {
+            BranchlessIntSort.sort(array, start, end + 1);
+            return;
+        }
+        quickSortImplementsWithRecursive(array, start, end, depthLimit(end - start + 1));
+    }
+
+    /**
+     * 内省排序允许的最大递归深度: 2 * log<sub>2</sub>n
+     *
+     * @param length 待排序的长度
+     * @return 最大递归深度
+     */
+    static int depthLimit(int length) {
+        return length < 2 ? 0 : (31 - Integer.numberOfLeadingZeros(length)) << 1;
+    }
+
+    /**
+     * 用递归实现的快速排序.较小的一侧递归,较大的一侧循环处理,保证栈深度不超过log<sub>2</sub>n
+     *
+     * @param array      待排序的数组
+     * @param start      起始位置,包含在内
+     * @param end        结束位置,包含在内
+     * @param depthLimit 剩余允许的递归深度,为0时改用堆排序
+     */
+    private static void quickSortImplementsWithRecursive(int[] array, int start, int end, int depthLimit) {
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1);
+                return;
+            }
+
+            exchangeMiddle(array, start, end);
+            int target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end;
+            while (index <= upper) {
+                int value = array[index];
+                if (value < target) {
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (value > target) {
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            if (lower - start < end - upper) {
+                quickSortImplementsWithRecursive(array, start, lower - 1, depthLimit);
+                start = upper + 1;
+            } else {
+                quickSortImplementsWithRecursive(array, upper + 1, end, depthLimit);
+                end = lower - 1;
+            }
+        }
+
+        if (start < end) {
+            insertSortImplements(array, start, end + 1);
+        }
+    }
+
+    /**
+     * 堆排序.将数组[startIndex,endIndex)内的元素按升序排序.作为快速排序退化时的兜底
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     */
+    static void heapSort(int[] array, int startIndex, int endIndex) {
+        int length = endIndex - startIndex;
+        for (int i = (length >> 1) - 1; i >= 0; i--) {
+            siftDown(array, startIndex, i, length);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, startIndex, startIndex + i);
+            siftDown(array, startIndex, 0, i);
+        }
+    }
+
+    /**
+     * 大顶堆的下沉操作.堆的根位于array[offset]
+     *
+     * @param array  保存堆的数组
+     * @param offset 堆在数组中的起始索引
+     * @param index  要下沉的节点(相对offset)
+     * @param length 堆的长度
+     */
+    private static void siftDown(int[] array, int offset, int index, int length) {
+        int value = array[offset + index];
+        int child;
+        while ((child = (index << 1) + 1) < length) {
+            if (child + 1 < length && array[offset + child + 1] > array[offset + child]) {
+                child++;
+            }
+            if (array[offset + child] <= value) {
+                break;
+            }
+            array[offset + index] = array[offset + child];
+            index = child;
+        }
+        array[offset + index] = value;
+    }
+
+    /**
+     * 快速排序针对基本有序的数组，时间复杂度接近O(n^2).运用三者取中找到合适的基准记录
+     *
+     * @param array
+     * @param start
+     * @param end
+     */
+    private static void exchangeMiddle(int[] array, int start, int end) {
+        int middle = (start + end) >> 1;
+
+        if (array[start] > array[middle]) {
+            if (array[middle] > array[end]) {
+                swap(array, start, middle);
+            } else if (array[start] > array[end]) {
+                swap(array, start, end);
+            }
+        } else {
+            if (array[middle] < array[end]) {
+                swap(array, start, middle);
+            } else if (array[start] < array[end]) {
+                swap(array, start, end);
+            }
+        }
+    }
+
+    // @generated-begin quickSort
+    /**
+     * 快速排序.按照升序排序.实现方式同{@link #quickSort(int[])}
+     *
+     * @param array 待排序的数组
+     * @throws IllegalArgumentException 数组为null
+     */
+    public static void quickSort(long[] array) throws IllegalArgumentException {
+        quickSort(array, 0, array.length - 1);
+    }
+
+    /**
+     * 快速排序
+     *
+     * @param array 待排序的数组
+     * @param start 起始索引,包含在内
+     * @param end   结束索引,包含在内
+     * @throws IllegalArgumentException
+     */
+    private static void quickSort(long[] array, int start, int end) throws IllegalArgumentException {
+        if (array == null || start > end + 1 || start < 0 || end >= array.length) {
+            throw new IllegalArgumentException();
+        }
+        quickSortImplementsWithRecursive(array, start, end, depthLimit(end - start + 1));
+    }
+
+    /**
+     * 用递归实现的快速排序.较小的一侧递归,较大的一侧循环处理,保证栈深度不超过log<sub>2</sub>n
+     *
+     * @param array      待排序的数组
+     * @param start      起始位置,包含在内
+     * @param end        结束位置,包含在内
+     * @param depthLimit 剩余允许的递归深度,为0时改用堆排序
+     */
+    private static void quickSortImplementsWithRecursive(long[] array, int start, int end, int depthLimit) {
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1);
+                return;
+            }
+
+            exchangeMiddle(array, start, end);
+            long target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end;
+            while (index <= upper) {
+                long value = array[index];
+                if (value < target) {
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (target < value) {
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            if (lower - start < end - upper) {
+                quickSortImplementsWithRecursive(array, start, lower - 1, depthLimit);
+                start = upper + 1;
+            } else {
+                quickSortImplementsWithRecursive(array, upper + 1, end, depthLimit);
+                end = lower - 1;
+            }
+        }
+
+        if (start < end) {
+            insertSortImplements(array, start, end + 1);
+        }
+    }
+
+    /**
+     * 堆排序.将数组[startIndex,endIndex)内的元素按升序排序.作为快速排序退化时的兜底
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     */
+    private static void heapSort(long[] array, int startIndex, int endIndex) {
+        int length = endIndex - startIndex;
+        for (int i = (length >> 1) - 1; i >= 0; i--) {
+            siftDown(array, startIndex, i, length);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, startIndex, startIndex + i);
+            siftDown(array, startIndex, 0, i);
+        }
+    }
+
+    /**
+     * 大顶堆的下沉操作.堆的根位于array[offset]
+     *
+     * @param array  保存堆的数组
+     * @param offset 堆在数组中的起始索引
+     * @param index  要下沉的节点(相对offset)
+     * @param length 堆的长度
+     */
+    private static void siftDown(long[] array, int offset, int index, int length) {
+        long value = array[offset + index];
+        int child;
+        while ((child = (index << 1) + 1) < length) {
+            if (child + 1 < length && array[offset + child] < array[offset + child + 1]) {
+                child++;
+            }
+            if (!(value < array[offset + child])) {
+                break;
+            }
+            array[offset + index] = array[offset + child];
+            index = child;
+        }
+        array[offset + index] = value;
+    }
+
+    /**
+     * 三者取中,将中间值交换到array[start]作为快速排序的基准
+     *
+     * @param array
+     * @param start
+     * @param end
+     */
+    private static void exchangeMiddle(long[] array, int start, int end) {
+        int middle = (start + end) >> 1;
+
+        if (array[middle] < array[start]) {
+            if (array[end] < array[middle]) {
+                swap(array, start, middle);
+            } else if (array[end] < array[start]) {
+                swap(array, start, end);
+            }
+        } else {
+            if (array[middle] < array[end]) {
+                swap(array, start, middle);
+            } else if (array[start] < array[end]) {
+                swap(array, start, end);
+            }
+        }
+    }
+
+    /**
+     * 快速排序.按照升序排序.实现方式同{@link #quickSort(int[])}
+     *
+     * @param array 待排序的数组
+     * @throws IllegalArgumentException 数组为null
+     */
+    public static void quickSort(short[] array) throws IllegalArgumentException {
+        quickSort(array, 0, array.length - 1);
+    }
+
+    /**
+     * 快速排序
+     *
+     * @param array 待排序的数组
+     * @param start 起始索引,包含在内
+     * @param end   结束索引,包含在内
+     * @throws IllegalArgumentException
+     */
+    private static void quickSort(short[] array, int start, int end) throws IllegalArgumentException {
+        if (array == null || start > end + 1 || start < 0 || end >= array.length) {
+            throw new IllegalArgumentException();
+        }
+        quickSortImplementsWithRecursive(array, start, end, depthLimit(end - start + 1));
+    }
+
+    /**
+     * 用递归实现的快速排序.较小的一侧递归,较大的一侧循环处理,保证栈深度不超过log<sub>2</sub>n
+     *
+     * @param array      待排序的数组
+     * @param start      起始位置,包含在内
+     * @param end        结束位置,包含在内
+     * @param depthLimit 剩余允许的递归深度,为0时改用堆排序
+     */
+    private static void quickSortImplementsWithRecursive(short[] array, int start, int end, int depthLimit) {
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1);
+                return;
+            }
+
+            exchangeMiddle(array, start, end);
+            short target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end;
+            while (index <= upper) {
+                short value = array[index];
+                if (value < target) {
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (target < value) {
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            if (lower - start < end - upper) {
+                quickSortImplementsWithRecursive(array, start, lower - 1, depthLimit);
+                start = upper + 1;
+            } else {
+                quickSortImplementsWithRecursive(array, upper + 1, end, depthLimit);
+                end = lower - 1;
+            }
+        }
+
+        if (start < end) {
+            insertSortImplements(array, start, end + 1);
+        }
+    }
+
+    /**
+     * 堆排序.将数组[startIndex,endIndex)内的元素按升序排序.作为快速排序退化时的兜底
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     */
+    private static void heapSort(short[] array, int startIndex, int endIndex) {
+        int length = endIndex - startIndex;
+        for (int i = (length >> 1) - 1; i >= 0; i--) {
+            siftDown(array, startIndex, i, length);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, startIndex, startIndex + i);
+            siftDown(array, startIndex, 0, i);
+        }
+    }
+
+    /**
+     * 大顶堆的下沉操作.堆的根位于array[offset]
+     *
+     * @param array  保存堆的数组
+     * @param offset 堆在数组中的起始索引
+     * @param index  要下沉的节点(相对offset)
+     * @param length 堆的长度
+     */
+    private static void siftDown(short[] array, int offset, int index, int length) {
+        short value = array[offset + index];
+        int child;
+        while ((child = (index << 1) + 1) < length) {
+            if (child + 1 < length && array[offset + child] < array[offset + child + 1]) {
+                child++;
+            }
+            if (!(value < array[offset + child])) {
+                break;
+            }
+            array[offset + index] = array[offset + child];
+            index = child;
+        }
+        array[offset + index] = value;
+    }
+
+    /**
+     * 三者取中,将中间值交换到array[start]作为快速排序的基准
+     *
+     * @param array
+     * @param start
+     * @param end
+     */
+    private static void exchangeMiddle(short[] array, int start, int end) {
+        int middle = (start + end) >> 1;
+
+        if (array[middle] < array[start]) {
+            if (array[end] < array[middle]) {
+                swap(array, start, middle);
+            } else if (array[end] < array[start]) {
+                swap(array, start, end);
+            }
+        } else {
+            if (array[middle] < array[end]) {
+                swap(array, start, middle);
+            } else if (array[start] < array[end]) {
+                swap(array, start, end);
+            }
+        }
+    }
+
+    /**
+     * 快速排序.按照升序排序.实现方式同{@link #quickSort(int[])}
+     *
+     * @param array 待排序的数组
+     * @throws IllegalArgumentException 数组为null
+     */
+    public static void quickSort(char[] array) throws IllegalArgumentException {
+        quickSort(array, 0, array.length - 1);
+    }
+
+    /**
+     * 快速排序
+     *
+     * @param array 待排序的数组
+     * @param start 起始索引,包含在内
+     * @param end   结束索引,包含在内
+     * @throws IllegalArgumentException
+     */
+    private static void quickSort(char[] array, int start, int end) throws IllegalArgumentException {
+        if (array == null || start > end + 1 || start < 0 || end >= array.length) {
+            throw new IllegalArgumentException();
+        }
+        quickSortImplementsWithRecursive(array, start, end, depthLimit(end - start + 1));
+    }
+
+    /**
+     * 用递归实现的快速排序.较小的一侧递归,较大的一侧循环处理,保证栈深度不超过log<sub>2</sub>n
+     *
+     * @param array      待排序的数组
+     * @param start      起始位置,包含在内
+     * @param end        结束位置,包含在内
+     * @param depthLimit 剩余允许的递归深度,为0时改用堆排序
+     */
+    private static void quickSortImplementsWithRecursive(char[] array, int start, int end, int depthLimit) {
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1);
+                return;
+            }
+
+            exchangeMiddle(array, start, end);
+            char target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end;
+            while (index <= upper) {
+                char value = array[index];
+                if (value < target) {
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (target < value) {
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            if (lower - start < end - upper) {
+                quickSortImplementsWithRecursive(array, start, lower - 1, depthLimit);
+                start = upper + 1;
+            } else {
+                quickSortImplementsWithRecursive(array, upper + 1, end, depthLimit);
+                end = lower - 1;
+            }
+        }
+
+        if (start < end) {
+            insertSortImplements(array, start, end + 1);
+        }
+    }
+
+    /**
+     * 堆排序.将数组[startIndex,endIndex)内的元素按升序排序.作为快速排序退化时的兜底
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     */
+    private static void heapSort(char[] array, int startIndex, int endIndex) {
+        int length = endIndex - startIndex;
+        for (int i = (length >> 1) - 1; i >= 0; i--) {
+            siftDown(array, startIndex, i, length);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, startIndex, startIndex + i);
+            siftDown(array, startIndex, 0, i);
+        }
+    }
+
+    /**
+     * 大顶堆的下沉操作.堆的根位于array[offset]
+     *
+     * @param array  保存堆的数组
+     * @param offset 堆在数组中的起始索引
+     * @param index  要下沉的节点(相对offset)
+     * @param length 堆的长度
+     */
+    private static void siftDown(char[] array, int offset, int index, int length) {
+        char value = array[offset + index];
+        int child;
+        while ((child = (index << 1) + 1) < length) {
+            if (child + 1 < length && array[offset + child] < array[offset + child + 1]) {
+                child++;
+            }
+            if (!(value < array[offset + child])) {
+                break;
+            }
+            array[offset + index] = array[offset + child];
+            index = child;
+        }
+        array[offset + index] = value;
+    }
+
+    /**
+     * 三者取中,将中间值交换到array[start]作为快速排序的基准
+     *
+     * @param array
+     * @param start
+     * @param end
+     */
+    private static void exchangeMiddle(char[] array, int start, int end) {
+        int middle = (start + end) >> 1;
+
+        if (array[middle] < array[start]) {
+            if (array[end] < array[middle]) {
+                swap(array, start, middle);
+            } else if (array[end] < array[start]) {
+                swap(array, start, end);
+            }
+        } else {
+            if (array[middle] < array[end]) {
+                swap(array, start, middle);
+            } else if (array[start] < array[end]) {
+                swap(array, start, end);
+            }
+        }
+    }
+
+    /**
+     * 快速排序.按照升序排序.实现方式同{@link #quickSort(int[])}
+     * Note: 大小关系与{@link Float#compare(float, float)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 待排序的数组
+     * @throws IllegalArgumentException 数组为null
+     */
+    public static void quickSort(float[] array) throws IllegalArgumentException {
+        quickSort(array, 0, array.length - 1);
+    }
+
+    /**
+     * 快速排序
+     *
+     * @param array 待排序的数组
+     * @param start 起始索引,包含在内
+     * @param end   结束索引,包含在内
+     * @throws IllegalArgumentException
+     */
+    private static void quickSort(float[] array, int start, int end) throws IllegalArgumentException {
+        if (array == null || start > end + 1 || start < 0 || end >= array.length) {
+            throw new IllegalArgumentException();
+        }
+        quickSortImplementsWithRecursive(array, start, end, depthLimit(end - start + 1));
+    }
+
+    /**
+     * 用递归实现的快速排序.较小的一侧递归,较大的一侧循环处理,保证栈深度不超过log<sub>2</sub>n
+     *
+     * @param array      待排序的数组
+     * @param start      起始位置,包含在内
+     * @param end        结束位置,包含在内
+     * @param depthLimit 剩余允许的递归深度,为0时改用堆排序
+     */
+    private static void quickSortImplementsWithRecursive(float[] array, int start, int end, int depthLimit) {
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1);
+                return;
+            }
+
+            exchangeMiddle(array, start, end);
+            float target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end;
+            while (index <= upper) {
+                float value = array[index];
+                if (Float.compare(value, target) < 0) {
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (Float.compare(target, value) < 0) {
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            if (lower - start < end - upper) {
+                quickSortImplementsWithRecursive(array, start, lower - 1, depthLimit);
+                start = upper + 1;
+            } else {
+                quickSortImplementsWithRecursive(array, upper + 1, end, depthLimit);
+                end = lower - 1;
+            }
+        }
+
+        if (start < end) {
+            insertSortImplements(array, start, end + 1);
+        }
+    }
+
+    /**
+     * 堆排序.将数组[startIndex,endIndex)内的元素按升序排序.作为快速排序退化时的兜底
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     */
+    private static void heapSort(float[] array, int startIndex, int endIndex) {
+        int length = endIndex - startIndex;
+        for (int i = (length >> 1) - 1; i >= 0; i--) {
+            siftDown(array, startIndex, i, length);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, startIndex, startIndex + i);
+            siftDown(array, startIndex, 0, i);
+        }
+    }
+
+    /**
+     * 大顶堆的下沉操作.堆的根位于array[offset]
+     *
+     * @param array  保存堆的数组
+     * @param offset 堆在数组中的起始索引
+     * @param index  要下沉的节点(相对offset)
+     * @param length 堆的长度
+     */
+    private static void siftDown(float[] array, int offset, int index, int length) {
+        float value = array[offset + index];
+        int child;
+        while ((child = (index << 1) + 1) < length) {
+            if (child + 1 < length && Float.compare(array[offset + child], array[offset + child + 1]) < 0) {
+                child++;
+            }
+            if (!(Float.compare(value, array[offset + child]) < 0)) {
+                break;
+            }
+            array[offset + index] = array[offset + child];
+            index = child;
+        }
+        array[offset + index] = value;
+    }
+
+    /**
+     * 三者取中,将中间值交换到array[start]作为快速排序的基准
+     *
+     * @param array
+     * @param start
+     * @param end
+     */
+    private static void exchangeMiddle(float[] array, int start, int end) {
+        int middle = (start + end) >> 1;
+
+        if (Float.compare(array[middle], array[start]) < 0) {
+            if (Float.compare(array[end], array[middle]) < 0) {
+                swap(array, start, middle);
+            } else if (Float.compare(array[end], array[start]) < 0) {
+                swap(array, start, end);
+            }
+        } else {
+            if (Float.compare(array[middle], array[end]) < 0) {
+                swap(array, start, middle);
+            } else if (Float.compare(array[start], array[end]) < 0) {
+                swap(array, start, end);
+            }
+        }
+    }
+
+    /**
+     * 快速排序.按照升序排序.实现方式同{@link #quickSort(int[])}
+     * Note: 大小关系与{@link Double#compare(double, double)}一致: -0.0 小于 0.0, NaN 大于所有其他值且与自身相等
+     *
+     * @param array 待排序的数组
+     * @throws IllegalArgumentException 数组为null
+     */
+    public static void quickSort(double[] array) throws IllegalArgumentException {
+        quickSort(array, 0, array.length - 1);
+    }
+
+    /**
+     * 快速排序
+     *
+     * @param array 待排序的数组
+     * @param start 起始索引,包含在内
+     * @param end   结束索引,包含在内
+     * @throws IllegalArgumentException
+     */
+    private static void quickSort(double[] array, int start, int end) throws IllegalArgumentException {
+        if (array == null || start > end + 1 || start < 0 || end >= array.length) {
+            throw new IllegalArgumentException();
+        }
+        quickSortImplementsWithRecursive(array, start, end, depthLimit(end - start + 1));
+    }
+
+    /**
+     * 用递归实现的快速排序.较小的一侧递归,较大的一侧循环处理,保证栈深度不超过log<sub>2</sub>n
+     *
+     * @param array      待排序的数组
+     * @param start      起始位置,包含在内
+     * @param end        结束位置,包含在内
+     * @param depthLimit 剩余允许的递归深度,为0时改用堆排序
+     */
+    private static void quickSortImplementsWithRecursive(double[] array, int start, int end, int depthLimit) {
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1);
+                return;
+            }
+
+            exchangeMiddle(array, start, end);
+            double target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end;
+            while (index <= upper) {
+                double value = array[index];
+                if (Double.compare(value, target) < 0) {
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (Double.compare(target, value) < 0) {
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            if (lower - start < end - upper) {
+                quickSortImplementsWithRecursive(array, start, lower - 1, depthLimit);
+                start = upper + 1;
+            } else {
+                quickSortImplementsWithRecursive(array, upper + 1, end, depthLimit);
+                end = lower - 1;
+            }
+        }
+
+        if (start < end) {
+            insertSortImplements(array, start, end + 1);
+        }
+    }
+
+    /**
+     * 堆排序.将数组[startIndex,endIndex)内的元素按升序排序.作为快速排序退化时的兜底
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     */
+    private static void heapSort(double[] array, int startIndex, int endIndex) {
+        int length = endIndex - startIndex;
+        for (int i = (length >> 1) - 1; i >= 0; i--) {
+            siftDown(array, startIndex, i, length);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, startIndex, startIndex + i);
+            siftDown(array, startIndex, 0, i);
+        }
+    }
+
+    /**
+     * 大顶堆的下沉操作.堆的根位于array[offset]
+     *
+     * @param array  保存堆的数组
+     * @param offset 堆在数组中的起始索引
+     * @param index  要下沉的节点(相对offset)
+     * @param length 堆的长度
+     */
+    private static void siftDown(double[] array, int offset, int index, int length) {
+        double value = array[offset + index];
+        int child;
+        while ((child = (index << 1) + 1) < length) {
+            if (child + 1 < length && Double.compare(array[offset + child], array[offset + child + 1]) < 0) {
+                child++;
+            }
+            if (!(Double.compare(value, array[offset + child]) < 0)) {
+                break;
+            }
+            array[offset + index] = array[offset + child];
+            index = child;
+        }
+        array[offset + index] = value;
+    }
+
+    /**
+     * 三者取中,将中间值交换到array[start]作为快速排序的基准
+     *
+     * @param array
+     * @param start
+     * @param end
+     */
+    private static void exchangeMiddle(double[] array, int start, int end) {
+        int middle = (start + end) >> 1;
+
+        if (Double.compare(array[middle], array[start]) < 0) {
+            if (Double.compare(array[end], array[middle]) < 0) {
+                swap(array, start, middle);
+            } else if (Double.compare(array[end], array[start]) < 0) {
+                swap(array, start, end);
+            }
+        } else {
+            if (Double.compare(array[middle], array[end]) < 0) {
+                swap(array, start, middle);
+            } else if (Double.compare(array[start], array[end]) < 0) {
+                swap(array, start, end);
+            }
+        }
+    }
+    // @generated-end quickSort
+
+    /**
+     * 快速选择(introselect).找出数组中第k小(从0开始)的元素. <br/>
+     * 完成后array[k]即为排序后应处于k处的元素,[0,k)中的元素都不大于它,(k,array.length)中的元素都不小于它. <br/>
+     * 三者取中选取基准,三路切分,只处理包含k的一侧,期望时间复杂度O(n);递归深度超过 2 * log<sub>2</sub>n 时改用堆排序兜底
+     *
+     * @param array 待选择的数组
+     * @param k     要选择的位置.取值 [0, array.length)
+     * @return 第k小的元素
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. k < 0 或 k >= array.length <br/>
+     */
+    public static int select(int[] array, int k) throws IllegalArgumentException {
+        if (array == null || k < 0 || k >= array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        int start = 0, end = array.length - 1, depthLimit = depthLimit(array.length);
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1);
+                return array[k];
+            }
+
+            exchangeMiddle(array, start, end);
+            int target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end;
+            while (index <= upper) {
+                int value = array[index];
+                if (value < target) {
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (value > target) {
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            if (k < lower) {
+                end = lower - 1;
+            } else if (k > upper) {
+                start = upper + 1;
+            } else {
+                return target;
+            }
+        }
+
+        insertSortImplements(array, start, end + 1);
+        return array[k];
+    }
+
+    /**
+     * 部分排序.将数组中最小的k个元素按升序排列在[0,k)中,其余元素的顺序不确定. <br/>
+     * 先用{@link #select(int[], int)}切分出最小的k个元素,再对其快速排序,时间复杂度O(n + klog<sub>2</sub>k)
+     *
+     * @param array 待排序的数组
+     * @param k     要排序的元素个数.取值 [0, array.length]
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. k < 0 或 k > array.length <br/>
+     */
+    public static void partialSort(int[] array, int k) throws IllegalArgumentException {
+        if (array == null || k < 0 || k > array.length) {
+            throw new IllegalArgumentException();
+        }
+        if (k == 0) {
+            return;
+        }
+
+        select(array, k - 1);
+        quickSortImplementsWithRecursive(array, 0, k - 2, depthLimit(k - 1));
+    }
+
+    /**
+     * 快速选择(introselect).找出数组中按comparator第k小(从0开始)的元素.实现方式同{@link #select(int[], int)}
+     *
+     * @param array      待选择的数组
+     * @param k          要选择的位置.取值 [0, array.length)
+     * @param comparator 比较器.自定义排序规则
+     * @return 第k小的元素
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null 或 comparator = null <br/>
+     *                                  2. k < 0 或 k >= array.length <br/>
+     */
+    public static <E> E select(E[] array, int k, Comparator<? super E> comparator) throws IllegalArgumentException {
+        if (array == null || comparator == null || k < 0 || k >= array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        int start = 0, end = array.length - 1, depthLimit = depthLimit(array.length);
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1, comparator);
+                return array[k];
+            }
+
+            exchangeMiddle(array, start, end, comparator);
+            E target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end, result;
+            while (index <= upper) {
+                E value = array[index];
+                if ((result = comparator.compare(value, target)) < 0) {
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (result > 0) {
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            if (k < lower) {
+                end = lower - 1;
+            } else if (k > upper) {
+                start = upper + 1;
+            } else {
+                return target;
+            }
+        }
+
+        TimSort.sort(array, start, end + 1, comparator);
+        return array[k];
+    }
+
+    /**
+     * 部分排序.将数组中按comparator最小的k个元素按升序排列在[0,k)中,其余元素的顺序不确定. <br/>
+     * 时间复杂度O(n + klog<sub>2</sub>k).取最大的k个元素时传入comparator.reversed()
+     *
+     * @param array      待排序的数组
+     * @param k          要排序的元素个数.取值 [0, array.length]
+     * @param comparator 比较器.自定义排序规则
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null 或 comparator = null <br/>
+     *                                  2. k < 0 或 k > array.length <br/>
+     */
+    public static <E> void partialSort(E[] array, int k, Comparator<? super E> comparator) throws IllegalArgumentException {
+        if (array == null || comparator == null || k < 0 || k > array.length) {
+            throw new IllegalArgumentException();
+        }
+        if (k == 0) {
+            return;
+        }
+
+        select(array, k - 1, comparator);
+        TimSort.sort(array, 0, k - 1, comparator);
+    }
+
+    /**
+     * 部分排序.同{@link #partialSort(Object[], int, Comparator)},辅助数组取自context,足够大时不分配内存
+     *
+     * @param array      待排序的数组
+     * @param k          要排序的元素个数.取值 [0, array.length]
+     * @param comparator 比较器.自定义排序规则
+     * @param context    提供可重复使用的辅助空间
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null 、 comparator = null 或 context = null <br/>
+     *                                  2. k < 0 或 k > array.length <br/>
+     */
+    public static <E> void partialSort(E[] array, int k, Comparator<? super E> comparator, SortContext context) throws IllegalArgumentException {
+        if (array == null || comparator == null || context == null || k < 0 || k > array.length) {
+            throw new IllegalArgumentException();
+        }
+        if (k == 0) {
+            return;
+        }
+
+        select(array, k - 1, comparator);
+        TimSort.sort(array, 0, k - 1, comparator, context);
+    }
+
+    /**
+     * 三者取中,将中间值交换到array[start]作为基准
+     *
+     * @param array
+     * @param start
+     * @param end
+     * @param comparator
+     */
+    private static <E> void exchangeMiddle(E[] array, int start, int end, Comparator<? super E> comparator) {
+        int middle = (start + end) >> 1;
+
+        if (comparator.compare(array[start], array[middle]) > 0) {
+            if (comparator.compare(array[middle], array[end]) > 0) {
+                swap(array, start, middle);
+            } else if (comparator.compare(array[start], array[end]) > 0) {
+                swap(array, start, end);
+            }
+        } else {
+            if (comparator.compare(array[middle], array[end]) < 0) {
+                swap(array, start, middle);
+            } else if (comparator.compare(array[start], array[end]) < 0) {
+                swap(array, start, end);
+            }
+        }
+    }
+
+    /**
+     * 堆排序.将数组[startIndex,endIndex)内的元素按comparator升序排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param comparator 比较器
      */
-    public static final Optional<int[]> insertSort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
-        checkIndex(array, startIndex, endIndex);
-        if (array == null) {
-            return Optional.empty();
+    private static <E> void heapSort(E[] array, int startIndex, int endIndex, Comparator<? super E> comparator) {
+        int length = endIndex - startIndex;
+        for (int i = (length >> 1) - 1; i >= 0; i--) {
+            siftDown(array, startIndex, i, length, comparator);
         }
-
-        for (int i = startIndex + 1, index; i < endIndex; i++) {
-            index = i;
-            while (index > startIndex && array[index] < array[index - 1]) {
-                swap(array, index, index - 1);
-                index--;
-            }
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, startIndex, startIndex + i);
+            siftDown(array, startIndex, 0, i, comparator);
         }
-
-        return Optional.of(array);
     }
 
     /**
-     * 获得希尔排序中的最大h
+     * 大顶堆的下沉操作.堆的根位于array[offset]
      *
-     * @param startIndex
-     * @param endIndex
-     * @return
+     * @param array      保存堆的数组
+     * @param offset     堆在数组中的起始索引
+     * @param index      要下沉的节点(相对offset)
+     * @param length     堆的长度
+     * @param comparator 比较器
      */
-    private static int getShellSortMaxH(int startIndex, int endIndex) {
-        int plus = startIndex + 1;
-        int h = plus, hMax = (endIndex - startIndex) / 3;
-        while (h < hMax) {
-            h = 3 * h + plus;
+    private static <E> void siftDown(E[] array, int offset, int index, int length, Comparator<? super E> comparator) {
+        E value = array[offset + index];
+        int child;
+        while ((child = (index << 1) + 1) < length) {
+            if (child + 1 < length && comparator.compare(array[offset + child + 1], array[offset + child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(array[offset + child], value) <= 0) {
+                break;
+            }
+            array[offset + index] = array[offset + child];
+            index = child;
         }
-        return h;
+        array[offset + index] = value;
     }
 
     /**
-     * 希尔排序.在插入排序的基础上改进. 在 [0,array.length) 上对数组从小到大排序
+     * 基数排序每一趟处理的位数
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * 基数排序的桶数
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * 基数排序(LSD).按照升序排序.时间复杂度O(d(n+k)),辅助空间O(n+k)
      *
      * @param array 待排序的数组
-     * @return 排序(以从小到大的顺序)完的数组
      */
-    public static Optional<int[]> shellSort(int[] array) {
-        return shellSort(array, 0, array.length);
+    public static void radixSort(int[] array) {
+        if (array == null) {
+            return;
+        }
+        radixSort(array, 0, array.length);
     }
 
     /**
-     * 希尔排序.在插入排序的基础上改进. 在 [startIndex,endIndex) 上对数组从小到大排序
+     * 基数排序(LSD).将数组[startIndex,endIndex)内的元素按升序排序. <br/>
+     * 每趟按8位分桶,共4趟;最高位取反使负数排在正数之前.所有元素落在同一个桶中的趟会被跳过
      *
      * @param array      待排序的数组
      * @param startIndex 起始索引,包含
      * @param endIndex   结束索引,不包含
-     * @return 排序(以从小到大的顺序)完的数组, 或为null
      * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
      *                                  1. startIndex > endIndex <br/>
      *                                  2. startIndex < 0 <br/>
      *                                  3. endIndex > array.length <br/>
      */
-    public static Optional<int[]> shellSort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+    public static void radixSort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
         if (array == null) {
-            return Optional.empty();
+            return;
         }
         checkIndex(array, startIndex, endIndex);
-
-        int h = getShellSortMaxH(startIndex, endIndex);
-        while (h >= 1) {
-            for (int i = h, lenght = endIndex; i < lenght; i++) {
-                for (int j = i; j >= h && array[j] < array[j - h]; j -= h) {
-                    swap(array, j, j - h);
-                }
-            }
-            h /= 3;
+        int length = endIndex - startIndex;
+        if (length < 2) {
+            return;
         }
-
-        return Optional.of(array);
-    }
-
-    /**
-     * 希尔排序.在 [0,array.length) 上对数组从小到大排序
-     *
-     * @param array      待排序的数组
-     * @param comparator 比较器.自定义排序规则
-     */
-    public static <E> void shellSort(Object[] array, Comparator<E> comparator) {
-        shellSort(array, 0, array.length, comparator);
+        radixSort(array, startIndex, endIndex, new int[Integer.SIZE / RADIX_BITS * RADIX], new int[length]);
     }
 
     /**
-     * 希尔排序.在插入排序的基础上改进.在 [startIndex,endIndex) 上对数组从小到大排序
+     * 基数排序.同{@link #radixSort(int[], int, int)},直方图与辅助数组取自context,足够大时不分配内存
      *
      * @param array      待排序的数组
      * @param startIndex 起始索引,包含
      * @param endIndex   结束索引,不包含
-     * @param comparator 比较器.自定义排序规则
+     * @param context    提供可重复使用的辅助空间
      * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
-     *                                  1. 当comparator为空时，抛出异常
-     *                                  2. startIndex > endIndex <br/>
-     *                                  3. startIndex < 0 <br/>
-     *                                  4. endIndex > array.length <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     *                                  4. context = null <br/>
      */
-    public static final <E> void shellSort(Object[] array, int startIndex, int endIndex, Comparator<E> comparator) throws IllegalArgumentException {
+    public static void radixSort(int[] array, int startIndex, int endIndex, SortContext context) throws IllegalArgumentException {
         if (array == null) {
             return;
         }
-        if (comparator == null) {
+        checkIndex(array, startIndex, endIndex);
+        if (context == null) {
             throw new IllegalArgumentException();
         }
-        checkIndex(array, startIndex, endIndex);
+        int length = endIndex - startIndex;
+        if (length < 2) {
+            return;
+        }
+        radixSort(array, startIndex, endIndex, context.countBuffer(Integer.SIZE / RADIX_BITS * RADIX),
+                context.intBuffer(length));
+    }
 
-        int h = getShellSortMaxH(startIndex, endIndex);
-        while (h >= 1) {
-            for (int i = h, lenght = array.length; i < lenght; i++) {
-                for (int j = i; j >= h && comparator.compare((E) array[j], (E) array[j - h]) < 0; j -= h) {
-                    swap(array, j, j - h);
-                }
+    /**
+     * 基数排序的实现
+     *
+     * @param counts 已清零的直方图,长度不小于 趟数 * {@value #RADIX}
+     * @param buffer 辅助数组,长度不小于endIndex - startIndex
+     */
+    private static void radixSort(int[] array, int startIndex, int endIndex, int[] counts, int[] buffer) {
+        int length = endIndex - startIndex;
+
+        // 1. 一次遍历统计出所有趟的直方图
+        int passes = Integer.SIZE / RADIX_BITS;
+        for (int i = startIndex; i < endIndex; i++) {
+            int value = array[i] ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass * RADIX + ((value >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
             }
-            h /= 3;
+        }
+
+        // 2. 按位从低到高在array与buffer之间来回分配
+        int[] src = array, dest = buffer;
+        int srcOffset = startIndex, destOffset = 0;
+        int first = array[startIndex] ^ Integer.MIN_VALUE;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS, base = pass * RADIX;
+            if (counts[base + ((first >>> shift) & (RADIX - 1))] == length) {
+                continue;
+            }
+
+            toOffsets(counts, base, destOffset);
+            for (int i = srcOffset, limit = srcOffset + length; i < limit; i++) {
+                int value = src[i];
+                dest[counts[base + (((value ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1))]++] = value;
+            }
+
+            int[] tempArray = src;
+            src = dest;
+            dest = tempArray;
+            int tempOffset = srcOffset;
+            srcOffset = destOffset;
+            destOffset = tempOffset;
+        }
+
+        if (src != array) {
+            System.arraycopy(src, srcOffset, array, startIndex, length);
         }
     }
 
     /**
-     * 希尔排序.在插入排序的基础上改进.在 [startIndex,endIndex) 上对数组从小到大排序
+     * 基数排序(LSD).按照升序排序.时间复杂度O(d(n+k)),辅助空间O(n+k)
+     *
+     * @param array 待排序的数组
+     */
+    public static void radixSort(long[] array) {
+        if (array == null) {
+            return;
+        }
+        radixSort(array, 0, array.length);
+    }
+
+    /**
+     * 基数排序(LSD).将数组[startIndex,endIndex)内的元素按升序排序. <br/>
+     * 每趟按8位分桶,共8趟;最高位取反使负数排在正数之前.所有元素落在同一个桶中的趟会被跳过
      *
      * @param array      待排序的数组
      * @param startIndex 起始索引,包含
@@ -424,186 +4270,375 @@ public final class Arrays {
      *                                  2. startIndex < 0 <br/>
      *                                  3. endIndex > array.length <br/>
      */
-    public static <E extends Comparable> void shellSort(Object[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+    public static void radixSort(long[] array, int startIndex, int endIndex) throws IllegalArgumentException {
         if (array == null) {
             return;
         }
         checkIndex(array, startIndex, endIndex);
-
-        int h = getShellSortMaxH(startIndex, endIndex);
-        while (h >= 1) {
-            for (int i = h, lenght = endIndex; i < lenght; i++) {
-                for (int j = i; j >= h && ((E) array[j]).compareTo(array[j - h]) < 0; j -= h) {
-                    swap(array, j, j - h);
-                }
-            }
-            h /= 3;
+        int length = endIndex - startIndex;
+        if (length < 2) {
+            return;
         }
+        radixSort(array, startIndex, endIndex, new int[Long.SIZE / RADIX_BITS * RADIX], new long[length]);
     }
 
     /**
-     * 原地归并排序.将数组[0.array.length)内的元素排序
-     *
-     * @param array 待排序的数组
-     */
-    public static void mergeSort(int[] array) {
-        mergeSort(array, 0, array.length);
-    }
-
-    /**
-     * 原地归并排序.将数组[startIndex,endIndex)内的元素排序
+     * 基数排序.同{@link #radixSort(long[], int, int)},直方图与辅助数组取自context,足够大时不分配内存
      *
      * @param array      待排序的数组
      * @param startIndex 起始索引,包含
      * @param endIndex   结束索引,不包含
+     * @param context    提供可重复使用的辅助空间
      * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
      *                                  1. startIndex > endIndex <br/>
      *                                  2. startIndex < 0 <br/>
      *                                  3. endIndex > array.length <br/>
+     *                                  4. context = null <br/>
      */
-    public static void mergeSort(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+    public static void radixSort(long[] array, int startIndex, int endIndex, SortContext context) throws IllegalArgumentException {
         if (array == null) {
             return;
         }
         checkIndex(array, startIndex, endIndex);
-
-        // 1. 当排序长度太小直接用插入排序
-        if (endIndex - 4 < startIndex) {
-            insertSort(array, startIndex, endIndex);
+        if (context == null) {
+            throw new IllegalArgumentException();
+        }
+        int length = endIndex - startIndex;
+        if (length < 2) {
             return;
         }
-
-        int[] cache = new int[endIndex - startIndex];
-        mergeSort(array, startIndex, ((endIndex + startIndex) >> 1), endIndex, cache);
+        radixSort(array, startIndex, endIndex, context.countBuffer(Long.SIZE / RADIX_BITS * RADIX),
+                context.longBuffer(length));
     }
 
-
     /**
-     * 真正实现merge sort的函数.将src的[startIndex,endIndex)元素排序至dest
+     * 基数排序的实现
      *
-     * @param src         待排序的数组
-     * @param startIndex  要排序的起始索引,包含
-     * @param middleIndex 要排序中间索引
-     * @param endIndex    要排序的结束索引,不包含
-     * @param cache       需要的辅助数组
+     * @param counts 已清零的直方图,长度不小于 趟数 * {@value #RADIX}
+     * @param buffer 辅助数组,长度不小于endIndex - startIndex
      */
-    private static void mergeSort(int[] src, int startIndex, int middleIndex, int endIndex, int[] cache) {
-        if (endIndex - 4 < startIndex) {
-            insertSort(src, startIndex, endIndex);
-            return;
+    private static void radixSort(long[] array, int startIndex, int endIndex, int[] counts, long[] buffer) {
+        int length = endIndex - startIndex;
+
+        // 1. 一次遍历统计出所有趟的直方图
+        int passes = Long.SIZE / RADIX_BITS;
+        for (int i = startIndex; i < endIndex; i++) {
+            long value = array[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass * RADIX + (int) ((value >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
         }
 
-        // 左半边数组排序
-        mergeSort(src, startIndex, (startIndex + middleIndex) >> 1, middleIndex, cache);
+        // 2. 按位从低到高在array与buffer之间来回分配
+        long[] src = array, dest = buffer;
+        int srcOffset = startIndex, destOffset = 0;
+        long first = array[startIndex] ^ Long.MIN_VALUE;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS, base = pass * RADIX;
+            if (counts[base + (int) ((first >>> shift) & (RADIX - 1))] == length) {
+                continue;
+            }
 
-        // 右半边数组排序
-        mergeSort(src, middleIndex, (endIndex + middleIndex) >> 1, endIndex, cache);
+            toOffsets(counts, base, destOffset);
+            for (int i = srcOffset, limit = srcOffset + length; i < limit; i++) {
+                long value = src[i];
+                dest[counts[base + (int) (((value ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))]++] = value;
+            }
 
-        int cacheLength = endIndex - startIndex, cacheEndIndex = cacheLength - 1, cacheMiddleIndex = (cacheLength >> 1);
-        System.arraycopy(src, startIndex, cache, 0, cacheLength);
+            long[] tempArray = src;
+            src = dest;
+            dest = tempArray;
+            int tempOffset = srcOffset;
+            srcOffset = destOffset;
+            destOffset = tempOffset;
+        }
 
-        int leftIndex = 0, rightIndex = cacheMiddleIndex;
-        for (int i = startIndex; i < endIndex; i++) {
-            if (leftIndex >= cacheMiddleIndex) {
-                src[i] = cache[rightIndex++];
-            } else if (rightIndex > cacheEndIndex) {
-                src[i] = cache[leftIndex++];
-            } else if (cache[leftIndex] < cache[rightIndex]) {
-                src[i] = cache[leftIndex++];
-            } else {
-                src[i] = cache[rightIndex++];
-            }
+        if (src != array) {
+            System.arraycopy(src, srcOffset, array, startIndex, length);
         }
     }
 
     /**
-     * 快速排序
+     * 将counts[base,base + RADIX)中的计数转换为各桶在目标数组中的起始位置
      *
-     * @param array 待排序的数组
-     * @throws IllegalArgumentException 数组为null
+     * @param counts 直方图
+     * @param base   本趟直方图的起始索引
+     * @param offset 目标数组的起始位置
      */
-    public static void quickSort(int[] array) throws IllegalArgumentException {
-        quickSort(array, 0, array.length - 1);
+    private static void toOffsets(int[] counts, int base, int offset) {
+        for (int i = base, limit = base + RADIX; i < limit; i++) {
+            int count = counts[i];
+            counts[i] = offset;
+            offset += count;
+        }
     }
 
     /**
-     * 快速排序
+     * 间接排序(argsort).不移动keys,返回使keys升序排列的下标序列. <br/>
+     * 即keys[result[0]] <= keys[result[1]] <= ...;相等的key保持原有的先后顺序(稳定)
      *
-     * @param array 待排序的数组
-     * @param start 起始索引,包含在内
-     * @param end   结束索引,不包含在内
-     * @throws IllegalArgumentException
+     * @param keys 待排序的key
+     * @return 排序后的下标序列
+     * @throws IllegalArgumentException 当keys为null时抛出异常
      */
-    private static void quickSort(int[] array, int start, int end) throws IllegalArgumentException {
-        if (array == null || start > end || start < 0 || end > array.length) {
+    public static int[] sortIndices(int[] keys) throws IllegalArgumentException {
+        if (keys == null) {
             throw new IllegalArgumentException();
         }
-        quickSortImplementsWithRecursive(array, start, end);
+        return radixSortWithIndices(keys.clone());
     }
 
     /**
-     * 用递归实现的快速排序
+     * 将keys升序排序,并将payload按同样的方式原地重排,使keys[i]与payload[i]保持对应.排序是稳定的
      *
-     * @param array 待排序的数组
-     * @param start 起始位置,包含在内
-     * @param end   结束位置,包含在内
+     * @param keys    待排序的key
+     * @param payload 与keys一一对应的数据
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. keys或payload为null <br/>
+     *                                  2. keys.length != payload.length <br/>
      */
-    private static void quickSortImplementsWithRecursive(int[] array, int start, int end) {
-        if (start >= end) {
-            return;
+    public static void sortWithPayload(int[] keys, int[] payload) throws IllegalArgumentException {
+        if (keys == null || payload == null || keys.length != payload.length) {
+            throw new IllegalArgumentException();
         }
-        int left = start, right = end;
-        exchangeMiddle(array, start, end);
-        int target = array[start];
 
-        while (left < right) {
-            while (left < right && target <= array[right]) {
-                --right;
+        int[] indices = radixSortWithIndices(keys);
+        for (int i = 0, length = indices.length; i < length; i++) {
+            if (indices[i] < 0) {
+                continue;
             }
-            array[left] = array[right];
+            int temp = payload[i], index = i, next;
+            while ((next = indices[index]) != i) {
+                indices[index] = ~next;
+                payload[index] = payload[next];
+                index = next;
+            }
+            indices[index] = ~next;
+            payload[index] = temp;
+        }
+    }
+
+    /**
+     * 将keys升序排序,并将payload按同样的方式原地重排,使keys[i]与payload[i]保持对应.排序是稳定的
+     *
+     * @param keys    待排序的key
+     * @param payload 与keys一一对应的数据
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. keys或payload为null <br/>
+     *                                  2. keys.length != payload.length <br/>
+     */
+    public static void sortWithPayload(int[] keys, long[] payload) throws IllegalArgumentException {
+        if (keys == null || payload == null || keys.length != payload.length) {
+            throw new IllegalArgumentException();
+        }
 
-            while (left < right && target >= array[left]) {
-                ++left;
+        int[] indices = radixSortWithIndices(keys);
+        for (int i = 0, length = indices.length; i < length; i++) {
+            if (indices[i] < 0) {
+                continue;
             }
-            array[right] = array[left];
+            long temp = payload[i];
+            int index = i, next;
+            while ((next = indices[index]) != i) {
+                indices[index] = ~next;
+                payload[index] = payload[next];
+                index = next;
+            }
+            indices[index] = ~next;
+            payload[index] = temp;
+        }
+    }
+
+    /**
+     * 将keys升序排序,并将payload按同样的方式原地重排,使keys[i]与payload[i]保持对应.排序是稳定的
+     *
+     * @param keys    待排序的key
+     * @param payload 与keys一一对应的数据
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. keys或payload为null <br/>
+     *                                  2. keys.length != payload.length <br/>
+     */
+    public static void sortWithPayload(int[] keys, Object[] payload) throws IllegalArgumentException {
+        if (keys == null || payload == null || keys.length != payload.length) {
+            throw new IllegalArgumentException();
+        }
+        permute(payload, radixSortWithIndices(keys));
+    }
+
+    /**
+     * 按int类型的key对数组排序.排序是稳定的. <br/>
+     * 先一次性取出所有key,用基数排序对key及下标排序,最后按下标序列原地重排array; <br/>
+     * 整个过程中keyExtractor对每个元素只调用一次,不需要逐次调用comparator
+     *
+     * @param array        待排序的数组
+     * @param keyExtractor 从元素中取出key
+     * @throws IllegalArgumentException 当array或keyExtractor为null时抛出异常
+     */
+    public static <E> void sortByIntKey(E[] array, ToIntFunction<? super E> keyExtractor) throws IllegalArgumentException {
+        if (array == null || keyExtractor == null) {
+            throw new IllegalArgumentException();
         }
-        array[left] = target;
 
-        quickSortImplementsWithRecursive(array, start, left - 1);
-        quickSortImplementsWithRecursive(array, left + 1, end);
+        int[] keys = new int[array.length];
+        for (int i = 0, length = array.length; i < length; i++) {
+            keys[i] = keyExtractor.applyAsInt(array[i]);
+        }
+        permute(array, radixSortWithIndices(keys));
     }
 
     /**
-     * 快速排序针对基本有序的数组，时间复杂度接近O(n^2).运用三者取中找到合适的基准记录
+     * 按long类型的key对数组排序.排序是稳定的.实现方式同{@link #sortByIntKey(Object[], ToIntFunction)}
      *
-     * @param array
-     * @param start
-     * @param end
+     * @param array        待排序的数组
+     * @param keyExtractor 从元素中取出key
+     * @throws IllegalArgumentException 当array或keyExtractor为null时抛出异常
      */
-    private static void exchangeMiddle(int[] array, int start, int end) {
-        int middle = (start + end) >> 1;
+    public static <E> void sortByLongKey(E[] array, ToLongFunction<? super E> keyExtractor) throws IllegalArgumentException {
+        if (array == null || keyExtractor == null) {
+            throw new IllegalArgumentException();
+        }
 
-        if (array[start] > array[middle]) {
-            if (array[middle] > array[end]) {
-                swap(array, start, middle);
-                return;
+        long[] keys = new long[array.length];
+        for (int i = 0, length = array.length; i < length; i++) {
+            keys[i] = keyExtractor.applyAsLong(array[i]);
+        }
+        permute(array, radixSortWithIndices(keys));
+    }
+
+    /**
+     * 按下标序列原地重排数组: 重排后的payload[i]为原来的payload[indices[i]]. <br/>
+     * 沿置换的环依次移动元素,访问过的位置将indices[i]取反作为标记,完成后indices不可再用
+     *
+     * @param payload 待重排的数组
+     * @param indices 下标序列
+     */
+    private static void permute(Object[] payload, int[] indices) {
+        for (int i = 0, length = indices.length; i < length; i++) {
+            if (indices[i] < 0) {
+                continue;
             }
-            if (array[start] > array[end]) {
-                swap(array, start, end);
-                return;
+            Object temp = payload[i];
+            int index = i, next;
+            while ((next = indices[index]) != i) {
+                indices[index] = ~next;
+                payload[index] = payload[next];
+                index = next;
+            }
+            indices[index] = ~next;
+            payload[index] = temp;
+        }
+    }
+
+    /**
+     * 对keys原地基数排序(LSD),同时记录每个元素原来的下标.LSD基数排序是稳定的
+     *
+     * @param keys 待排序的key,排序后为升序
+     * @return 下标序列: 排序后的keys[i]为原来的keys[result[i]]
+     */
+    private static int[] radixSortWithIndices(int[] keys) {
+        int length = keys.length;
+        int[] indices = new int[length];
+        for (int i = 0; i < length; i++) {
+            indices[i] = i;
+        }
+        if (length < 2) {
+            return indices;
+        }
+
+        int passes = Integer.SIZE / RADIX_BITS;
+        int[] counts = new int[passes * RADIX];
+        for (int i = 0; i < length; i++) {
+            int value = keys[i] ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass * RADIX + ((value >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
             }
         }
 
-        if (array[middle] < array[end]) {
-            swap(array, start, middle);
-            return;
+        int[] srcKeys = keys, srcIndices = indices;
+        int[] destKeys = new int[length], destIndices = new int[length];
+        int first = keys[0] ^ Integer.MIN_VALUE;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS, base = pass * RADIX;
+            if (counts[base + ((first >>> shift) & (RADIX - 1))] == length) {
+                continue;
+            }
+
+            toOffsets(counts, base, 0);
+            for (int i = 0; i < length; i++) {
+                int value = srcKeys[i];
+                int position = counts[base + (((value ^ Integer.MIN_VALUE) >>> shift) & (RADIX - 1))]++;
+                destKeys[position] = value;
+                destIndices[position] = srcIndices[i];
+            }
+
+            int[] temp = srcKeys;
+            srcKeys = destKeys;
+            destKeys = temp;
+            temp = srcIndices;
+            srcIndices = destIndices;
+            destIndices = temp;
         }
-        if (array[start] > array[end]) {
-            swap(array, start, end);
+
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, length);
         }
+        return srcIndices;
     }
 
 
-}
+    /**
+     * 对keys原地基数排序(LSD),同时记录每个元素原来的下标.LSD基数排序是稳定的
+     *
+     * @param keys 待排序的key,排序后为升序
+     * @return 下标序列: 排序后的keys[i]为原来的keys[result[i]]
+     */
+    private static int[] radixSortWithIndices(long[] keys) {
+        int length = keys.length;
+        int[] indices = new int[length];
+        for (int i = 0; i < length; i++) {
+            indices[i] = i;
+        }
+        if (length < 2) {
+            return indices;
+        }
+
+        int passes = Long.SIZE / RADIX_BITS;
+        int[] counts = new int[passes * RADIX];
+        for (int i = 0; i < length; i++) {
+            long value = keys[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[pass * RADIX + (int) ((value >>> (pass * RADIX_BITS)) & (RADIX - 1))]++;
+            }
+        }
 
+        long[] srcKeys = keys, destKeys = new long[length];
+        int[] srcIndices = indices, destIndices = new int[length];
+        long first = keys[0] ^ Long.MIN_VALUE;
+        for (int pass = 0; pass < passes; pass++) {
+            int shift = pass * RADIX_BITS, base = pass * RADIX;
+            if (counts[base + (int) ((first >>> shift) & (RADIX - 1))] == length) {
+                continue;
+            }
+
+            toOffsets(counts, base, 0);
+            for (int i = 0; i < length; i++) {
+                long value = srcKeys[i];
+                int position = counts[base + (int) (((value ^ Long.MIN_VALUE) >>> shift) & (RADIX - 1))]++;
+                destKeys[position] = value;
+                destIndices[position] = srcIndices[i];
+            }
+
+            long[] tempKeys = srcKeys;
+            srcKeys = destKeys;
+            destKeys = tempKeys;
+            int[] tempIndices = srcIndices;
+            srcIndices = destIndices;
+            destIndices = tempIndices;
+        }
 
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, length);
+        }
+        return srcIndices;
+    }
+}
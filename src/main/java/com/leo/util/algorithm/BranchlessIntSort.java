@@ -0,0 +1,231 @@
+package com.leo.util.algorithm;
+
+/**
+ * int[]的无分支排序内核.内层循环中不根据数据做条件跳转,只用比较结果计算下标或取min/max, <br/>
+ * JIT可以将其编译为条件传送(cmov),随机数据上不会因分支预测失败而停顿: <br/>
+ * 1. 切分: 无分支的Lomuto切分,每个元素固定执行一次交换,按比较结果推进边界 <br/>
+ * 2. 归并: 每一步按比较结果选择左右两侧的元素并推进下标 <br/>
+ * 3. 小区间: 使用Batcher奇偶归并排序网络,比较交换的顺序与数据无关 <br/>
+ * 默认关闭,通过系统属性 -D{@value #ENABLED_PROPERTY}=true 开启后, <br/>
+ * {@link Arrays#quickSort(int[])}与{@link Arrays#mergeSort(int[], int, int)}会改用该内核,接口与结果不变
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/24
+ * @since 1.0
+ */
+final class BranchlessIntSort {
+
+    /**
+     * 开启该内核的系统属性
+     */
+    static final String ENABLED_PROPERTY = "com.leo.util.algorithm.branchlessSort";
+
+    /**
+     * 是否开启
+     */
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * 长度不大于该值的区间使用排序网络
+     */
+    private static final int NETWORK_SIZE = 16;
+
+    /**
+     * NETWORKS[n]: 长度为n的排序网络,依次为每个比较器的两个下标
+     */
+    private static final int[][] NETWORKS = new int[NETWORK_SIZE + 1][];
+
+    static {
+        // 生成长度为NETWORK_SIZE的Batcher奇偶归并网络,超出n的位置视为正无穷,去掉涉及它们的比较器即得到长度为n的网络
+        int[] pairs = new int[NETWORK_SIZE * NETWORK_SIZE * 2];
+        int count = 0;
+        for (int p = 1; p < NETWORK_SIZE; p <<= 1) {
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j + k < NETWORK_SIZE; j += k << 1) {
+                    for (int i = 0; i < k && i + j + k < NETWORK_SIZE; i++) {
+                        if ((i + j) / (p << 1) == (i + j + k) / (p << 1)) {
+                            pairs[count++] = i + j;
+                            pairs[count++] = i + j + k;
+                        }
+                    }
+                }
+            }
+        }
+
+        for (int n = 0; n <= NETWORK_SIZE; n++) {
+            int[] network = new int[count];
+            int length = 0;
+            for (int i = 0; i < count; i += 2) {
+                if (pairs[i + 1] < n) {
+                    network[length++] = pairs[i];
+                    network[length++] = pairs[i + 1];
+                }
+            }
+            NETWORKS[n] = java.util.Arrays.copyOf(network, length);
+        }
+    }
+
+    private BranchlessIntSort() {
+    }
+
+    /**
+     * 内省排序.将数组[startIndex,endIndex)内的元素按升序排序,下标已由调用方检查
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     */
+    static void sort(int[] array, int startIndex, int endIndex) {
+        int length = endIndex - startIndex;
+        int depthLimit = length < 2 ? 0 : (31 - Integer.numberOfLeadingZeros(length)) << 1;
+        sort(array, startIndex, endIndex, depthLimit, true);
+    }
+
+    /**
+     * @param leftmost 是否为最左侧的区间.不是时array[startIndex - 1]不大于区间内的所有元素
+     */
+    private static void sort(int[] array, int startIndex, int endIndex, int depthLimit, boolean leftmost) {
+        while (endIndex - startIndex > NETWORK_SIZE) {
+            if (depthLimit-- == 0) {
+                Arrays.heapSort(array, startIndex, endIndex);
+                return;
+            }
+
+            // 1. 三者取中,基准放到末尾
+            int last = endIndex - 1, middle = (startIndex + endIndex) >>> 1;
+            compareExchange(array, startIndex, middle);
+            compareExchange(array, middle, last);
+            compareExchange(array, startIndex, middle);
+            swap(array, middle, last);
+            int pivot = array[last];
+
+            // 2. 基准与左侧相邻的元素相等时,区间内不大于基准的元素都等于基准,只需切出等于基准的部分
+            if (!leftmost && array[startIndex - 1] == pivot) {
+                int index = partition(array, startIndex, last, pivot, 1);
+                swap(array, index, last);
+                startIndex = index + 1;
+                continue;
+            }
+
+            // 3. [startIndex,index) < pivot, [index,last) >= pivot
+            int index = partition(array, startIndex, last, pivot, 0);
+            swap(array, index, last);
+
+            if (index - startIndex < endIndex - index) {
+                sort(array, startIndex, index, depthLimit, leftmost);
+                startIndex = index + 1;
+                leftmost = false;
+            } else {
+                sort(array, index + 1, endIndex, depthLimit, false);
+                endIndex = index;
+            }
+        }
+
+        sortNetwork(array, startIndex, endIndex - startIndex);
+    }
+
+    /**
+     * 无分支的Lomuto切分.将[startIndex,endIndex)内小于pivot + inclusive的元素移到左侧
+     *
+     * @param inclusive 为1时将等于pivot的元素也移到左侧
+     * @return 右侧部分的起始索引
+     */
+    private static int partition(int[] array, int startIndex, int endIndex, int pivot, int inclusive) {
+        long bound = (long) pivot + inclusive;
+        int index = startIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            int value = array[i];
+            array[i] = array[index];
+            array[index] = value;
+            index += (int) ((value - bound) >>> 63);
+        }
+        return index;
+    }
+
+    /**
+     * 归并排序.将数组[startIndex,endIndex)内的元素按升序排序,下标已由调用方检查. <br/>
+     * 自底向上: 先用排序网络排好每{@value #NETWORK_SIZE}个元素,再在array与辅助数组间来回无分支地归并
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     */
+    static void mergeSort(int[] array, int startIndex, int endIndex) {
+        mergeSort(array, startIndex, endIndex, new int[endIndex - startIndex]);
+    }
+
+    /**
+     * @param buffer 辅助数组,长度不小于endIndex - startIndex
+     */
+    static void mergeSort(int[] array, int startIndex, int endIndex, int[] buffer) {
+        int length = endIndex - startIndex;
+        for (int i = startIndex; i < endIndex; i += NETWORK_SIZE) {
+            sortNetwork(array, i, Math.min(NETWORK_SIZE, endIndex - i));
+        }
+        if (length <= NETWORK_SIZE) {
+            return;
+        }
+
+        int[] src = array, dest = buffer;
+        int srcOffset = startIndex, destOffset = 0;
+        for (int width = NETWORK_SIZE; width < length; width <<= 1) {
+            for (int left = 0; left < length; left += width << 1) {
+                int middle = Math.min(left + width, length), right = Math.min(left + (width << 1), length);
+                merge(src, srcOffset + left, srcOffset + middle, srcOffset + right, dest, destOffset + left);
+            }
+
+            int[] tempArray = src;
+            src = dest;
+            dest = tempArray;
+            int tempOffset = srcOffset;
+            srcOffset = destOffset;
+            destOffset = tempOffset;
+        }
+
+        if (src != array) {
+            System.arraycopy(src, srcOffset, array, startIndex, length);
+        }
+    }
+
+    /**
+     * 无分支地将有序的src[leftStart,leftEnd)与src[leftEnd,rightEnd)合并到dest[destIndex,...).相等时左侧优先
+     */
+    private static void merge(int[] src, int leftStart, int leftEnd, int rightEnd, int[] dest, int destIndex) {
+        int left = leftStart, right = leftEnd;
+        while (left < leftEnd && right < rightEnd) {
+            int leftValue = src[left], rightValue = src[right];
+            int takeRight = (int) (((long) rightValue - leftValue) >>> 63);
+            dest[destIndex++] = takeRight == 0 ? leftValue : rightValue;
+            right += takeRight;
+            left += takeRight ^ 1;
+        }
+        System.arraycopy(src, left, dest, destIndex, leftEnd - left);
+        System.arraycopy(src, right, dest, destIndex + leftEnd - left, rightEnd - right);
+    }
+
+    /**
+     * 用排序网络将array[offset, offset + length)排序,length不大于{@value #NETWORK_SIZE}
+     */
+    private static void sortNetwork(int[] array, int offset, int length) {
+        int[] network = NETWORKS[length];
+        for (int i = 0, count = network.length; i < count; i += 2) {
+            compareExchange(array, offset + network[i], offset + network[i + 1]);
+        }
+    }
+
+    /**
+     * 比较交换: 使array[i] <= array[j]
+     */
+    private static void compareExchange(int[] array, int i, int j) {
+        int a = array[i], b = array[j];
+        array[i] = Math.min(a, b);
+        array[j] = Math.max(a, b);
+    }
+
+    private static void swap(int[] array, int i, int j) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+}
@@ -0,0 +1,487 @@
+package com.leo.util.algorithm;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 外部排序.对超过堆内存大小的定长二进制记录(int或long,大端序)文件排序: <br/>
+ * 1. 切分: 按块读取输入文件,每块的大小由内存预算决定 <br/>
+ * 2. 块内排序: 每块用{@link Arrays#radixSort(int[], int, int)}在内存中排序,写出到临时目录,称为一个run <br/>
+ * 3. 归并: 用败者树对所有run进行k路归并,写入输出文件;run过多时分多趟归并 <br/>
+ * 每个阶段读写的字节数记录在{@link Statistics}中. <br/>
+ * Note: 所有读写都通过FileChannel与可复用的缓冲区进行,不使用内存映射,因此run文件在关闭后可以立即删除(包括Windows)
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/13
+ * @since 1.0
+ */
+public final class ExternalSort {
+
+    /**
+     * 记录的类型
+     */
+    public enum RecordType {
+
+        /**
+         * 4字节的int
+         */
+        INT(Integer.BYTES),
+
+        /**
+         * 8字节的long
+         */
+        LONG(Long.BYTES);
+
+        /**
+         * 每条记录的字节数
+         */
+        private final int bytes;
+
+        RecordType(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+    /**
+     * 各阶段读写的字节数
+     */
+    public static final class Statistics {
+
+        /**
+         * 切分阶段从输入文件读取的字节数
+         */
+        private long chunkBytesRead;
+
+        /**
+         * 块内排序后写出run的字节数
+         */
+        private long runBytesWritten;
+
+        /**
+         * 归并阶段读取run的字节数
+         */
+        private long mergeBytesRead;
+
+        /**
+         * 归并阶段写出的字节数(包括中间run与最终的输出文件)
+         */
+        private long mergeBytesWritten;
+
+        /**
+         * 生成的初始run个数
+         */
+        private int runCount;
+
+        /**
+         * 归并的趟数
+         */
+        private int mergePasses;
+
+        public long getChunkBytesRead() {
+            return chunkBytesRead;
+        }
+
+        public long getRunBytesWritten() {
+            return runBytesWritten;
+        }
+
+        public long getMergeBytesRead() {
+            return mergeBytesRead;
+        }
+
+        public long getMergeBytesWritten() {
+            return mergeBytesWritten;
+        }
+
+        public int getRunCount() {
+            return runCount;
+        }
+
+        public int getMergePasses() {
+            return mergePasses;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{chunkBytesRead=" + chunkBytesRead + ", runBytesWritten=" + runBytesWritten
+                    + ", mergeBytesRead=" + mergeBytesRead + ", mergeBytesWritten=" + mergeBytesWritten
+                    + ", runCount=" + runCount + ", mergePasses=" + mergePasses + '}';
+        }
+    }
+
+    /**
+     * 默认的内存预算: 64MB
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * 归并时每个run读写缓冲区的最小字节数
+     */
+    private static final int MIN_BUFFER_BYTES = 64 << 10;
+
+    /**
+     * 归并时每个run读写缓冲区的最大字节数
+     */
+    private static final int MAX_BUFFER_BYTES = 8 << 20;
+
+    /**
+     * 内存预算,单位字节
+     */
+    private final long memoryBudget;
+
+    /**
+     * 保存run的临时目录
+     */
+    private final Path tempDirectory;
+
+    public ExternalSort() {
+        this(DEFAULT_MEMORY_BUDGET, null);
+    }
+
+    /**
+     * @param memoryBudget  内存预算,单位字节.块内排序需要两倍于块大小的内存,因此每块最多为内存预算的一半
+     * @param tempDirectory 保存run的临时目录;为null时使用java.io.tmpdir
+     * @throws IllegalArgumentException 当memoryBudget小于两个最小缓冲区时抛出异常
+     */
+    public ExternalSort(long memoryBudget, Path tempDirectory) throws IllegalArgumentException {
+        if (memoryBudget < 2L * MIN_BUFFER_BYTES) {
+            throw new IllegalArgumentException("Illegal memory budget: " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+        this.tempDirectory = tempDirectory == null ? Paths.get(System.getProperty("java.io.tmpdir")) : tempDirectory;
+    }
+
+    /**
+     * 将input中的记录按升序排序后写入output
+     *
+     * @param input      输入文件,长度必须是记录字节数的整数倍
+     * @param output     输出文件,已存在时会被覆盖;可以与input相同
+     * @param recordType 记录的类型
+     * @return 各阶段读写的字节数
+     * @throws IOException              读写文件失败时抛出异常
+     * @throws IllegalArgumentException 当参数为null或输入文件长度不是记录字节数的整数倍时抛出异常
+     */
+    public Statistics sort(Path input, Path output, RecordType recordType) throws IOException, IllegalArgumentException {
+        if (input == null || output == null || recordType == null) {
+            throw new IllegalArgumentException();
+        }
+
+        Statistics statistics = new Statistics();
+        List<Path> runs = new ArrayList<>();
+        // 创建过的所有临时文件.任一步骤失败时,finally中全部删除
+        List<Path> created = new ArrayList<>();
+        try {
+            // 1. 切分并排序每一块.只有一块时直接写入output
+            try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+                long size = channel.size();
+                int recordBytes = recordType.getBytes();
+                if (size % recordBytes != 0) {
+                    throw new IllegalArgumentException("Input size " + size + " is not a multiple of " + recordBytes);
+                }
+
+                long chunkRecords = Math.min(memoryBudget / 2 / recordBytes, Integer.MAX_VALUE / recordBytes);
+                if (size <= chunkRecords * recordBytes) {
+                    sortChunk(channel, 0, (int) (size / recordBytes), recordType, output, statistics);
+                    statistics.runCount = size == 0 ? 0 : 1;
+                    return statistics;
+                }
+
+                for (long position = 0; position < size; position += chunkRecords * recordBytes) {
+                    int records = (int) Math.min(chunkRecords, (size - position) / recordBytes);
+                    Path run = Files.createTempFile(tempDirectory, "run-", ".tmp");
+                    created.add(run);
+                    runs.add(run);
+                    sortChunk(channel, position, records, recordType, run, statistics);
+                }
+                statistics.runCount = runs.size();
+            }
+
+            // 2. 多趟归并,直到run的个数不超过最大的归并路数
+            int maxFanIn = (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBudget / MIN_BUFFER_BYTES - 1));
+            while (runs.size() > maxFanIn) {
+                List<Path> mergedRuns = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += maxFanIn) {
+                    List<Path> group = runs.subList(i, Math.min(i + maxFanIn, runs.size()));
+                    Path run = Files.createTempFile(tempDirectory, "run-", ".tmp");
+                    created.add(run);
+                    mergedRuns.add(run);
+                    merge(group, run, recordType, statistics);
+                    deleteAll(group);
+                }
+                runs = mergedRuns;
+                statistics.mergePasses++;
+            }
+            merge(runs, output, recordType, statistics);
+            statistics.mergePasses++;
+            return statistics;
+        } finally {
+            deleteAll(created);
+        }
+    }
+
+    /**
+     * 读取一块,在内存中排序后写入target
+     *
+     * @param channel    输入文件
+     * @param position   块在输入文件中的起始位置
+     * @param records    块中的记录数
+     * @param recordType 记录的类型
+     * @param target     写入的文件
+     * @param statistics 记录读写的字节数
+     * @throws IOException 读写文件失败时抛出异常
+     */
+    private static void sortChunk(FileChannel channel, long position, int records, RecordType recordType,
+                                  Path target, Statistics statistics) throws IOException {
+        int recordBytes = recordType.getBytes();
+        long bytes = (long) records * recordBytes;
+        // 分段读写,缓冲区只占MAX_BUFFER_BYTES,不需要再复制一份整块
+        int bufferRecords = Math.max(1, Math.min(records, MAX_BUFFER_BYTES / recordBytes));
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bufferRecords * recordBytes);
+        // 先读完并排序整块,再打开target: target可能就是输入文件,提前截断会丢失数据
+        if (recordType == RecordType.INT) {
+            int[] chunk = new int[records];
+            for (int offset = 0, count; offset < records; offset += count) {
+                count = Math.min(bufferRecords, records - offset);
+                readFully(channel, position + (long) offset * recordBytes, buffer, count * recordBytes);
+                buffer.asIntBuffer().get(chunk, offset, count);
+            }
+            Arrays.radixSort(chunk);
+            try (FileChannel out = openForWrite(target)) {
+                for (int offset = 0, count; offset < records; offset += count) {
+                    count = Math.min(bufferRecords, records - offset);
+                    buffer.clear();
+                    buffer.asIntBuffer().put(chunk, offset, count);
+                    buffer.limit(count * recordBytes);
+                    writeFully(out, buffer);
+                }
+            }
+        } else {
+            long[] chunk = new long[records];
+            for (int offset = 0, count; offset < records; offset += count) {
+                count = Math.min(bufferRecords, records - offset);
+                readFully(channel, position + (long) offset * recordBytes, buffer, count * recordBytes);
+                buffer.asLongBuffer().get(chunk, offset, count);
+            }
+            Arrays.radixSort(chunk);
+            try (FileChannel out = openForWrite(target)) {
+                for (int offset = 0, count; offset < records; offset += count) {
+                    count = Math.min(bufferRecords, records - offset);
+                    buffer.clear();
+                    buffer.asLongBuffer().put(chunk, offset, count);
+                    buffer.limit(count * recordBytes);
+                    writeFully(out, buffer);
+                }
+            }
+        }
+        statistics.chunkBytesRead += bytes;
+        statistics.runBytesWritten += bytes;
+    }
+
+    /**
+     * 打开文件用于写入,已存在时清空
+     */
+    private static FileChannel openForWrite(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * 从channel的position处读取length个字节到buffer中,读取后buffer处于可读状态
+     *
+     * @throws EOFException 文件长度不足时抛出异常
+     */
+    private static void readFully(FileChannel channel, long position, ByteBuffer buffer, int length) throws IOException {
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * 将buffer中剩余的字节全部写出
+     *
+     * @return 写出的字节数
+     */
+    private static int writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        return written;
+    }
+
+    /**
+     * 用败者树将多个run归并到target中
+     *
+     * @param runs       有序的run
+     * @param target     写入的文件
+     * @param recordType 记录的类型
+     * @param statistics 记录读写的字节数
+     * @throws IOException 读写文件失败时抛出异常
+     */
+    private void merge(List<Path> runs, Path target, RecordType recordType, Statistics statistics) throws IOException {
+        int k = runs.size();
+        int bufferBytes = (int) Math.max(MIN_BUFFER_BYTES, Math.min(MAX_BUFFER_BYTES, memoryBudget / (k + 1)));
+        bufferBytes -= bufferBytes % recordType.getBytes();
+
+        RunReader[] readers = new RunReader[k];
+        try (RunWriter writer = new RunWriter(target, recordType, bufferBytes)) {
+            for (int i = 0; i < k; i++) {
+                readers[i] = new RunReader(runs.get(i), recordType, bufferBytes);
+            }
+
+            LoserTree.OfLong tree = new LoserTree.OfLong(k);
+            for (int i = 0; i < k; i++) {
+                pull(readers[i], tree, i);
+            }
+            tree.build();
+            for (int winner = tree.winner(); winner >= 0; winner = tree.winner()) {
+                writer.write(tree.value(winner));
+                pull(readers[winner], tree, winner);
+                tree.replay(winner);
+            }
+
+            for (RunReader reader : readers) {
+                statistics.mergeBytesRead += reader.size;
+            }
+            writer.flush();
+            statistics.mergeBytesWritten += writer.bytesWritten;
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.channel.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 从run中读取下一条记录放入败者树的第i个叶子,run已读完时标记该叶子
+     */
+    private static void pull(RunReader reader, LoserTree.OfLong tree, int i) throws IOException {
+        if (reader.hasNext()) {
+            tree.set(i, reader.next());
+        } else {
+            tree.exhaust(i);
+        }
+    }
+
+    /**
+     * 删除所有临时文件
+     */
+    private static void deleteAll(List<Path> paths) throws IOException {
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * 通过一个可复用的缓冲区顺序读取一个run
+     */
+    private static final class RunReader {
+
+        private final FileChannel channel;
+
+        private final RecordType recordType;
+
+        /**
+         * run的字节数
+         */
+        private final long size;
+
+        /**
+         * 读缓冲区,每次读满后逐条取出
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * 下一次读取在文件中的起始位置
+         */
+        private long position;
+
+        RunReader(Path path, RecordType recordType, int bufferBytes) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.recordType = recordType;
+            this.size = channel.size();
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+            this.buffer.limit(0);
+        }
+
+        boolean hasNext() {
+            return buffer.hasRemaining() || position < size;
+        }
+
+        long next() throws IOException {
+            if (!buffer.hasRemaining()) {
+                int length = (int) Math.min(buffer.capacity(), size - position);
+                readFully(channel, position, buffer, length);
+                position += length;
+            }
+            return recordType == RecordType.INT ? buffer.getInt() : buffer.getLong();
+        }
+    }
+
+    /**
+     * 带缓冲地顺序写出记录
+     */
+    private static final class RunWriter implements AutoCloseable {
+
+        private final FileChannel channel;
+
+        private final RecordType recordType;
+
+        private final ByteBuffer buffer;
+
+        /**
+         * 已写出的字节数
+         */
+        private long bytesWritten;
+
+        RunWriter(Path path, RecordType recordType, int bufferBytes) throws IOException {
+            this.channel = openForWrite(path);
+            this.recordType = recordType;
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        }
+
+        void write(long value) throws IOException {
+            if (buffer.remaining() < recordType.getBytes()) {
+                flush();
+            }
+            if (recordType == RecordType.INT) {
+                buffer.putInt((int) value);
+            } else {
+                buffer.putLong(value);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            bytesWritten += writeFully(channel, buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.leo.util.algorithm;
+
+/**
+ * {@link Arrays}中int[]的希尔排序、归并排序、快速排序的计数版本.算法与Arrays中对应的实现一致, <br/>
+ * 只是每次比较、交换、移动以及进出递归时通知{@link SortStats}. <br/>
+ * Note: 与Arrays中的实现分开保存,不带SortStats的排序方法不经过任何回调,内层循环保持不变
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/6/3
+ * @since 1.0
+ */
+final class InstrumentedIntSort {
+
+    /**
+     * 快速排序区间长度不大于该值时,改用插入排序.与Arrays中的值相同
+     */
+    private static final int QUICK_SORT_INSERTION_THRESHOLD = 16;
+
+    private InstrumentedIntSort() {
+    }
+
+    /**
+     * 希尔排序.同{@link Arrays#shellSort(int[], int, int)}
+     */
+    static void shellSort(int[] array, int startIndex, int endIndex, SortStats stats) {
+        int h = Arrays.getShellSortMaxH(startIndex, endIndex);
+        while (h >= 1) {
+            for (int i = startIndex + h; i < endIndex; i++) {
+                for (int j = i; j >= startIndex + h && less(array[j], array[j - h], stats); j -= h) {
+                    swap(array, j, j - h, stats);
+                }
+            }
+            h /= 3;
+        }
+    }
+
+    /**
+     * 归并排序.同{@link Arrays#mergeSort(int[], int, int)}的非branchless路径
+     */
+    static void mergeSort(int[] array, int startIndex, int endIndex, SortStats stats) {
+        int length = endIndex - startIndex;
+        if (length < 4) {
+            insertSort(array, startIndex, endIndex, stats);
+        } else {
+            mergeSort(array, startIndex, (startIndex + endIndex) >> 1, endIndex, new int[length], startIndex, stats);
+        }
+    }
+
+    /**
+     * 快速排序.同Arrays中的三路切分快速排序,递归过深时改用堆排序
+     *
+     * @param start      起始索引,包含
+     * @param end        结束索引,包含
+     * @param depthLimit 剩余允许的递归深度
+     */
+    static void quickSort(int[] array, int start, int end, int depthLimit, SortStats stats) {
+        while (end - start >= QUICK_SORT_INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, start, end + 1, stats);
+                return;
+            }
+
+            exchangeMiddle(array, start, end, stats);
+            int target = array[start];
+
+            // 三路切分: [start,lower) < target, [lower,index) == target, (upper,end] > target
+            int lower = start, index = start + 1, upper = end;
+            while (index <= upper) {
+                int value = array[index];
+                if (less(value, target, stats)) {
+                    stats.onSwap();
+                    array[index++] = array[lower];
+                    array[lower++] = value;
+                } else if (less(target, value, stats)) {
+                    stats.onSwap();
+                    array[index] = array[upper];
+                    array[upper--] = value;
+                } else {
+                    index++;
+                }
+            }
+
+            stats.onEnter();
+            if (lower - start < end - upper) {
+                quickSort(array, start, lower - 1, depthLimit, stats);
+                start = upper + 1;
+            } else {
+                quickSort(array, upper + 1, end, depthLimit, stats);
+                end = lower - 1;
+            }
+            stats.onExit();
+        }
+
+        if (start < end) {
+            insertSort(array, start, end + 1, stats);
+        }
+    }
+
+    private static void insertSort(int[] array, int startIndex, int endIndex, SortStats stats) {
+        for (int i = startIndex + 1, index; i < endIndex; i++) {
+            index = i;
+            while (index > startIndex && less(array[index], array[index - 1], stats)) {
+                swap(array, index, index - 1, stats);
+                index--;
+            }
+        }
+    }
+
+    /**
+     * 归并排序的实现.复制到cache和写回都计为移动
+     */
+    private static void mergeSort(int[] src, int startIndex, int middleIndex, int endIndex, int[] cache, int cacheBase, SortStats stats) {
+        if (endIndex - 4 < startIndex) {
+            insertSort(src, startIndex, endIndex, stats);
+            return;
+        }
+
+        stats.onEnter();
+        mergeSort(src, startIndex, (startIndex + middleIndex) >> 1, middleIndex, cache, cacheBase, stats);
+        mergeSort(src, middleIndex, (endIndex + middleIndex) >> 1, endIndex, cache, cacheBase, stats);
+        stats.onExit();
+
+        int cacheStartIndex = startIndex - cacheBase, cacheLength = endIndex - startIndex;
+        int cacheEndIndex = cacheStartIndex + cacheLength - 1, cacheMiddleIndex = cacheStartIndex + (cacheLength >> 1);
+        System.arraycopy(src, startIndex, cache, cacheStartIndex, cacheLength);
+        stats.onMove(cacheLength << 1);
+
+        int leftIndex = cacheStartIndex, rightIndex = cacheMiddleIndex;
+        for (int i = startIndex; i < endIndex; i++) {
+            if (leftIndex >= cacheMiddleIndex) {
+                src[i] = cache[rightIndex++];
+            } else if (rightIndex > cacheEndIndex) {
+                src[i] = cache[leftIndex++];
+            } else if (less(cache[leftIndex], cache[rightIndex], stats)) {
+                src[i] = cache[leftIndex++];
+            } else {
+                src[i] = cache[rightIndex++];
+            }
+        }
+    }
+
+    private static void heapSort(int[] array, int startIndex, int endIndex, SortStats stats) {
+        int length = endIndex - startIndex;
+        for (int i = (length >> 1) - 1; i >= 0; i--) {
+            siftDown(array, startIndex, i, length, stats);
+        }
+        for (int i = length - 1; i > 0; i--) {
+            swap(array, startIndex, startIndex + i, stats);
+            siftDown(array, startIndex, 0, i, stats);
+        }
+    }
+
+    private static void siftDown(int[] array, int offset, int index, int length, SortStats stats) {
+        int value = array[offset + index];
+        int child;
+        while ((child = (index << 1) + 1) < length) {
+            if (child + 1 < length && less(array[offset + child], array[offset + child + 1], stats)) {
+                child++;
+            }
+            if (!less(value, array[offset + child], stats)) {
+                break;
+            }
+            array[offset + index] = array[offset + child];
+            stats.onMove(1);
+            index = child;
+        }
+        array[offset + index] = value;
+    }
+
+    private static void exchangeMiddle(int[] array, int start, int end, SortStats stats) {
+        int middle = (start + end) >> 1;
+
+        if (less(array[middle], array[start], stats)) {
+            if (less(array[end], array[middle], stats)) {
+                swap(array, start, middle, stats);
+            } else if (less(array[end], array[start], stats)) {
+                swap(array, start, end, stats);
+            }
+        } else {
+            if (less(array[middle], array[end], stats)) {
+                swap(array, start, middle, stats);
+            } else if (less(array[start], array[end], stats)) {
+                swap(array, start, end, stats);
+            }
+        }
+    }
+
+    private static boolean less(int a, int b, SortStats stats) {
+        stats.onComparison();
+        return a < b;
+    }
+
+    private static void swap(int[] array, int index1, int index2, SortStats stats) {
+        stats.onSwap();
+        int temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+}
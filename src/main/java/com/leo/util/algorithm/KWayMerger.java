@@ -0,0 +1,210 @@
+package com.leo.util.algorithm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * 多路归并.用败者树({@link LoserTree})将k个有序的数组或迭代器合并为一个有序序列,每输出一个元素只需比较log<sub>2</sub>k次, <br/>
+ * 总时间复杂度O(nlog<sub>2</sub>k),而两两归并需要反复复制. <br/>
+ * 结果可以通过回调逐个输出或以迭代器的方式按需读取,不必整体放入内存. <br/>
+ * 相等的元素按来源的先后顺序输出,即归并是稳定的
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/22
+ * @since 1.0
+ */
+public final class KWayMerger {
+
+    private KWayMerger() {
+    }
+
+    /**
+     * 合并多个有序数组
+     *
+     * @param sources 按从小到大顺序排列好的数组
+     * @return 合并后的数组
+     * @throws IllegalArgumentException 当sources或其中的数组为null时抛出异常
+     */
+    public static int[] merge(int[][] sources) throws IllegalArgumentException {
+        checkSources(sources);
+        long total = 0;
+        for (int[] source : sources) {
+            total += source.length;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException();
+        }
+
+        int[] result = new int[(int) total];
+        int[] index = new int[1];
+        merge(sources, value -> result[index[0]++] = value);
+        return result;
+    }
+
+    /**
+     * 合并多个有序数组,按从小到大的顺序将元素逐个交给sink
+     *
+     * @param sources 按从小到大顺序排列好的数组
+     * @param sink    接收合并结果
+     * @throws IllegalArgumentException 当sources、其中的数组或sink为null时抛出异常
+     */
+    public static void merge(int[][] sources, IntConsumer sink) throws IllegalArgumentException {
+        checkSources(sources);
+        if (sink == null) {
+            throw new IllegalArgumentException();
+        }
+
+        int k = sources.length, liveCount = 0;
+        int[] positions = new int[k];
+        LoserTree.OfLong tree = new LoserTree.OfLong(k);
+        for (int i = 0; i < k; i++) {
+            if (sources[i].length > 0) {
+                tree.set(i, sources[i][0]);
+                liveCount++;
+            }
+        }
+        tree.build();
+
+        for (int winner = tree.winner(); winner >= 0; winner = tree.winner()) {
+            int[] source = sources[winner];
+            if (liveCount == 1) {
+                // 只剩一路时直接输出,不再比较
+                for (int i = positions[winner], length = source.length; i < length; i++) {
+                    sink.accept(source[i]);
+                }
+                return;
+            }
+            sink.accept(source[positions[winner]]);
+            if (++positions[winner] < source.length) {
+                tree.set(winner, source[positions[winner]]);
+            } else {
+                tree.exhaust(winner);
+                liveCount--;
+            }
+            tree.replay(winner);
+        }
+    }
+
+    /**
+     * 合并多个有序数组,按comparator的顺序将元素逐个交给sink
+     *
+     * @param sources    按comparator的顺序排列好的数组
+     * @param comparator 比较器.自定义排序规则
+     * @param sink       接收合并结果
+     * @throws IllegalArgumentException 当sources、其中的数组、comparator或sink为null时抛出异常
+     */
+    public static <E> void merge(E[][] sources, Comparator<? super E> comparator, Consumer<? super E> sink) throws IllegalArgumentException {
+        checkSources(sources);
+        List<Iterator<E>> iterators = new ArrayList<>(sources.length);
+        for (E[] source : sources) {
+            iterators.add(java.util.Arrays.asList(source).iterator());
+        }
+        merge(iterators, comparator, sink);
+    }
+
+    /**
+     * 合并多个有序迭代器,按comparator的顺序将元素逐个交给sink
+     *
+     * @param sources    按comparator的顺序输出元素的迭代器
+     * @param comparator 比较器.自定义排序规则
+     * @param sink       接收合并结果
+     * @throws IllegalArgumentException 当sources、其中的迭代器、comparator或sink为null时抛出异常
+     */
+    public static <E> void merge(List<? extends Iterator<? extends E>> sources, Comparator<? super E> comparator,
+                                 Consumer<? super E> sink) throws IllegalArgumentException {
+        if (sink == null) {
+            throw new IllegalArgumentException();
+        }
+        Iterator<E> merged = iterator(sources, comparator);
+        while (merged.hasNext()) {
+            sink.accept(merged.next());
+        }
+    }
+
+    /**
+     * 以迭代器的方式合并多个有序迭代器.每次调用next时才从对应的来源读取下一个元素
+     *
+     * @param sources    按comparator的顺序输出元素的迭代器
+     * @param comparator 比较器.自定义排序规则
+     * @return 按comparator的顺序输出所有元素的迭代器
+     * @throws IllegalArgumentException 当sources、其中的迭代器或comparator为null时抛出异常
+     */
+    public static <E> Iterator<E> iterator(List<? extends Iterator<? extends E>> sources, Comparator<? super E> comparator) throws IllegalArgumentException {
+        if (sources == null || comparator == null) {
+            throw new IllegalArgumentException();
+        }
+        for (Iterator<? extends E> source : sources) {
+            if (source == null) {
+                throw new IllegalArgumentException();
+            }
+        }
+        return new MergingIterator<>(sources, comparator);
+    }
+
+    private static void checkSources(Object[] sources) throws IllegalArgumentException {
+        if (sources == null) {
+            throw new IllegalArgumentException();
+        }
+        for (Object source : sources) {
+            if (source == null) {
+                throw new IllegalArgumentException();
+            }
+        }
+    }
+
+    /**
+     * 依次输出败者树的胜者,并从胜者的迭代器中补充下一个元素
+     */
+    private static final class MergingIterator<E> implements Iterator<E> {
+
+        private final List<? extends Iterator<? extends E>> sources;
+
+        private final LoserTree.OfObject<E> tree;
+
+        MergingIterator(List<? extends Iterator<? extends E>> sources, Comparator<? super E> comparator) {
+            int k = sources.size();
+            this.sources = sources;
+            this.tree = new LoserTree.OfObject<>(k, comparator);
+            for (int i = 0; i < k; i++) {
+                pull(i);
+            }
+            tree.build();
+        }
+
+        /**
+         * 从第i个迭代器读取下一个元素
+         */
+        private void pull(int i) {
+            Iterator<? extends E> source = sources.get(i);
+            if (source.hasNext()) {
+                tree.set(i, source.next());
+            } else {
+                tree.clear(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return tree.winner() >= 0;
+        }
+
+        @Override
+        public E next() {
+            int winner = tree.winner();
+            if (winner < 0) {
+                throw new NoSuchElementException();
+            }
+
+            E value = tree.value(winner);
+            pull(winner);
+            tree.replay(winner);
+            return value;
+        }
+    }
+}
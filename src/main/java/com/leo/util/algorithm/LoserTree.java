@@ -0,0 +1,180 @@
+package com.leo.util.algorithm;
+
+import java.util.Comparator;
+
+/**
+ * 败者树.叶子为k个来源的当前元素,内部节点保存比赛的败者,tree[0]保存最终的胜者(最小的元素). <br/>
+ * 每取出一个元素只需沿叶子到根的路径比较log<sub>2</sub>k次.已取完的来源排在最后, <br/>
+ * 相等的元素编号小的来源获胜,因此归并是稳定的. <br/>
+ * 使用方式: 先为每个来源调用set或exhaust,再调用{@link #build()}; <br/>
+ * 之后每次取出胜者的元素后,为胜者调用set或exhaust,再调用{@link #replay(int)}. <br/>
+ * 子类只负责保存元素并比较大小,供{@link KWayMerger}与{@link ExternalSort}共用
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/6/9
+ * @since 1.0
+ */
+abstract class LoserTree {
+
+    /**
+     * 各个来源是否还有元素
+     */
+    private final boolean[] live;
+
+    /**
+     * tree[0]为胜者,tree[1, k)为各内部节点的败者.叶子i对应节点k + i
+     */
+    private final int[] tree;
+
+    LoserTree(int k) {
+        this.live = new boolean[k];
+        this.tree = new int[Math.max(k, 1)];
+        this.tree[0] = -1;
+    }
+
+    /**
+     * 比较两个都还有元素的来源的当前元素
+     */
+    abstract int compare(int a, int b);
+
+    /**
+     * 标记来源已取完
+     */
+    final void exhaust(int source) {
+        live[source] = false;
+    }
+
+    /**
+     * 由子类在设置来源的当前元素后调用
+     */
+    final void revive(int source) {
+        live[source] = true;
+    }
+
+    /**
+     * 所有来源设置完后构建整棵树
+     */
+    final void build() {
+        tree[0] = live.length == 0 ? -1 : build(1);
+    }
+
+    /**
+     * 构建以node为根的子树,返回其胜者
+     */
+    private int build(int node) {
+        int k = live.length;
+        if (node >= k) {
+            return node - k;
+        }
+        int left = build(node << 1), right = build((node << 1) + 1);
+        if (beats(right, left)) {
+            tree[node] = left;
+            return right;
+        }
+        tree[node] = right;
+        return left;
+    }
+
+    /**
+     * 来源a的当前元素是否应排在来源b之前.已取完的来源排在最后
+     */
+    private boolean beats(int a, int b) {
+        if (!live[a]) {
+            return false;
+        }
+        if (!live[b]) {
+            return true;
+        }
+        int result = compare(a, b);
+        return result < 0 || (result == 0 && a < b);
+    }
+
+    /**
+     * @return 当前最小元素所在的来源;所有来源都已取完时返回-1
+     */
+    final int winner() {
+        int winner = tree[0];
+        return winner >= 0 && live[winner] ? winner : -1;
+    }
+
+    /**
+     * 来源source(上一轮的胜者)的当前元素变化后,沿叶子到根的路径重新比赛
+     */
+    final void replay(int source) {
+        int winner = source;
+        for (int node = (source + live.length) >> 1; node > 0; node >>= 1) {
+            if (beats(tree[node], winner)) {
+                int temp = tree[node];
+                tree[node] = winner;
+                winner = temp;
+            }
+        }
+        tree[0] = winner;
+    }
+
+    /**
+     * 元素为long的败者树.int可以无损地转换为long,因此int[]的归并也使用它,避免装箱
+     */
+    static final class OfLong extends LoserTree {
+
+        private final long[] values;
+
+        OfLong(int k) {
+            super(k);
+            this.values = new long[k];
+        }
+
+        void set(int source, long value) {
+            values[source] = value;
+            revive(source);
+        }
+
+        long value(int source) {
+            return values[source];
+        }
+
+        @Override
+        int compare(int a, int b) {
+            return Long.compare(values[a], values[b]);
+        }
+    }
+
+    /**
+     * 按comparator比较对象的败者树
+     */
+    static final class OfObject<E> extends LoserTree {
+
+        private final Object[] values;
+
+        private final Comparator<? super E> comparator;
+
+        OfObject(int k, Comparator<? super E> comparator) {
+            super(k);
+            this.values = new Object[k];
+            this.comparator = comparator;
+        }
+
+        void set(int source, E value) {
+            values[source] = value;
+            revive(source);
+        }
+
+        /**
+         * 标记来源已取完,并释放其最后一个元素
+         */
+        void clear(int source) {
+            values[source] = null;
+            exhaust(source);
+        }
+
+        E value(int source) {
+            return (E) values[source];
+        }
+
+        @Override
+        int compare(int a, int b) {
+            return comparator.compare((E) values[a], (E) values[b]);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.leo.util.algorithm;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 并行样本排序(sample sort).适合用comparator排序的大对象数组: <br/>
+ * 1. 随机抽取 桶数 * 过采样倍数 个样本,排序后等间隔选出 桶数 - 1 个分割点,去掉重复的分割点 <br/>
+ * 2. 将数组切成若干块,并行地为每个元素二分查找所属的桶,并统计每块的桶直方图 <br/>
+ * 3. 由直方图的前缀和得到每块每桶的写入位置,并行地将元素分配到辅助数组 <br/>
+ * 4. 并行地对每个桶用{@link TimSort}排序,再复制回原数组 <br/>
+ * 分配时保持块内和块间的先后顺序,桶内排序是稳定的,因此整体排序也是稳定的. <br/>
+ * 重复出现的分割点说明该值在数组中占比很大,为它单独设一个相等桶: 与它相等的元素都放入相等桶, <br/>
+ * 分配本身是稳定的,相等桶不需要排序,避免大量重复的key落入同一个桶而使第4步退化为串行. <br/>
+ * 每次排序的比较次数与各桶的大小记录在{@link Statistics}中,用于调整桶数和过采样倍数
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/15
+ * @since 1.0
+ */
+public final class ParallelSampleSort {
+
+    /**
+     * 一次排序的统计信息
+     */
+    public static final class Statistics {
+
+        /**
+         * 比较次数
+         */
+        private final LongAdder comparisons = new LongAdder();
+
+        /**
+         * 各个桶的大小
+         */
+        private int[] bucketSizes = new int[0];
+
+        /**
+         * 样本个数
+         */
+        private int sampleSize;
+
+        public long getComparisons() {
+            return comparisons.sum();
+        }
+
+        public int[] getBucketSizes() {
+            return bucketSizes.clone();
+        }
+
+        public int getSampleSize() {
+            return sampleSize;
+        }
+
+        /**
+         * 桶大小的偏斜程度: 最大桶的大小 / 桶的平均大小.1表示完全均匀
+         *
+         * @return 偏斜程度;没有分桶时返回1
+         */
+        public double getSkew() {
+            long total = 0;
+            int max = 0;
+            for (int size : bucketSizes) {
+                total += size;
+                max = Math.max(max, size);
+            }
+            return total == 0 ? 1 : max / ((double) total / bucketSizes.length);
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{comparisons=" + getComparisons() + ", buckets=" + bucketSizes.length
+                    + ", sampleSize=" + sampleSize + ", skew=" + getSkew() + '}';
+        }
+    }
+
+    /**
+     * 默认的过采样倍数
+     */
+    public static final int DEFAULT_OVERSAMPLING = 32;
+
+    /**
+     * 长度不大于该值时直接串行排序
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    /**
+     * 执行排序任务的线程池
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * 桶数
+     */
+    private final int buckets;
+
+    /**
+     * 过采样倍数: 每个桶抽取的样本数
+     */
+    private final int oversampling;
+
+    public ParallelSampleSort() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 桶数为并行度的4倍,使用默认的过采样倍数
+     *
+     * @param pool 执行排序任务的线程池
+     * @throws IllegalArgumentException 当pool为null时抛出异常
+     */
+    public ParallelSampleSort(ForkJoinPool pool) throws IllegalArgumentException {
+        this(pool, pool == null ? 0 : pool.getParallelism() * 4, DEFAULT_OVERSAMPLING);
+    }
+
+    /**
+     * @param pool         执行排序任务的线程池
+     * @param buckets      桶数
+     * @param oversampling 过采样倍数
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. pool = null <br/>
+     *                                  2. buckets < 1 <br/>
+     *                                  3. oversampling < 1 <br/>
+     */
+    public ParallelSampleSort(ForkJoinPool pool, int buckets, int oversampling) throws IllegalArgumentException {
+        if (pool == null || buckets < 1 || oversampling < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.pool = pool;
+        this.buckets = buckets;
+        this.oversampling = oversampling;
+    }
+
+    /**
+     * 在 [0,array.length) 上对数组从小到大排序
+     *
+     * @param array      待排序的数组
+     * @param comparator 比较器.自定义排序规则
+     * @return 本次排序的统计信息
+     * @throws IllegalArgumentException 当array或comparator为null时抛出异常
+     */
+    public <E> Statistics sort(E[] array, Comparator<? super E> comparator) throws IllegalArgumentException {
+        if (array == null) {
+            throw new IllegalArgumentException();
+        }
+        return sort(array, 0, array.length, comparator);
+    }
+
+    /**
+     * 在 [startIndex,endIndex) 上对数组从小到大排序.排序是稳定的
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param comparator 比较器.自定义排序规则
+     * @return 本次排序的统计信息
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null 或 comparator = null <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     */
+    public <E> Statistics sort(E[] array, int startIndex, int endIndex, Comparator<? super E> comparator) throws IllegalArgumentException {
+        if (array == null || comparator == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        Statistics statistics = new Statistics();
+        int length = endIndex - startIndex;
+        if (length <= SEQUENTIAL_THRESHOLD || buckets == 1) {
+            CountingComparator<E> counting = new CountingComparator<>(comparator);
+            TimSort.sort(array, startIndex, endIndex, counting);
+            statistics.comparisons.add(counting.count);
+            statistics.bucketSizes = new int[]{length};
+            return statistics;
+        }
+
+        // 1. 过采样并选出分割点
+        Splitters splitters = chooseSplitters(array, startIndex, endIndex, comparator, statistics);
+        // 桶2i为(splitters[i - 1], splitters[i])之间的元素,桶2i + 1为与splitters[i]相等的元素
+        int bucketCount = (splitters.values.length << 1) + 1;
+
+        // 2. 分块并行计算每个元素所属的桶,统计每块的直方图
+        int blocks = Math.min(pool.getParallelism() * 4, (length + SEQUENTIAL_THRESHOLD - 1) / SEQUENTIAL_THRESHOLD);
+        int blockLength = (length + blocks - 1) / blocks;
+        int[] bucketOf = new int[length];
+        int[][] counts = new int[blocks][bucketCount];
+        List<Runnable> tasks = new ArrayList<>(blocks);
+        for (int block = 0; block < blocks; block++) {
+            int from = block * blockLength, to = Math.min(length, from + blockLength);
+            int[] count = counts[block];
+            tasks.add(() -> {
+                CountingComparator<E> counting = new CountingComparator<>(comparator);
+                for (int i = from; i < to; i++) {
+                    int bucket = bucketOf(array[startIndex + i], splitters, counting);
+                    bucketOf[i] = bucket;
+                    count[bucket]++;
+                }
+                statistics.comparisons.add(counting.count);
+            });
+        }
+        runAll(tasks);
+
+        // 3. 前缀和: 按 桶 -> 块 的顺序确定每块每桶的写入位置
+        int[] bucketStarts = new int[bucketCount + 1];
+        int[][] offsets = new int[blocks][bucketCount];
+        for (int bucket = 0, offset = 0; bucket < bucketCount; bucket++) {
+            bucketStarts[bucket] = offset;
+            for (int block = 0; block < blocks; block++) {
+                offsets[block][bucket] = offset;
+                offset += counts[block][bucket];
+            }
+        }
+        bucketStarts[bucketCount] = length;
+
+        // 4. 并行分配到辅助数组
+        Object[] buffer = new Object[length];
+        tasks.clear();
+        for (int block = 0; block < blocks; block++) {
+            int from = block * blockLength, to = Math.min(length, from + blockLength);
+            int[] offset = offsets[block];
+            tasks.add(() -> {
+                for (int i = from; i < to; i++) {
+                    buffer[offset[bucketOf[i]]++] = array[startIndex + i];
+                }
+            });
+        }
+        runAll(tasks);
+
+        // 5. 并行地排序每个桶并复制回原数组.相等桶中的元素已按原来的顺序排列,直接复制
+        int[] bucketSizes = new int[bucketCount];
+        int usedBuckets = 0;
+        tasks.clear();
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            int from = bucketStarts[bucket], to = bucketStarts[bucket + 1];
+            boolean equality = (bucket & 1) == 1;
+            if (equality && !splitters.equality[bucket >> 1]) {
+                continue;
+            }
+            bucketSizes[usedBuckets++] = to - from;
+            if (equality) {
+                tasks.add(() -> System.arraycopy(buffer, from, array, startIndex + from, to - from));
+                continue;
+            }
+            tasks.add(() -> {
+                CountingComparator<E> counting = new CountingComparator<>(comparator);
+                TimSort.sort((E[]) buffer, from, to, counting);
+                System.arraycopy(buffer, from, array, startIndex + from, to - from);
+                statistics.comparisons.add(counting.count);
+            });
+        }
+        runAll(tasks);
+        statistics.bucketSizes = java.util.Arrays.copyOf(bucketSizes, usedBuckets);
+
+        return statistics;
+    }
+
+    /**
+     * 随机抽取样本并排序,等间隔选出分割点.相邻相等的分割点只保留一个,并为其开启相等桶
+     *
+     * @return 严格递增的分割点
+     */
+    private <E> Splitters chooseSplitters(E[] array, int startIndex, int endIndex, Comparator<? super E> comparator, Statistics statistics) {
+        int length = endIndex - startIndex;
+        int sampleSize = (int) Math.min(length, (long) buckets * oversampling);
+        SplittableRandom random = new SplittableRandom(length);
+        Object[] sample = new Object[sampleSize];
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = array[startIndex + random.nextInt(length)];
+        }
+
+        CountingComparator<E> counting = new CountingComparator<>(comparator);
+        TimSort.sort((E[]) sample, 0, sampleSize, counting);
+        statistics.sampleSize = sampleSize;
+
+        int splitterCount = Math.min(buckets, sampleSize) - 1;
+        Object[] values = new Object[splitterCount];
+        boolean[] equality = new boolean[splitterCount];
+        int distinct = 0;
+        for (int i = 0; i < splitterCount; i++) {
+            E splitter = (E) sample[(int) ((long) (i + 1) * sampleSize / (splitterCount + 1))];
+            if (distinct > 0 && counting.compare((E) values[distinct - 1], splitter) == 0) {
+                equality[distinct - 1] = true;
+            } else {
+                values[distinct++] = splitter;
+            }
+        }
+        statistics.comparisons.add(counting.count);
+        return new Splitters(java.util.Arrays.copyOf(values, distinct), java.util.Arrays.copyOf(equality, distinct));
+    }
+
+    /**
+     * 二分查找元素所属的桶.i为第一个大于element的分割点的位置: <br/>
+     * 与splitters[i - 1]相等且它开启了相等桶时属于桶2(i - 1) + 1,否则属于桶2i
+     */
+    private static <E> int bucketOf(E element, Splitters splitters, Comparator<? super E> comparator) {
+        Object[] values = splitters.values;
+        int low = 0, high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(element, (E) values[middle]) < 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        // element >= values[low - 1],只需再比较一次是否相等
+        if (low > 0 && splitters.equality[low - 1] && comparator.compare(element, (E) values[low - 1]) == 0) {
+            return ((low - 1) << 1) + 1;
+        }
+        return low << 1;
+    }
+
+    /**
+     * 严格递增的分割点,以及每个分割点是否有自己的相等桶
+     */
+    private static final class Splitters {
+
+        private final Object[] values;
+
+        private final boolean[] equality;
+
+        Splitters(Object[] values, boolean[] equality) {
+            this.values = values;
+            this.equality = equality;
+        }
+    }
+
+    /**
+     * 在线程池中并行执行所有任务,并等待完成
+     */
+    private void runAll(List<Runnable> tasks) {
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(tasks.size());
+                for (Runnable task : tasks) {
+                    forkJoinTasks.add(ForkJoinTask.adapt(task));
+                }
+                invokeAll(forkJoinTasks);
+            }
+        });
+    }
+
+    /**
+     * 记录比较次数的比较器.每个任务独占一个,结束时再汇总,避免竞争
+     */
+    private static final class CountingComparator<E> implements Comparator<E> {
+
+        private final Comparator<? super E> comparator;
+
+        private long count;
+
+        CountingComparator(Comparator<? super E> comparator) {
+            this.comparator = comparator;
+        }
+
+        @Override
+        public int compare(E e1, E e2) {
+            count++;
+            return comparator.compare(e1, e2);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.leo.util.algorithm;
+
+import java.util.Comparator;
+
+/**
+ * 排序时可重复使用的辅助空间.保存只增不减的int[]、long[]辅助数组、直方图以及{@link TimSort}的状态, <br/>
+ * 将其传给{@link Arrays}中带SortContext参数的排序方法后,辅助数组足够大时排序过程不再分配内存. <br/>
+ * 同一个SortContext同一时刻只能被一个线程使用: 可以由线程独占(如{@link #current()}),也可以放入对象池借出归还. <br/>
+ * 带SortContext参数的方法: int[]的自适应排序sort、countingSort、mergeSort、radixSort,long[]的mergeSort、radixSort, <br/>
+ * 以及E[]的timSort、partialSort.插入排序、希尔排序、快速排序、堆排序和select本身不分配内存,不需要context. <br/>
+ * 以下方法有意不提供context版本: <br/>
+ * 1. sortIndices: 返回的下标数组就是结果,必须新分配 <br/>
+ * 2. sortWithPayload、sortByIntKey、sortByLongKey: 需要同时持有key、下标及其两份辅助数组,超出context提供的空间 <br/>
+ * 3. bucketSort(double[])以及short[]、char[]、float[]、double[]的mergeSort: context只保存int[]与long[]辅助数组, <br/>
+ * 需要不分配内存时可改用对应的quickSort <br/>
+ * 4. {@link StringSort#msdRadixSort(String[])}: 需要String[]辅助数组,且递归的每一层同时持有各自的直方图 <br/>
+ * 5. {@link ParallelSampleSort}: 由多个线程同时排序,而SortContext只能被一个线程使用 <br/>
+ * Note: 辅助数组只增不减,排序过的最大数组决定了占用的内存,需要时可调用{@link #trim()}释放
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/29
+ * @since 1.0
+ */
+public final class SortContext {
+
+    private static final int[] EMPTY_INTS = {};
+
+    private static final long[] EMPTY_LONGS = {};
+
+    /**
+     * 每个线程独占的SortContext
+     */
+    private static final ThreadLocal<SortContext> CURRENT = ThreadLocal.withInitial(SortContext::new);
+
+    /**
+     * 辅助数组
+     */
+    private int[] ints = EMPTY_INTS;
+
+    private long[] longs = EMPTY_LONGS;
+
+    /**
+     * 直方图.与ints分开,基数排序可以同时使用两者
+     */
+    private int[] counts = EMPTY_INTS;
+
+    /**
+     * 可重复使用的TimSort
+     */
+    private TimSort<Object> timSort;
+
+    /**
+     * @return 当前线程独占的SortContext
+     */
+    public static SortContext current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 释放所有辅助数组
+     */
+    public void trim() {
+        ints = EMPTY_INTS;
+        longs = EMPTY_LONGS;
+        counts = EMPTY_INTS;
+        timSort = null;
+    }
+
+    /**
+     * @param minLength 最小长度
+     * @return 长度不小于minLength的int[]辅助数组,内容不确定
+     */
+    int[] intBuffer(int minLength) {
+        if (ints.length < minLength) {
+            ints = new int[newLength(ints.length, minLength)];
+        }
+        return ints;
+    }
+
+    /**
+     * @param minLength 最小长度
+     * @return 长度不小于minLength的long[]辅助数组,内容不确定
+     */
+    long[] longBuffer(int minLength) {
+        if (longs.length < minLength) {
+            longs = new long[newLength(longs.length, minLength)];
+        }
+        return longs;
+    }
+
+    /**
+     * @param length 长度
+     * @return 长度不小于length的直方图,[0,length)已清零
+     */
+    int[] countBuffer(int length) {
+        if (counts.length < length) {
+            counts = new int[newLength(counts.length, length)];
+        } else {
+            java.util.Arrays.fill(counts, 0, length, 0);
+        }
+        return counts;
+    }
+
+    /**
+     * @return 重置为对array排序的TimSort
+     */
+    <E> TimSort<E> timSort(E[] array, Comparator<? super E> comparator, int length) {
+        if (timSort == null) {
+            timSort = new TimSort<>();
+        }
+        TimSort<E> result = (TimSort<E>) (TimSort<?>) timSort;
+        result.reset(array, comparator, length);
+        return result;
+    }
+
+    /**
+     * 按1.5倍增长,避免逐渐变大的数组每次都重新分配
+     */
+    private static int newLength(int oldLength, int minLength) {
+        long newLength = Math.max(minLength, oldLength + ((long) oldLength >> 1));
+        return (int) Math.min(newLength, Integer.MAX_VALUE - 8);
+    }
+}
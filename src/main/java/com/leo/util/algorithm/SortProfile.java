@@ -0,0 +1,266 @@
+package com.leo.util.algorithm;
+
+/**
+ * 对int[]的一次O(n)遍历得到的特征,以及据此选择的排序算法.由{@link Arrays#sort(int[])}使用,可直接输出到日志. <br/>
+ * 特征包括: <br/>
+ * 1. 升序run的个数(相邻逆序的个数 + 1) <br/>
+ * 2. 抽样得到的逆序对比例 <br/>
+ * 3. 最小值、最大值 <br/>
+ * 4. 抽样得到的重复元素比例
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/20
+ * @since 1.0
+ */
+public final class SortProfile {
+
+    /**
+     * 可选的排序算法
+     */
+    public enum Algorithm {
+
+        /**
+         * 插入排序.用于很短或已经有序的数组,已有序时为O(n)
+         */
+        INSERTION,
+
+        /**
+         * 归并排序.用于由较长的有序run组成,或抽样中几乎没有逆序对的数组
+         */
+        MERGE,
+
+        /**
+         * 基数排序.用于较长且分布均匀的数组
+         */
+        RADIX,
+
+        /**
+         * 计数排序.用于取值范围不大于长度的数组
+         */
+        COUNTING,
+
+        /**
+         * 内省排序(快速排序).其他情况,重复元素较多时三路切分效果最好
+         */
+        INTRO,
+    }
+
+    /**
+     * 长度不大于该值时使用插入排序
+     */
+    static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * 计数排序允许的最大取值范围
+     */
+    static final int COUNTING_SORT_MAX_RANGE = 1 << 20;
+
+    /**
+     * 平均run长度不小于该值时使用归并排序
+     */
+    static final int MERGE_SORT_MIN_AVERAGE_RUN = 32;
+
+    /**
+     * 长度不小于该值时才考虑基数排序
+     */
+    static final int RADIX_SORT_THRESHOLD = 1 << 12;
+
+    /**
+     * 重复元素比例不小于该值时使用内省排序
+     */
+    static final double INTRO_SORT_MIN_DUPLICATE_RATIO = 0.5;
+
+    /**
+     * 逆序对抽样的次数
+     */
+    private static final int INVERSION_SAMPLES = 64;
+
+    /**
+     * 重复元素抽样的个数
+     */
+    static final int DUPLICATE_SAMPLES = 256;
+
+    private final int length;
+
+    private final int min;
+
+    private final int max;
+
+    private final int runs;
+
+    private final double sampledInversionRatio;
+
+    private final double sampledDuplicateRatio;
+
+    private final Algorithm algorithm;
+
+    private SortProfile(int length, int min, int max, int runs, double sampledInversionRatio, double sampledDuplicateRatio) {
+        this.length = length;
+        this.min = min;
+        this.max = max;
+        this.runs = runs;
+        this.sampledInversionRatio = sampledInversionRatio;
+        this.sampledDuplicateRatio = sampledDuplicateRatio;
+        this.algorithm = choose();
+    }
+
+    /**
+     * 统计数组[startIndex,endIndex)的特征并选择排序算法.不会修改数组
+     *
+     * @param array      待统计的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @return 特征与选择的算法
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. array = null <br/>
+     *                                  2. startIndex > endIndex <br/>
+     *                                  3. startIndex < 0 <br/>
+     *                                  4. endIndex > array.length <br/>
+     */
+    public static SortProfile of(int[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        return of(array, startIndex, endIndex, null);
+    }
+
+    /**
+     * 同{@link #of(int[], int, int)},抽样数组使用scratch,除返回的SortProfile外不分配内存
+     *
+     * @param scratch 保存样本的辅助数组,长度不小于{@value #DUPLICATE_SAMPLES};为null时新分配
+     */
+    static SortProfile of(int[] array, int startIndex, int endIndex, int[] scratch) throws IllegalArgumentException {
+        if (array == null || startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+
+        int length = endIndex - startIndex;
+        if (length == 0) {
+            return new SortProfile(0, 0, 0, 0, 0, 0);
+        }
+
+        // 1. 一次遍历得到最小值、最大值和run的个数
+        int min = array[startIndex], max = min, runs = 1;
+        for (int i = startIndex + 1; i < endIndex; i++) {
+            int value = array[i];
+            if (value < array[i - 1]) {
+                runs++;
+            }
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        if (runs == 1 || length <= INSERTION_SORT_THRESHOLD) {
+            return new SortProfile(length, min, max, runs, 0, 0);
+        }
+
+        // 2. 抽样估计逆序对的比例
+        long seed = 0x9E3779B97F4A7C15L ^ length;
+        int inversions = 0;
+        for (int i = 0; i < INVERSION_SAMPLES; i++) {
+            seed = nextSeed(seed);
+            int first = startIndex + (int) ((seed >>> 33) % length);
+            seed = nextSeed(seed);
+            int second = startIndex + (int) ((seed >>> 33) % length);
+            if ((first < second && array[first] > array[second]) || (first > second && array[first] < array[second])) {
+                inversions++;
+            }
+        }
+
+        // 3. 等间隔抽样,排序后统计相邻相等的元素估计重复比例
+        int sampleSize = Math.min(length, DUPLICATE_SAMPLES);
+        int[] sample = scratch == null ? new int[sampleSize] : scratch;
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = array[startIndex + (int) ((long) i * length / sampleSize)];
+        }
+        // 堆排序: O(slogs)且不分配内存,样本较多时比插入排序的O(s^2)便宜得多
+        Arrays.heapSort(sample, 0, sampleSize);
+        int duplicates = 0;
+        for (int i = 1; i < sampleSize; i++) {
+            if (sample[i] == sample[i - 1]) {
+                duplicates++;
+            }
+        }
+
+        return new SortProfile(length, min, max, runs,
+                (double) inversions / INVERSION_SAMPLES, (double) duplicates / sampleSize);
+    }
+
+    /**
+     * 线性同余生成下一个伪随机数.抽样只需要确定且足够分散的位置
+     */
+    private static long nextSeed(long seed) {
+        return seed * 6364136223846793005L + 1442695040888963407L;
+    }
+
+    /**
+     * 根据特征选择排序算法
+     */
+    private Algorithm choose() {
+        if (length <= INSERTION_SORT_THRESHOLD || runs <= 1) {
+            return Algorithm.INSERTION;
+        }
+        long range = (long) max - min + 1;
+        if (range <= Math.max(length, 256) && range <= COUNTING_SORT_MAX_RANGE) {
+            return Algorithm.COUNTING;
+        }
+        int averageRun = length / runs;
+        if (averageRun >= MERGE_SORT_MIN_AVERAGE_RUN || (sampledInversionRatio == 0 && averageRun >= 4)) {
+            return Algorithm.MERGE;
+        }
+        if (sampledDuplicateRatio >= INTRO_SORT_MIN_DUPLICATE_RATIO) {
+            return Algorithm.INTRO;
+        }
+        if (length >= RADIX_SORT_THRESHOLD) {
+            return Algorithm.RADIX;
+        }
+        return Algorithm.INTRO;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return 升序run的个数
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * @return 抽样的逆序对比例.0表示基本有序,约0.5表示随机,接近1表示基本逆序
+     */
+    public double getSampledInversionRatio() {
+        return sampledInversionRatio;
+    }
+
+    /**
+     * @return 抽样中与前一个元素相等的比例
+     */
+    public double getSampledDuplicateRatio() {
+        return sampledDuplicateRatio;
+    }
+
+    /**
+     * @return 选择的排序算法
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String toString() {
+        return "SortProfile{length=" + length + ", min=" + min + ", max=" + max + ", runs=" + runs
+                + ", sampledInversionRatio=" + sampledInversionRatio + ", sampledDuplicateRatio=" + sampledDuplicateRatio
+                + ", algorithm=" + algorithm + '}';
+    }
+}
@@ -0,0 +1,147 @@
+package com.leo.util.algorithm;
+
+/**
+ * 排序过程的监听器.{@link Arrays}中带SortStats参数的排序方法会在每次比较、交换、移动元素以及进出递归时回调, <br/>
+ * 用于在真实数据上比较不同算法的比较次数、交换次数、移动次数、递归深度和耗时,判断慢在算法选择、比较还是数据特征. <br/>
+ * 带SortStats参数的方法运行单独的计数版本(InstrumentedIntSort);不带SortStats参数的方法不经过任何回调,没有额外开销
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/6/3
+ * @since 1.0
+ */
+public interface SortStats {
+
+    /**
+     * 不做任何记录的监听器.只需要耗时时可以传入它
+     */
+    SortStats NONE = new SortStats() {
+    };
+
+    /**
+     * 比较了一次两个元素
+     */
+    default void onComparison() {
+    }
+
+    /**
+     * 交换了一次两个元素
+     */
+    default void onSwap() {
+    }
+
+    /**
+     * 交换以外的单个元素写入,如归并时写回、插入时后移
+     *
+     * @param count 写入的元素个数
+     */
+    default void onMove(int count) {
+    }
+
+    /**
+     * 进入一层递归
+     */
+    default void onEnter() {
+    }
+
+    /**
+     * 退出一层递归
+     */
+    default void onExit() {
+    }
+
+    /**
+     * 一次排序结束
+     *
+     * @param elapsedNanos 耗时,单位纳秒
+     */
+    default void onFinish(long elapsedNanos) {
+    }
+
+    /**
+     * 累加计数的监听器.不是线程安全的,同一时刻只能用于一个排序
+     */
+    final class Counter implements SortStats {
+
+        private long comparisons;
+
+        private long swaps;
+
+        private long moves;
+
+        private int depth;
+
+        private int maxDepth;
+
+        private long elapsedNanos;
+
+        @Override
+        public void onComparison() {
+            comparisons++;
+        }
+
+        @Override
+        public void onSwap() {
+            swaps++;
+        }
+
+        @Override
+        public void onMove(int count) {
+            moves += count;
+        }
+
+        @Override
+        public void onEnter() {
+            if (++depth > maxDepth) {
+                maxDepth = depth;
+            }
+        }
+
+        @Override
+        public void onExit() {
+            depth--;
+        }
+
+        @Override
+        public void onFinish(long elapsedNanos) {
+            this.elapsedNanos += elapsedNanos;
+        }
+
+        /**
+         * 清空所有计数
+         */
+        public void reset() {
+            comparisons = swaps = moves = elapsedNanos = 0;
+            depth = maxDepth = 0;
+        }
+
+        public long getComparisons() {
+            return comparisons;
+        }
+
+        public long getSwaps() {
+            return swaps;
+        }
+
+        public long getMoves() {
+            return moves;
+        }
+
+        /**
+         * @return 最大递归深度
+         */
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "SortStats{comparisons=" + comparisons + ", swaps=" + swaps + ", moves=" + moves
+                    + ", maxDepth=" + maxDepth + ", elapsedNanos=" + elapsedNanos + '}';
+        }
+    }
+}
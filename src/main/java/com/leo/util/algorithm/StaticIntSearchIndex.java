@@ -0,0 +1,113 @@
+package com.leo.util.algorithm;
+
+/**
+ * 针对静态有序int[]的查找索引. <br/>
+ * 将有序数组按Eytzinger(二叉堆/广度优先)顺序重新排列: 节点k的左右孩子为2k、2k+1. <br/>
+ * 查找时从根向下访问的位置单调递增且越来越集中,前几层常驻缓存,下层的孩子相邻, <br/>
+ * 而普通二分查找在大数组上几乎每一层都会缓存未命中.循环中没有分支,只根据比较结果计算下一个位置. <br/>
+ * Note: 创建后不可修改,适合查找远多于更新的场景
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/8
+ * @since 1.0
+ */
+public final class StaticIntSearchIndex {
+
+    /**
+     * Eytzinger顺序的元素,下标从1开始
+     */
+    private final int[] tree;
+
+    /**
+     * rank[k]: tree[k]在原有序数组中的位置
+     */
+    private final int[] rank;
+
+    /**
+     * 元素个数
+     */
+    private final int size;
+
+    /**
+     * 建树时的中序遍历游标
+     */
+    private int cursor;
+
+    /**
+     * @param sortedArray 按从小到大顺序排列好的数组.不会被修改,也不会被引用
+     * @throws IllegalArgumentException 当sortedArray为null时抛出异常
+     */
+    public StaticIntSearchIndex(int[] sortedArray) throws IllegalArgumentException {
+        if (sortedArray == null) {
+            throw new IllegalArgumentException();
+        }
+
+        size = sortedArray.length;
+        tree = new int[size + 1];
+        rank = new int[size + 1];
+        build(sortedArray, 1);
+    }
+
+    /**
+     * 按中序遍历依次填入有序数组中的元素
+     *
+     * @param sortedArray 有序数组
+     * @param k           当前节点
+     */
+    private void build(int[] sortedArray, int k) {
+        if (k > size) {
+            return;
+        }
+        build(sortedArray, k << 1);
+        tree[k] = sortedArray[cursor];
+        rank[k] = cursor++;
+        build(sortedArray, (k << 1) + 1);
+    }
+
+    /**
+     * 查找key
+     *
+     * @param key 待查找的元素
+     * @return 与在原有序数组上调用{@link Arrays#binarySearch(int[], int)}的约定相同: <br/>
+     * 当 return >= 0 时,表示key在原数组中的位置(存在多个key时为第一个); <br/>
+     * 当 return < 0 时,-return + 1 表示key插入原数组时，应该在的位置
+     */
+    public int binarySearch(int key) {
+        int[] tree = this.tree;
+        int size = this.size;
+
+        // 1. 无分支地向下查找,直到越过叶子节点
+        int k = 1;
+        while (k <= size) {
+            k = (k << 1) + (tree[k] < key ? 1 : 0);
+        }
+
+        // 2. 去掉末尾连续的1(向右走的步)以及其后的一个0,得到第一个不小于key的节点
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        if (k == 0) {
+            return -(size + 1);
+        }
+
+        return tree[k] == key ? rank[k] : -(rank[k] + 1);
+    }
+
+    /**
+     * 是否包含key
+     *
+     * @param key 待查找的元素
+     * @return 返回true, 包含key;反之,不包含
+     */
+    public boolean contains(int key) {
+        return binarySearch(key) >= 0;
+    }
+
+    /**
+     * 元素个数
+     *
+     * @return 元素个数
+     */
+    public int size() {
+        return size;
+    }
+}
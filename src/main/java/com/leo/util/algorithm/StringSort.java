@@ -0,0 +1,458 @@
+package com.leo.util.algorithm;
+
+/**
+ * 字符串排序.按字符逐位处理,已经比较过的公共前缀不会被重复扫描,适合URL、key等公共前缀很长的数据: <br/>
+ * 1. 三路基数快速排序(multikey quicksort): 按第d个字符三路切分,等于基准的部分继续比较第d + 1个字符 <br/>
+ * 2. MSD基数排序: 按第d个字节分为256个桶,每个桶继续处理第d + 1个字节;所有元素落在同一个桶时不移动元素 <br/>
+ * 区间长度不大于{@value #INSERTION_SORT_THRESHOLD}时改用从第d个字符开始比较的插入排序. <br/>
+ * 每种排序都有String[]和byte[][]两个版本.byte[]为UTF-8编码的key,按无符号字节比较,顺序与码点顺序一致,不需要解码; <br/>
+ * String按char比较,顺序与{@link String#compareTo(String)}一致. <br/>
+ * Note: 数组中的元素不能为null
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/27
+ * @since 1.0
+ */
+public final class StringSort {
+
+    /**
+     * 区间长度不大于该值时改用插入排序
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    /**
+     * MSD基数排序每一趟处理一个字节
+     */
+    private static final int RADIX = 256;
+
+    private StringSort() {
+    }
+
+    /**
+     * 三路基数快速排序.按照升序排序
+     *
+     * @param array 待排序的数组
+     */
+    public static void multikeyQuickSort(String[] array) {
+        if (array == null) {
+            return;
+        }
+        multikeyQuickSort(array, 0, array.length);
+    }
+
+    /**
+     * 三路基数快速排序.将数组[startIndex,endIndex)内的元素按升序排序
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void multikeyQuickSort(String[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        multikeyQuickSort(array, startIndex, endIndex, 0);
+    }
+
+    /**
+     * 三路基数快速排序.array[startIndex,endIndex)内的元素前depth个字符都相同
+     */
+    private static void multikeyQuickSort(String[] array, int startIndex, int endIndex, int depth) {
+        while (endIndex - startIndex > INSERTION_SORT_THRESHOLD) {
+            medianToStart(array, startIndex, endIndex, depth);
+            int target = charAt(array[startIndex], depth);
+
+            // 三路切分: [startIndex,lower) < target, [lower,upper] == target, (upper,endIndex) > target
+            int lower = startIndex, index = startIndex + 1, upper = endIndex - 1;
+            while (index <= upper) {
+                int value = charAt(array[index], depth);
+                if (value < target) {
+                    swap(array, lower++, index++);
+                } else if (value > target) {
+                    swap(array, index, upper--);
+                } else {
+                    index++;
+                }
+            }
+
+            multikeyQuickSort(array, startIndex, lower, depth);
+            multikeyQuickSort(array, upper + 1, endIndex, depth);
+
+            // 等于基准的部分继续比较下一个字符;基准为字符串结尾时这部分已全部相等
+            if (target < 0) {
+                return;
+            }
+            startIndex = lower;
+            endIndex = upper + 1;
+            depth++;
+        }
+
+        insertSort(array, startIndex, endIndex, depth);
+    }
+
+    /**
+     * 三路基数快速排序.按照升序排序
+     *
+     * @param array 待排序的UTF-8编码的key
+     */
+    public static void multikeyQuickSort(byte[][] array) {
+        if (array == null) {
+            return;
+        }
+        multikeyQuickSort(array, 0, array.length);
+    }
+
+    /**
+     * 三路基数快速排序.将数组[startIndex,endIndex)内的元素按无符号字节的字典序升序排序
+     *
+     * @param array      待排序的UTF-8编码的key
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void multikeyQuickSort(byte[][] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        multikeyQuickSort(array, startIndex, endIndex, 0);
+    }
+
+    /**
+     * 三路基数快速排序.array[startIndex,endIndex)内的元素前depth个字节都相同
+     */
+    private static void multikeyQuickSort(byte[][] array, int startIndex, int endIndex, int depth) {
+        while (endIndex - startIndex > INSERTION_SORT_THRESHOLD) {
+            medianToStart(array, startIndex, endIndex, depth);
+            int target = byteAt(array[startIndex], depth);
+
+            // 三路切分: [startIndex,lower) < target, [lower,upper] == target, (upper,endIndex) > target
+            int lower = startIndex, index = startIndex + 1, upper = endIndex - 1;
+            while (index <= upper) {
+                int value = byteAt(array[index], depth);
+                if (value < target) {
+                    swap(array, lower++, index++);
+                } else if (value > target) {
+                    swap(array, index, upper--);
+                } else {
+                    index++;
+                }
+            }
+
+            multikeyQuickSort(array, startIndex, lower, depth);
+            multikeyQuickSort(array, upper + 1, endIndex, depth);
+
+            if (target < 0) {
+                return;
+            }
+            startIndex = lower;
+            endIndex = upper + 1;
+            depth++;
+        }
+
+        insertSort(array, startIndex, endIndex, depth);
+    }
+
+    /**
+     * MSD基数排序.按照升序排序
+     *
+     * @param array 待排序的数组
+     */
+    public static void msdRadixSort(String[] array) {
+        if (array == null) {
+            return;
+        }
+        msdRadixSort(array, 0, array.length);
+    }
+
+    /**
+     * MSD基数排序.将数组[startIndex,endIndex)内的元素按升序排序.每个char按高、低两个字节处理,辅助空间O(n)
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void msdRadixSort(String[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        if (endIndex - startIndex > INSERTION_SORT_THRESHOLD) {
+            msdRadixSort(array, startIndex, endIndex, 0, new String[endIndex - startIndex]);
+        } else {
+            insertSort(array, startIndex, endIndex, 0);
+        }
+    }
+
+    /**
+     * MSD基数排序.array[startIndex,endIndex)内的元素前depth个字节都相同
+     *
+     * @param cache 辅助数组
+     */
+    private static void msdRadixSort(String[] array, int startIndex, int endIndex, int depth, String[] cache) {
+        while (endIndex - startIndex > INSERTION_SORT_THRESHOLD) {
+            // 1. 统计直方图.counts[0]之后依次为: 字符串结尾、字节0 ~ 255
+            int length = endIndex - startIndex;
+            int[] counts = new int[RADIX + 2];
+            for (int i = startIndex; i < endIndex; i++) {
+                counts[byteAt(array[i], depth) + 2]++;
+            }
+
+            // 2. 所有元素落在同一个桶时不移动,直接处理下一个字节
+            if (counts[1] == length) {
+                return;
+            }
+            if (isSingleBucket(counts, length)) {
+                depth++;
+                continue;
+            }
+
+            // 3. 按桶分配到辅助数组,再复制回来
+            for (int r = 0; r <= RADIX; r++) {
+                counts[r + 1] += counts[r];
+            }
+            for (int i = startIndex; i < endIndex; i++) {
+                String value = array[i];
+                cache[counts[byteAt(value, depth) + 1]++] = value;
+            }
+            System.arraycopy(cache, 0, array, startIndex, length);
+
+            // 4. 每个桶继续处理下一个字节.counts[r]为字节r的桶的起始位置
+            for (int r = 0; r < RADIX; r++) {
+                if (counts[r + 1] - counts[r] > 1) {
+                    msdRadixSort(array, startIndex + counts[r], startIndex + counts[r + 1], depth + 1, cache);
+                }
+            }
+            return;
+        }
+
+        insertSort(array, startIndex, endIndex, depth >> 1);
+    }
+
+    /**
+     * MSD基数排序.按照升序排序
+     *
+     * @param array 待排序的UTF-8编码的key
+     */
+    public static void msdRadixSort(byte[][] array) {
+        if (array == null) {
+            return;
+        }
+        msdRadixSort(array, 0, array.length);
+    }
+
+    /**
+     * MSD基数排序.将数组[startIndex,endIndex)内的元素按无符号字节的字典序升序排序.辅助空间O(n)
+     *
+     * @param array      待排序的UTF-8编码的key
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. startIndex > endIndex <br/>
+     *                                  2. startIndex < 0 <br/>
+     *                                  3. endIndex > array.length <br/>
+     */
+    public static void msdRadixSort(byte[][] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (array == null) {
+            return;
+        }
+        checkIndex(array, startIndex, endIndex);
+        if (endIndex - startIndex > INSERTION_SORT_THRESHOLD) {
+            msdRadixSort(array, startIndex, endIndex, 0, new byte[endIndex - startIndex][]);
+        } else {
+            insertSort(array, startIndex, endIndex, 0);
+        }
+    }
+
+    /**
+     * MSD基数排序.array[startIndex,endIndex)内的元素前depth个字节都相同
+     *
+     * @param cache 辅助数组
+     */
+    private static void msdRadixSort(byte[][] array, int startIndex, int endIndex, int depth, byte[][] cache) {
+        while (endIndex - startIndex > INSERTION_SORT_THRESHOLD) {
+            // 1. 统计直方图.counts[0]之后依次为: key结尾、字节0 ~ 255
+            int length = endIndex - startIndex;
+            int[] counts = new int[RADIX + 2];
+            for (int i = startIndex; i < endIndex; i++) {
+                counts[byteAt(array[i], depth) + 2]++;
+            }
+
+            // 2. 所有元素落在同一个桶时不移动,直接处理下一个字节
+            if (counts[1] == length) {
+                return;
+            }
+            if (isSingleBucket(counts, length)) {
+                depth++;
+                continue;
+            }
+
+            // 3. 按桶分配到辅助数组,再复制回来
+            for (int r = 0; r <= RADIX; r++) {
+                counts[r + 1] += counts[r];
+            }
+            for (int i = startIndex; i < endIndex; i++) {
+                byte[] value = array[i];
+                cache[counts[byteAt(value, depth) + 1]++] = value;
+            }
+            System.arraycopy(cache, 0, array, startIndex, length);
+
+            // 4. 每个桶继续处理下一个字节.counts[r]为字节r的桶的起始位置
+            for (int r = 0; r < RADIX; r++) {
+                if (counts[r + 1] - counts[r] > 1) {
+                    msdRadixSort(array, startIndex + counts[r], startIndex + counts[r + 1], depth + 1, cache);
+                }
+            }
+            return;
+        }
+
+        insertSort(array, startIndex, endIndex, depth);
+    }
+
+    /**
+     * 是否所有元素都落在字节0 ~ 255中的同一个桶
+     */
+    private static boolean isSingleBucket(int[] counts, int length) {
+        for (int r = 2; r < RADIX + 2; r++) {
+            if (counts[r] != 0) {
+                return counts[r] == length;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return 第index个字符;超出长度时返回-1,使较短的字符串排在前面
+     */
+    private static int charAt(String value, int index) {
+        return index < value.length() ? value.charAt(index) : -1;
+    }
+
+    /**
+     * 将char按高、低两个字节展开后的第index个字节
+     *
+     * @return 第index个字节;超出长度时返回-1
+     */
+    private static int byteAt(String value, int index) {
+        int charIndex = index >> 1;
+        if (charIndex >= value.length()) {
+            return -1;
+        }
+        char c = value.charAt(charIndex);
+        return (index & 1) == 0 ? c >>> 8 : c & 0xFF;
+    }
+
+    /**
+     * @return 第index个无符号字节;超出长度时返回-1
+     */
+    private static int byteAt(byte[] value, int index) {
+        return index < value.length ? value[index] & 0xFF : -1;
+    }
+
+    /**
+     * 从第depth个字符开始比较的插入排序
+     */
+    private static void insertSort(String[] array, int startIndex, int endIndex, int depth) {
+        for (int i = startIndex + 1; i < endIndex; i++) {
+            String value = array[i];
+            int index = i;
+            while (index > startIndex && less(value, array[index - 1], depth)) {
+                array[index] = array[index - 1];
+                index--;
+            }
+            array[index] = value;
+        }
+    }
+
+    /**
+     * 从第depth个字节开始比较的插入排序
+     */
+    private static void insertSort(byte[][] array, int startIndex, int endIndex, int depth) {
+        for (int i = startIndex + 1; i < endIndex; i++) {
+            byte[] value = array[i];
+            int index = i;
+            while (index > startIndex && less(value, array[index - 1], depth)) {
+                array[index] = array[index - 1];
+                index--;
+            }
+            array[index] = value;
+        }
+    }
+
+    /**
+     * 从第depth个字符开始比较,v是否小于w
+     */
+    private static boolean less(String v, String w, int depth) {
+        for (int i = depth, length = Math.min(v.length(), w.length()); i < length; i++) {
+            char a = v.charAt(i), b = w.charAt(i);
+            if (a != b) {
+                return a < b;
+            }
+        }
+        return v.length() < w.length();
+    }
+
+    /**
+     * 从第depth个字节开始按无符号字节比较,v是否小于w
+     */
+    private static boolean less(byte[] v, byte[] w, int depth) {
+        for (int i = depth, length = Math.min(v.length, w.length); i < length; i++) {
+            int a = v[i] & 0xFF, b = w[i] & 0xFF;
+            if (a != b) {
+                return a < b;
+            }
+        }
+        return v.length < w.length;
+    }
+
+    /**
+     * 按第depth个字符三者取中,将中间值放到startIndex
+     */
+    private static void medianToStart(String[] array, int startIndex, int endIndex, int depth) {
+        int middleIndex = (startIndex + endIndex) >>> 1, lastIndex = endIndex - 1;
+        int first = charAt(array[startIndex], depth), middle = charAt(array[middleIndex], depth), last = charAt(array[lastIndex], depth);
+        if ((first <= middle && middle <= last) || (last <= middle && middle <= first)) {
+            swap(array, startIndex, middleIndex);
+        } else if ((first <= last && last <= middle) || (middle <= last && last <= first)) {
+            swap(array, startIndex, lastIndex);
+        }
+    }
+
+    /**
+     * 按第depth个字节三者取中,将中间值放到startIndex
+     */
+    private static void medianToStart(byte[][] array, int startIndex, int endIndex, int depth) {
+        int middleIndex = (startIndex + endIndex) >>> 1, lastIndex = endIndex - 1;
+        int first = byteAt(array[startIndex], depth), middle = byteAt(array[middleIndex], depth), last = byteAt(array[lastIndex], depth);
+        if ((first <= middle && middle <= last) || (last <= middle && middle <= first)) {
+            swap(array, startIndex, middleIndex);
+        } else if ((first <= last && last <= middle) || (middle <= last && last <= first)) {
+            swap(array, startIndex, lastIndex);
+        }
+    }
+
+    private static void swap(Object[] array, int index1, int index2) {
+        Object temp = array[index1];
+        array[index1] = array[index2];
+        array[index2] = temp;
+    }
+
+    private static void checkIndex(Object[] array, int startIndex, int endIndex) throws IllegalArgumentException {
+        if (startIndex > endIndex || startIndex < 0 || endIndex > array.length) {
+            throw new IllegalArgumentException();
+        }
+    }
+}
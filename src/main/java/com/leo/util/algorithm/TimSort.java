@@ -0,0 +1,645 @@
+package com.leo.util.algorithm;
+
+import java.util.Comparator;
+
+/**
+ * TimSort的实现.稳定、自适应的归并排序: <br/>
+ * 1. 找出数组中已有的升序(或严格降序后翻转)的run,过短的run用折半插入排序补足到minRun <br/>
+ * 2. 用栈保存run,保持栈中run长度的不变式,相邻run合并 <br/>
+ * 3. 合并时一侧连续胜出多次后进入galloping模式,用指数查找跳过整段元素 <br/>
+ * 已有序的数组只需一次遍历,时间复杂度O(n);辅助空间不超过n/2
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/5/6
+ * @since 1.0
+ */
+final class TimSort<E> {
+
+    /**
+     * 长度小于该值的数组直接用折半插入排序
+     */
+    private static final int MIN_MERGE = 32;
+
+    /**
+     * 进入galloping模式的初始阈值
+     */
+    private static final int MIN_GALLOP = 7;
+
+    /**
+     * 初始辅助数组的长度
+     */
+    private static final int INITIAL_TMP_LENGTH = 256;
+
+    /**
+     * run栈的最大深度.run长度满足斐波那契式增长,int范围内的数组不会超过该值
+     */
+    private static final int MAX_STACK_LENGTH = 49;
+
+    /**
+     * 待排序的数组
+     */
+    private E[] array;
+
+    /**
+     * 比较器
+     */
+    private Comparator<? super E> comparator;
+
+    /**
+     * 当前进入galloping模式的阈值.随数据特征动态调整
+     */
+    private int minGallop = MIN_GALLOP;
+
+    /**
+     * 合并时使用的辅助数组,按需增长,长度不超过n/2
+     */
+    private Object[] tmp;
+
+    /**
+     * 辅助数组的最大长度: 待排序长度的一半
+     */
+    private int maxTmpLength;
+
+    /**
+     * run栈: runBase[i]为第i个run的起始索引,runLength[i]为其长度
+     */
+    private int[] runBase;
+
+    private int[] runLength;
+
+    /**
+     * run栈的大小
+     */
+    private int stackSize;
+
+    private TimSort(E[] array, Comparator<? super E> comparator, int length) {
+        this.array = array;
+        this.comparator = comparator;
+
+        this.maxTmpLength = length >>> 1;
+        int tmpLength = (length < 2 * INITIAL_TMP_LENGTH) ? maxTmpLength : INITIAL_TMP_LENGTH;
+        this.tmp = new Object[tmpLength];
+
+        // run长度满足斐波那契式增长,栈深度有上界
+        int stackLength = (length < 120 ? 5 : length < 1542 ? 10 : length < 119151 ? 24 : MAX_STACK_LENGTH);
+        this.runBase = new int[stackLength];
+        this.runLength = new int[stackLength];
+    }
+
+    /**
+     * 可重复使用的TimSort.由{@link SortContext}持有,每次排序前调用{@link #reset(Object[], Comparator, int)}
+     */
+    TimSort() {
+        this.tmp = new Object[0];
+        this.runBase = new int[MAX_STACK_LENGTH];
+        this.runLength = new int[MAX_STACK_LENGTH];
+    }
+
+    /**
+     * 重置为对array排序.保留已分配的辅助数组和run栈
+     */
+    void reset(E[] array, Comparator<? super E> comparator, int length) {
+        this.array = array;
+        this.comparator = comparator;
+        this.maxTmpLength = length >>> 1;
+        this.minGallop = MIN_GALLOP;
+        this.stackSize = 0;
+    }
+
+    /**
+     * 排序结束后清除对数组、比较器以及辅助数组中元素的引用,避免重复使用时阻止垃圾回收
+     */
+    private void release() {
+        java.util.Arrays.fill(tmp, 0, Math.min(tmp.length, maxTmpLength), null);
+        this.array = null;
+        this.comparator = null;
+    }
+
+    /**
+     * 将array的[startIndex,endIndex)排序.调用方负责参数检查
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param comparator 比较器
+     */
+    static <E> void sort(E[] array, int startIndex, int endIndex, Comparator<? super E> comparator) {
+        sort(array, startIndex, endIndex, comparator, null);
+    }
+
+    /**
+     * 将array的[startIndex,endIndex)排序.调用方负责参数检查
+     *
+     * @param array      待排序的数组
+     * @param startIndex 起始索引,包含
+     * @param endIndex   结束索引,不包含
+     * @param comparator 比较器
+     * @param context    提供可重复使用的TimSort;为null时新建
+     */
+    static <E> void sort(E[] array, int startIndex, int endIndex, Comparator<? super E> comparator, SortContext context) {
+        int remaining = endIndex - startIndex;
+        if (remaining < 2) {
+            return;
+        }
+
+        // 1. 数组较短时,找出第一个run后直接折半插入排序
+        if (remaining < MIN_MERGE) {
+            int initRunLength = countRunAndMakeAscending(array, startIndex, endIndex, comparator);
+            binarySort(array, startIndex, endIndex, startIndex + initRunLength, comparator);
+            return;
+        }
+
+        // 2. 逐个找出run,入栈并按不变式合并
+        TimSort<E> timSort = context == null ? new TimSort<>(array, comparator, remaining)
+                : context.timSort(array, comparator, remaining);
+        int minRun = minRunLength(remaining);
+        try {
+            do {
+                int length = countRunAndMakeAscending(array, startIndex, endIndex, comparator);
+
+                if (length < minRun) {
+                    int force = remaining <= minRun ? remaining : minRun;
+                    binarySort(array, startIndex, startIndex + force, startIndex + length, comparator);
+                    length = force;
+                }
+
+                timSort.pushRun(startIndex, length);
+                timSort.mergeCollapse();
+
+                startIndex += length;
+                remaining -= length;
+            } while (remaining != 0);
+
+            timSort.mergeForceCollapse();
+        } finally {
+            if (context != null) {
+                timSort.release();
+            }
+        }
+    }
+
+    /**
+     * 折半插入排序.[startIndex,sortedEnd)已有序,将[sortedEnd,endIndex)逐个插入
+     */
+    private static <E> void binarySort(E[] array, int startIndex, int endIndex, int sortedEnd, Comparator<? super E> comparator) {
+        if (sortedEnd == startIndex) {
+            sortedEnd++;
+        }
+        for (; sortedEnd < endIndex; sortedEnd++) {
+            E pivot = array[sortedEnd];
+
+            // 找到最后一个不大于pivot的位置之后,保证稳定
+            int left = startIndex, right = sortedEnd;
+            while (left < right) {
+                int middle = (left + right) >>> 1;
+                if (comparator.compare(pivot, array[middle]) < 0) {
+                    right = middle;
+                } else {
+                    left = middle + 1;
+                }
+            }
+
+            System.arraycopy(array, left, array, left + 1, sortedEnd - left);
+            array[left] = pivot;
+        }
+    }
+
+    /**
+     * 找出从startIndex开始的run的长度.严格降序的run会被翻转成升序
+     *
+     * @return run的长度
+     */
+    private static <E> int countRunAndMakeAscending(E[] array, int startIndex, int endIndex, Comparator<? super E> comparator) {
+        int runEnd = startIndex + 1;
+        if (runEnd == endIndex) {
+            return 1;
+        }
+
+        if (comparator.compare(array[runEnd++], array[startIndex]) < 0) {
+            while (runEnd < endIndex && comparator.compare(array[runEnd], array[runEnd - 1]) < 0) {
+                runEnd++;
+            }
+            reverseRange(array, startIndex, runEnd);
+        } else {
+            while (runEnd < endIndex && comparator.compare(array[runEnd], array[runEnd - 1]) >= 0) {
+                runEnd++;
+            }
+        }
+
+        return runEnd - startIndex;
+    }
+
+    /**
+     * 翻转[startIndex,endIndex)
+     */
+    private static void reverseRange(Object[] array, int startIndex, int endIndex) {
+        endIndex--;
+        while (startIndex < endIndex) {
+            Object temp = array[startIndex];
+            array[startIndex++] = array[endIndex];
+            array[endIndex--] = temp;
+        }
+    }
+
+    /**
+     * 计算最小run长度: 使n/minRun接近且不大于2的幂,合并时更平衡
+     */
+    private static int minRunLength(int length) {
+        int lowBit = 0;
+        while (length >= MIN_MERGE) {
+            lowBit |= (length & 1);
+            length >>= 1;
+        }
+        return length + lowBit;
+    }
+
+    private void pushRun(int base, int length) {
+        runBase[stackSize] = base;
+        runLength[stackSize] = length;
+        stackSize++;
+    }
+
+    /**
+     * 合并栈顶的run,直到满足不变式: <br/>
+     * 1. runLength[i - 3] > runLength[i - 2] + runLength[i - 1] <br/>
+     * 2. runLength[i - 2] > runLength[i - 1]
+     */
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if ((n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1])
+                    || (n > 1 && runLength[n - 2] <= runLength[n - 1] + runLength[n])) {
+                if (runLength[n - 1] < runLength[n + 1]) {
+                    n--;
+                }
+            } else if (runLength[n] > runLength[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * 合并栈中所有的run
+     */
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLength[n - 1] < runLength[n + 1]) {
+                n--;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * 合并栈中第i和第i + 1个run
+     */
+    private void mergeAt(int i) {
+        int base1 = runBase[i], length1 = runLength[i];
+        int base2 = runBase[i + 1], length2 = runLength[i + 1];
+
+        runLength[i] = length1 + length2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLength[i + 1] = runLength[i + 2];
+        }
+        stackSize--;
+
+        // 1. run1中已经不大于run2[0]的前缀无需移动
+        int k = gallopRight(array[base2], array, base1, length1, 0, comparator);
+        base1 += k;
+        length1 -= k;
+        if (length1 == 0) {
+            return;
+        }
+
+        // 2. run2中不小于run1最后一个元素的后缀无需移动
+        length2 = gallopLeft(array[base1 + length1 - 1], array, base2, length2, length2 - 1, comparator);
+        if (length2 == 0) {
+            return;
+        }
+
+        // 3. 将较短的一侧复制到辅助数组中再合并
+        if (length1 <= length2) {
+            mergeLow(base1, length1, base2, length2);
+        } else {
+            mergeHigh(base1, length1, base2, length2);
+        }
+    }
+
+    /**
+     * 在有序的array[base,base + length)中查找key应插入的最左位置,从hint开始指数查找
+     *
+     * @return k: array[base + k - 1] < key <= array[base + k]
+     */
+    private static <E> int gallopLeft(E key, Object[] array, int base, int length, int hint, Comparator<? super E> comparator) {
+        int lastOffset = 0, offset = 1;
+        if (comparator.compare(key, (E) array[base + hint]) > 0) {
+            // 向右查找,直到array[base + hint + lastOffset] < key <= array[base + hint + offset]
+            int maxOffset = length - hint;
+            while (offset < maxOffset && comparator.compare(key, (E) array[base + hint + offset]) > 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            // 向左查找,直到array[base + hint - offset] < key <= array[base + hint - lastOffset]
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && comparator.compare(key, (E) array[base + hint - offset]) <= 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            int temp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - temp;
+        }
+
+        // 在(lastOffset,offset]中二分查找
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (comparator.compare(key, (E) array[base + middle]) > 0) {
+                lastOffset = middle + 1;
+            } else {
+                offset = middle;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * 在有序的array[base,base + length)中查找key应插入的最右位置,从hint开始指数查找
+     *
+     * @return k: array[base + k - 1] <= key < array[base + k]
+     */
+    private static <E> int gallopRight(E key, Object[] array, int base, int length, int hint, Comparator<? super E> comparator) {
+        int lastOffset = 0, offset = 1;
+        if (comparator.compare(key, (E) array[base + hint]) < 0) {
+            // 向左查找,直到array[base + hint - offset] <= key < array[base + hint - lastOffset]
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && comparator.compare(key, (E) array[base + hint - offset]) < 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            int temp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - temp;
+        } else {
+            // 向右查找,直到array[base + hint + lastOffset] <= key < array[base + hint + offset]
+            int maxOffset = length - hint;
+            while (offset < maxOffset && comparator.compare(key, (E) array[base + hint + offset]) >= 0) {
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            lastOffset += hint;
+            offset += hint;
+        }
+
+        // 在(lastOffset,offset]中二分查找
+        lastOffset++;
+        while (lastOffset < offset) {
+            int middle = lastOffset + ((offset - lastOffset) >>> 1);
+            if (comparator.compare(key, (E) array[base + middle]) < 0) {
+                offset = middle;
+            } else {
+                lastOffset = middle + 1;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * 从左向右合并两个相邻的run. run1复制到tmp中, length1 <= length2. <br/>
+     * 前置条件: array[base1] > array[base2], run1的最后一个元素 > run2中所有元素
+     */
+    private void mergeLow(int base1, int length1, int base2, int length2) {
+        E[] array = this.array;
+        Object[] tmp = ensureCapacity(length1);
+        System.arraycopy(array, base1, tmp, 0, length1);
+
+        int cursor1 = 0, cursor2 = base2, dest = base1;
+        array[dest++] = array[cursor2++];
+        if (--length2 == 0) {
+            System.arraycopy(tmp, cursor1, array, dest, length1);
+            return;
+        }
+        if (length1 == 1) {
+            System.arraycopy(array, cursor2, array, dest, length2);
+            array[dest + length2] = (E) tmp[cursor1];
+            return;
+        }
+
+        Comparator<? super E> comparator = this.comparator;
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            // 1. 逐个比较,记录每一侧连续胜出的次数
+            int count1 = 0, count2 = 0;
+            do {
+                if (comparator.compare(array[cursor2], (E) tmp[cursor1]) < 0) {
+                    array[dest++] = array[cursor2++];
+                    count2++;
+                    count1 = 0;
+                    if (--length2 == 0) {
+                        break outer;
+                    }
+                } else {
+                    array[dest++] = (E) tmp[cursor1++];
+                    count1++;
+                    count2 = 0;
+                    if (--length1 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // 2. galloping: 整段复制,直到两侧都不再连续胜出
+            do {
+                count1 = gallopRight(array[cursor2], tmp, cursor1, length1, 0, comparator);
+                if (count1 != 0) {
+                    System.arraycopy(tmp, cursor1, array, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    length1 -= count1;
+                    if (length1 <= 1) {
+                        break outer;
+                    }
+                }
+                array[dest++] = array[cursor2++];
+                if (--length2 == 0) {
+                    break outer;
+                }
+
+                count2 = gallopLeft((E) tmp[cursor1], array, cursor2, length2, 0, comparator);
+                if (count2 != 0) {
+                    System.arraycopy(array, cursor2, array, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    length2 -= count2;
+                    if (length2 == 0) {
+                        break outer;
+                    }
+                }
+                array[dest++] = (E) tmp[cursor1++];
+                if (--length1 == 1) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if (length1 == 1) {
+            System.arraycopy(array, cursor2, array, dest, length2);
+            array[dest + length2] = (E) tmp[cursor1];
+        } else if (length1 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract!");
+        } else {
+            System.arraycopy(tmp, cursor1, array, dest, length1);
+        }
+    }
+
+    /**
+     * 从右向左合并两个相邻的run. run2复制到tmp中, length1 >= length2. <br/>
+     * 前置条件: array[base1] > array[base2], run1的最后一个元素 > run2中所有元素
+     */
+    private void mergeHigh(int base1, int length1, int base2, int length2) {
+        E[] array = this.array;
+        Object[] tmp = ensureCapacity(length2);
+        System.arraycopy(array, base2, tmp, 0, length2);
+
+        int cursor1 = base1 + length1 - 1, cursor2 = length2 - 1, dest = base2 + length2 - 1;
+        array[dest--] = array[cursor1--];
+        if (--length1 == 0) {
+            System.arraycopy(tmp, 0, array, dest - (length2 - 1), length2);
+            return;
+        }
+        if (length2 == 1) {
+            dest -= length1;
+            cursor1 -= length1;
+            System.arraycopy(array, cursor1 + 1, array, dest + 1, length1);
+            array[dest] = (E) tmp[cursor2];
+            return;
+        }
+
+        Comparator<? super E> comparator = this.comparator;
+        int minGallop = this.minGallop;
+        outer:
+        while (true) {
+            // 1. 逐个比较,记录每一侧连续胜出的次数
+            int count1 = 0, count2 = 0;
+            do {
+                if (comparator.compare((E) tmp[cursor2], array[cursor1]) < 0) {
+                    array[dest--] = array[cursor1--];
+                    count1++;
+                    count2 = 0;
+                    if (--length1 == 0) {
+                        break outer;
+                    }
+                } else {
+                    array[dest--] = (E) tmp[cursor2--];
+                    count2++;
+                    count1 = 0;
+                    if (--length2 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // 2. galloping: 整段复制,直到两侧都不再连续胜出
+            do {
+                count1 = length1 - gallopRight((E) tmp[cursor2], array, base1, length1, length1 - 1, comparator);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    length1 -= count1;
+                    System.arraycopy(array, cursor1 + 1, array, dest + 1, count1);
+                    if (length1 == 0) {
+                        break outer;
+                    }
+                }
+                array[dest--] = (E) tmp[cursor2--];
+                if (--length2 == 1) {
+                    break outer;
+                }
+
+                count2 = length2 - gallopLeft(array[cursor1], tmp, 0, length2, length2 - 1, comparator);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    length2 -= count2;
+                    System.arraycopy(tmp, cursor2 + 1, array, dest + 1, count2);
+                    if (length2 <= 1) {
+                        break outer;
+                    }
+                }
+                array[dest--] = array[cursor1--];
+                if (--length1 == 0) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = minGallop < 1 ? 1 : minGallop;
+
+        if (length2 == 1) {
+            dest -= length1;
+            cursor1 -= length1;
+            System.arraycopy(array, cursor1 + 1, array, dest + 1, length1);
+            array[dest] = (E) tmp[cursor2];
+        } else if (length2 == 0) {
+            throw new IllegalArgumentException("Comparison method violates its general contract!");
+        } else {
+            System.arraycopy(tmp, 0, array, dest - (length2 - 1), length2);
+        }
+    }
+
+    /**
+     * 保证辅助数组的长度不小于minCapacity,按2的幂增长且不超过n/2
+     */
+    private Object[] ensureCapacity(int minCapacity) {
+        if (tmp.length < minCapacity) {
+            int newSize = Integer.highestOneBit(minCapacity) << 1;
+            if (newSize < 0 || newSize > maxTmpLength) {
+                newSize = Math.max(minCapacity, maxTmpLength);
+            }
+            tmp = new Object[newSize];
+        }
+        return tmp;
+    }
+}
@@ -83,13 +83,13 @@ public abstract class AbstractBalancedBinaryTree<T> implements BalancedBinaryTre
     }
 
     /**
-     * 将保存value的数组排序从小到大排序
+     * 将保存value的数组排序从小到大排序(稳定)
      *
      * @return 返回从小到大的数组
      * @throws IllegalArgumentException 当values = null时抛出异常
      */
     protected final void sort(Object[] values) throws IllegalArgumentException {
-        Arrays.shellSort(values, (value1, value2) -> comparator.compare((T) value1, (T) value2));
+        Arrays.timSort(values, (value1, value2) -> comparator.compare((T) value1, (T) value2));
     }
 
     /**
@@ -0,0 +1,745 @@
+package com.leo.util.datastructure.map;
+
+import com.leo.util.datastructure.Map;
+import com.leo.util.datastructure.Set;
+import com.leo.util.datastructure.set.AbstractSet;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程安全的HashMap.参照JDK8的ConcurrentHashMap: <br/>
+ * 1. 读不加锁: 节点的value、next为volatile,桶通过AtomicReferenceArray读取 <br/>
+ * 2. 向空桶中放入元素时通过CAS,只有修改非空的桶时才对该桶的头节点加锁,不同的桶之间互不影响 <br/>
+ * 3. 扩容由多个线程协作完成: 每个线程领取一段桶进行迁移,迁移完的桶放入ForwardingNode, <br/>
+ * 其它线程遇到ForwardingNode时加入迁移,读操作则转到新的table中查找 <br/>
+ * 4. 元素个数保存在分段计数器(LongAdder)中,避免所有线程竞争同一个size <br/>
+ * Note: key和value都不能为null;size()在并发修改时只是一个估计值;迭代器是弱一致的,不会抛出ConcurrentModificationException
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/6/8
+ * @since 1.0
+ */
+public class ConcurrentHashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
+
+    /**
+     * 默认的初始化容量
+     */
+    private static final int DEFAULT_INIT_CAPACITY = 1 << 4;
+
+    /**
+     * 最大容量
+     */
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * ForwardingNode的hash.正常节点的hash都不小于0
+     */
+    private static final int MOVED = -1;
+
+    /**
+     * 正常节点的hash可用的位
+     */
+    private static final int HASH_BITS = 0x7FFF_FFFF;
+
+    /**
+     * 每个线程一次领取的最少的桶的个数
+     */
+    private static final int MIN_TRANSFER_STRIDE = 16;
+
+    /**
+     * sizeCtl中扩容标记所占的位数
+     */
+    private static final int RESIZE_STAMP_BITS = 16;
+
+    private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+
+    /**
+     * 同时参与扩容的最大线程数
+     */
+    private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 保存键值对的节点.value、next为volatile,读操作不需要加锁
+     */
+    private static class Node<K, V> {
+
+        final int hash;
+
+        final K key;
+
+        volatile V value;
+
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * 扩容时放在已迁移完的桶中,指向新的table
+     */
+    private static final class ForwardingNode<K, V> extends Node<K, V> {
+
+        final AtomicReferenceArray<Node<K, V>> nextTable;
+
+        ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+            super(MOVED, null, null, null);
+            this.nextTable = nextTable;
+        }
+    }
+
+    /**
+     * 迭代器返回的Entry.setValue()会写回到map中
+     */
+    private final class MapEntry implements Map.Entry<K, V> {
+
+        private final K key;
+
+        private V value;
+
+        MapEntry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Optional<K> getKey() {
+            return Optional.of(key);
+        }
+
+        @Override
+        public Optional<V> getValue() {
+            return Optional.of(value);
+        }
+
+        @Override
+        public void setValue(V value) {
+            if (value == null) {
+                throw new IllegalArgumentException();
+            }
+            this.value = value;
+            put(key, value);
+        }
+    }
+
+    /**
+     * 保存实际的键值对.长度为2^n
+     */
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+
+    /**
+     * 扩容时的新table;不在扩容中时为null
+     */
+    private volatile AtomicReferenceArray<Node<K, V>> nextTable;
+
+    /**
+     * 不小于0时,为扩容的临界值; <br/>
+     * 小于0时,表示正在扩容: 高RESIZE_STAMP_BITS位为扩容标记(见{@link #resizeStamp(int)}),低位为参与扩容的线程数 + 1
+     */
+    private final AtomicInteger sizeCtl = new AtomicInteger();
+
+    /**
+     * 扩容时,下一段待领取的桶的上界(不包含)
+     */
+    private final AtomicInteger transferIndex = new AtomicInteger();
+
+    /**
+     * 分段计数器,保存键值对个数
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * key的Set集合
+     */
+    private class KeySet extends AbstractSet<K> {
+
+        @Override
+        public int size() {
+            return ConcurrentHashMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ConcurrentHashMap.this.isEmpty();
+        }
+
+        @Override
+        public Optional<K> remove(K key) {
+            return ConcurrentHashMap.this.remove(key).map((value) -> key);
+        }
+
+        @Override
+        public boolean contains(K key) {
+            return ConcurrentHashMap.this.containsKey(key);
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new Traverser<K>() {
+                @Override
+                public K next() {
+                    return nextNode().key;
+                }
+            };
+        }
+    }
+
+    /**
+     * Entry的Set集合
+     */
+    private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+        @Override
+        public int size() {
+            return ConcurrentHashMap.this.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return ConcurrentHashMap.this.isEmpty();
+        }
+
+        @Override
+        public Optional<Map.Entry<K, V>> remove(Map.Entry<K, V> entry) {
+            ConcurrentHashMap.this.remove(entry);
+            return Optional.ofNullable(entry);
+        }
+
+        @Override
+        public boolean contains(Map.Entry<K, V> entry) {
+            return ConcurrentHashMap.this.containsEntry(entry);
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new Traverser<Map.Entry<K, V>>() {
+                @Override
+                public Map.Entry<K, V> next() {
+                    Node<K, V> node = nextNode();
+                    return new MapEntry(node.key, node.value);
+                }
+            };
+        }
+    }
+
+    /**
+     * 弱一致的迭代器.遇到ForwardingNode时,转到新table中对应的两个桶
+     */
+    private abstract class Traverser<E> implements Iterator<E> {
+
+        private final AtomicReferenceArray<Node<K, V>> table = ConcurrentHashMap.this.table;
+
+        /**
+         * 下一个要访问的桶
+         */
+        private int position;
+
+        /**
+         * 下一个节点
+         */
+        private Node<K, V> node;
+
+        /**
+         * 从新table中取出的、待遍历的链表的头节点
+         */
+        private ArrayDeque<Node<K, V>> forwarded;
+
+        Traverser() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return node != null;
+        }
+
+        Node<K, V> nextNode() {
+            Node<K, V> current = node;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            node = current.next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            while (node == null) {
+                if (forwarded != null && !forwarded.isEmpty()) {
+                    node = forwarded.poll();
+                } else if (position < table.length()) {
+                    Node<K, V> head = table.get(position);
+                    if (head instanceof ForwardingNode) {
+                        addForwarded(((ForwardingNode<K, V>) head).nextTable, position, table.length());
+                    } else {
+                        node = head;
+                    }
+                    position++;
+                } else {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * 旧table中index处的桶迁移到了nextTable中的index和index + length处
+         */
+        private void addForwarded(AtomicReferenceArray<Node<K, V>> nextTable, int index, int length) {
+            if (forwarded == null) {
+                forwarded = new ArrayDeque<>();
+            }
+            for (int i = index; i < nextTable.length(); i += length) {
+                Node<K, V> head = nextTable.get(i);
+                if (head instanceof ForwardingNode) {
+                    addForwarded(((ForwardingNode<K, V>) head).nextTable, i, nextTable.length());
+                } else if (head != null) {
+                    forwarded.add(head);
+                }
+            }
+        }
+    }
+
+    public ConcurrentHashMap() {
+        this(DEFAULT_INIT_CAPACITY);
+    }
+
+    /**
+     * @param initCapacity 初始化容量.放入不超过initCapacity * 0.75个元素时不会扩容
+     * @throws IllegalArgumentException 当初始化容量小于0或超过最大容量时，抛出异常
+     */
+    public ConcurrentHashMap(int initCapacity) throws IllegalArgumentException {
+        if (initCapacity < 0 || initCapacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Illegal capacity: " + initCapacity);
+        }
+        int capacity = Math.max(DEFAULT_INIT_CAPACITY, Integer.highestOneBit(Math.max(initCapacity - 1, 1)) << 1);
+        table = new AtomicReferenceArray<>(capacity);
+        sizeCtl.set(capacity - (capacity >>> 2));
+    }
+
+    /**
+     * @throws IllegalArgumentException 当key或value为null时，抛出异常
+     */
+    @Override
+    public Optional<V> put(K key, V value) throws IllegalArgumentException {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException();
+        }
+        return Optional.ofNullable(putValue(key, value));
+    }
+
+    /**
+     * @throws IllegalArgumentException 当key为null时，抛出异常
+     */
+    @Override
+    public Optional<V> get(K key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+        return Optional.ofNullable(getValue(key));
+    }
+
+    /**
+     * @throws IllegalArgumentException 当key为null时，抛出异常
+     */
+    @Override
+    public Optional<V> remove(K key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+        return Optional.ofNullable(remove(key, null, true));
+    }
+
+    /**
+     * @throws IllegalArgumentException 当key为null时，抛出异常
+     */
+    @Override
+    public Optional<V> remove(K key, V value) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+        return value == null ? Optional.empty() : Optional.ofNullable(remove(key, value, false));
+    }
+
+    /**
+     * @throws IllegalArgumentException 当key为null时，抛出异常
+     */
+    @Override
+    public boolean containsKey(K key) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+        return getValue(key) != null;
+    }
+
+    /**
+     * @throws IllegalArgumentException 当key为null时，抛出异常
+     */
+    @Override
+    public boolean containsEntry(K key, V value) throws IllegalArgumentException {
+        if (key == null) {
+            throw new IllegalArgumentException();
+        }
+        V current = getValue(key);
+        return current != null && current.equals(value);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    /**
+     * @return 键值对个数.并发修改时为估计值
+     */
+    @Override
+    public int size() {
+        long sum = count.sum();
+        return sum < 0 ? 0 : sum > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) sum;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count.sum() <= 0;
+    }
+
+    /**
+     * 逐个桶加锁清空,保留当前的容量
+     */
+    @Override
+    public void clear() {
+        long removed = 0;
+        AtomicReferenceArray<Node<K, V>> table = this.table;
+        for (int i = 0; i < table.length(); ) {
+            Node<K, V> head = table.get(i);
+            if (head == null) {
+                i++;
+            } else if (head.hash == MOVED) {
+                table = helpTransfer(table, head);
+                i = 0;
+            } else {
+                synchronized (head) {
+                    if (table.get(i) == head) {
+                        for (Node<K, V> node = head; node != null; node = node.next) {
+                            removed++;
+                        }
+                        table.set(i, null);
+                        i++;
+                    }
+                }
+            }
+        }
+        count.add(-removed);
+    }
+
+    /**
+     * key的hash.将hashCode()的高16位异或到低16位,并保证不小于0
+     */
+    private static int spread(int hashCode) {
+        return (hashCode ^ (hashCode >>> 16)) & HASH_BITS;
+    }
+
+    /**
+     * 扩容标记.与table的长度一一对应,用于区分不同轮次的扩容
+     */
+    private static int resizeStamp(int length) {
+        return Integer.numberOfLeadingZeros(length) | (1 << (RESIZE_STAMP_BITS - 1));
+    }
+
+    /**
+     * 不加锁地查找key所对应的value
+     */
+    private V getValue(Object key) {
+        int hash = spread(key.hashCode());
+        AtomicReferenceArray<Node<K, V>> table = this.table;
+        while (true) {
+            Node<K, V> node = table.get(hash & (table.length() - 1));
+            if (node instanceof ForwardingNode) {
+                table = ((ForwardingNode<K, V>) node).nextTable;
+                continue;
+            }
+            for (; node != null; node = node.next) {
+                K nodeKey;
+                if (node.hash == hash && ((nodeKey = node.key) == key || key.equals(nodeKey))) {
+                    return node.value;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 真正执行put操作
+     *
+     * @return 返回旧值;如果不存在旧值,则为null
+     */
+    private V putValue(K key, V value) {
+        int hash = spread(key.hashCode()), binCount = 0;
+        for (AtomicReferenceArray<Node<K, V>> table = this.table; ; ) {
+            int index = hash & (table.length() - 1);
+            Node<K, V> head = table.get(index);
+            if (head == null) {
+                if (table.compareAndSet(index, null, new Node<>(hash, key, value, null))) {
+                    break;
+                }
+            } else if (head.hash == MOVED) {
+                table = helpTransfer(table, head);
+            } else {
+                V oldValue = null;
+                synchronized (head) {
+                    if (table.get(index) == head) {
+                        binCount = 1;
+                        for (Node<K, V> node = head; ; binCount++) {
+                            K nodeKey;
+                            if (node.hash == hash && ((nodeKey = node.key) == key || key.equals(nodeKey))) {
+                                oldValue = node.value;
+                                node.value = value;
+                                break;
+                            }
+                            if (node.next == null) {
+                                node.next = new Node<>(hash, key, value, null);
+                                break;
+                            }
+                            node = node.next;
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    if (oldValue != null) {
+                        return oldValue;
+                    }
+                    break;
+                }
+            }
+        }
+
+        addCount(binCount);
+        return null;
+    }
+
+    /**
+     * 真正的移除键值对
+     *
+     * @param key         待移除的键
+     * @param value       待移除的值
+     * @param ignoreValue 为true时,忽略value,,key符合时就移除;为false时,key-value都符合时，才移除
+     * @return 返回被移除的value或null
+     */
+    private V remove(K key, V value, boolean ignoreValue) {
+        int hash = spread(key.hashCode());
+        for (AtomicReferenceArray<Node<K, V>> table = this.table; ; ) {
+            int index = hash & (table.length() - 1);
+            Node<K, V> head = table.get(index);
+            if (head == null) {
+                return null;
+            }
+            if (head.hash == MOVED) {
+                table = helpTransfer(table, head);
+                continue;
+            }
+
+            V oldValue = null;
+            boolean validated = false;
+            synchronized (head) {
+                if (table.get(index) == head) {
+                    validated = true;
+                    for (Node<K, V> node = head, prevNode = null; node != null; prevNode = node, node = node.next) {
+                        K nodeKey;
+                        if (node.hash == hash && ((nodeKey = node.key) == key || key.equals(nodeKey))) {
+                            if (ignoreValue || value.equals(node.value)) {
+                                oldValue = node.value;
+                                if (prevNode == null) {
+                                    table.set(index, node.next);
+                                } else {
+                                    prevNode.next = node.next;
+                                }
+                            }
+                            break;
+                        }
+                    }
+                }
+            }
+            if (validated) {
+                if (oldValue != null) {
+                    count.decrement();
+                }
+                return oldValue;
+            }
+        }
+    }
+
+    /**
+     * 计数加1,必要时开始或加入扩容. <br/>
+     * 为了避免每次都对所有分段求和,只有放入的桶中已有其它节点时才检查是否需要扩容: 元素个数超过容量后必然会出现冲突
+     *
+     * @param binCount 放入前桶中的节点个数
+     */
+    private void addCount(int binCount) {
+        count.increment();
+        if (binCount == 0) {
+            return;
+        }
+
+        AtomicReferenceArray<Node<K, V>> table, nextTable;
+        int sizeCtl;
+        long size = count.sum();
+        while (size >= (sizeCtl = this.sizeCtl.get()) && (table = this.table).length() < MAX_CAPACITY) {
+            int stamp = resizeStamp(table.length()) << RESIZE_STAMP_SHIFT;
+            if (sizeCtl < 0) {
+                if (sizeCtl == stamp + MAX_RESIZERS || sizeCtl == stamp + 1
+                        || (nextTable = this.nextTable) == null || transferIndex.get() <= 0) {
+                    break;
+                }
+                if (this.sizeCtl.compareAndSet(sizeCtl, sizeCtl + 1)) {
+                    transfer(table, nextTable);
+                }
+            } else if (this.sizeCtl.compareAndSet(sizeCtl, stamp + 2)) {
+                transfer(table, null);
+            }
+            size = count.sum();
+        }
+    }
+
+    /**
+     * 遇到ForwardingNode时加入扩容
+     *
+     * @return 新的table
+     */
+    private AtomicReferenceArray<Node<K, V>> helpTransfer(AtomicReferenceArray<Node<K, V>> table, Node<K, V> head) {
+        AtomicReferenceArray<Node<K, V>> nextTable = ((ForwardingNode<K, V>) head).nextTable;
+        int stamp = resizeStamp(table.length()) << RESIZE_STAMP_SHIFT, sizeCtl;
+        while (nextTable == this.nextTable && table == this.table && (sizeCtl = this.sizeCtl.get()) < 0) {
+            if (sizeCtl == stamp + MAX_RESIZERS || sizeCtl == stamp + 1 || transferIndex.get() <= 0) {
+                break;
+            }
+            if (this.sizeCtl.compareAndSet(sizeCtl, sizeCtl + 1)) {
+                transfer(table, nextTable);
+                break;
+            }
+        }
+        return nextTable;
+    }
+
+    /**
+     * 将table中的桶迁移到nextTable中.每个线程每次领取stride个桶,从后向前迁移 <br/>
+     * 读操作可能正在遍历旧的链表,因此不能直接修改旧节点的next: 链表尾部连续落在同一侧的节点直接复用,其余的节点复制
+     *
+     * @param table     旧的table
+     * @param nextTable 新的table;为null时由当前线程创建
+     */
+    private void transfer(AtomicReferenceArray<Node<K, V>> table, AtomicReferenceArray<Node<K, V>> nextTable) {
+        int length = table.length();
+        int stride = Math.max(NCPU > 1 ? (length >>> 3) / NCPU : length, MIN_TRANSFER_STRIDE);
+        if (nextTable == null) {
+            nextTable = new AtomicReferenceArray<>(length << 1);
+            this.nextTable = nextTable;
+            transferIndex.set(length);
+        }
+
+        ForwardingNode<K, V> forwarding = new ForwardingNode<>(nextTable);
+        boolean advance = true, finishing = false;
+        for (int index = 0, bound = 0; ; ) {
+            // 领取下一段桶
+            while (advance) {
+                int nextIndex;
+                if (--index >= bound || finishing) {
+                    advance = false;
+                } else if ((nextIndex = transferIndex.get()) <= 0) {
+                    index = -1;
+                    advance = false;
+                } else if (transferIndex.compareAndSet(nextIndex, nextIndex > stride ? nextIndex - stride : 0)) {
+                    bound = nextIndex > stride ? nextIndex - stride : 0;
+                    index = nextIndex - 1;
+                    advance = false;
+                }
+            }
+
+            if (index < 0) {
+                if (finishing) {
+                    this.nextTable = null;
+                    this.table = nextTable;
+                    this.sizeCtl.set((length << 1) - (length >>> 1));
+                    return;
+                }
+                int sizeCtl = this.sizeCtl.get();
+                if (this.sizeCtl.compareAndSet(sizeCtl, sizeCtl - 1)) {
+                    if (sizeCtl - 2 != resizeStamp(length) << RESIZE_STAMP_SHIFT) {
+                        return;
+                    }
+                    // 最后一个线程再检查一遍所有的桶,然后替换table
+                    finishing = advance = true;
+                    index = length;
+                }
+                continue;
+            }
+
+            Node<K, V> head = table.get(index);
+            if (head == null) {
+                advance = table.compareAndSet(index, null, forwarding);
+            } else if (head.hash == MOVED) {
+                advance = true;
+            } else {
+                synchronized (head) {
+                    if (table.get(index) == head) {
+                        split(head, length, nextTable, index);
+                        table.set(index, forwarding);
+                        advance = true;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 将一个桶拆分到nextTable的index和index + length处
+     */
+    private void split(Node<K, V> head, int length, AtomicReferenceArray<Node<K, V>> nextTable, int index) {
+        int runBit = head.hash & length;
+        Node<K, V> lastRun = head;
+        for (Node<K, V> node = head.next; node != null; node = node.next) {
+            int bit = node.hash & length;
+            if (bit != runBit) {
+                runBit = bit;
+                lastRun = node;
+            }
+        }
+
+        Node<K, V> lo = runBit == 0 ? lastRun : null, hi = runBit == 0 ? null : lastRun;
+        for (Node<K, V> node = head; node != lastRun; node = node.next) {
+            if ((node.hash & length) == 0) {
+                lo = new Node<>(node.hash, node.key, node.value, lo);
+            } else {
+                hi = new Node<>(node.hash, node.key, node.value, hi);
+            }
+        }
+        nextTable.set(index, lo);
+        nextTable.set(index + length, hi);
+    }
+}
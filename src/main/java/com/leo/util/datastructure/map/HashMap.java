@@ -4,13 +4,21 @@ import com.leo.util.datastructure.Map;
 import com.leo.util.datastructure.Set;
 import com.leo.util.datastructure.set.AbstractSet;
 
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 /**
  * HashMap的实现 <br/>
- * Note: 实现依赖于key的hashCode()、equest()方法，建议重写这两个方法
+ * 通过拉链法解决冲突,节点中保存key的hash:比较时先比较hash再调用equals(),扩容时也不需要再次调用hashCode(); <br/>
+ * 当一个桶中的节点个数超过{@link #TREEIFY_THRESHOLD}时,将该桶转换为红黑树, <br/>
+ * 即使hashCode()分布很差或遭到哈希碰撞攻击,get、put、remove的最坏时间复杂度也只有O(log n). <br/>
+ * 开启渐进式扩容(见{@link #HashMap(int, float, boolean)})时,扩容不再在一次put中重新hash所有元素, <br/>
+ * 而是同时保留新旧两个table,之后每次put、remove迁移固定数量的桶,单次操作的耗时有上限. <br/>
+ * Note: 实现依赖于key的hashCode()、equest()方法，建议重写这两个方法;key实现了Comparable时,冲突严重的桶中查找更快
  *
  * @author leo
  * @version 1.0
@@ -41,6 +49,22 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     private Object[] table;
 
+    /**
+     * 渐进式扩容时尚未迁移完的旧table;不在扩容中时为null. <br/>
+     * 迁移完的桶置为null,因此查找时只需依次在oldTable、table中查找
+     */
+    private Object[] oldTable;
+
+    /**
+     * oldTable中下一个待迁移的桶
+     */
+    private int migrateIndex;
+
+    /**
+     * 是否渐进式扩容
+     */
+    private final boolean incrementalResize;
+
     /**
      * 默认的初始化容量
      */
@@ -56,6 +80,48 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     private static final float DEFAULT_LOAD_FACTOR = 0.75f;
 
+    /**
+     * 桶中的节点个数超过该值时,转换为红黑树
+     */
+    static final int TREEIFY_THRESHOLD = 8;
+
+    /**
+     * 红黑树中的节点个数不超过该值时,转换回链表.小于TREEIFY_THRESHOLD,避免在临界值附近反复转换
+     */
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    /**
+     * 容量小于该值时,桶中节点过多更可能是因为容量太小,此时扩容而不转换为红黑树
+     */
+    static final int MIN_TREEIFY_CAPACITY = 64;
+
+    /**
+     * 渐进式扩容时,每次put、remove最多迁移的桶的个数
+     */
+    static final int MIGRATE_STEP = 16;
+
+    /**
+     * 记录某个类是否实现了Comparable&lt;自身&gt;.避免每次比较都通过反射检查泛型参数
+     */
+    private static final ClassValue<Boolean> SELF_COMPARABLE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            if (type == String.class) {
+                return true;
+            }
+            for (Type superInterface : type.getGenericInterfaces()) {
+                if (superInterface instanceof ParameterizedType) {
+                    ParameterizedType parameterized = (ParameterizedType) superInterface;
+                    Type[] arguments = parameterized.getActualTypeArguments();
+                    if (parameterized.getRawType() == Comparable.class && arguments.length == 1 && arguments[0] == type) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    };
+
     /**
      * 保存2的指数,min = 16, max = (1<<32)
      */
@@ -74,11 +140,509 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      */
     private class Node extends AbstractEntry {
 
+        /**
+         * key的hash,见{@link #hash(Object)}
+         */
+        final int hash;
+
         /**
          * 指向下一个Node
          */
         Node next;
 
+        Node(int hash, Object key, Object value, Node next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * 红黑树的节点.按(hash, compareTo, tieBreakOrder)排序 <br/>
+     * 同时通过next、prev组成双向链表,用于遍历以及转换回链表
+     */
+    private class TreeNode extends Node {
+
+        TreeNode parent;
+
+        TreeNode left;
+
+        TreeNode right;
+
+        /**
+         * 链表中的前一个节点
+         */
+        TreeNode prev;
+
+        boolean red;
+
+        TreeNode(int hash, Object key, Object value) {
+            super(hash, key, value, null);
+        }
+    }
+
+    /**
+     * 转换为红黑树的桶.放在table中代替链表的头节点
+     */
+    private class TreeBin {
+
+        /**
+         * 红黑树的根节点
+         */
+        TreeNode root;
+
+        /**
+         * 链表的头节点
+         */
+        TreeNode first;
+
+        /**
+         * 节点个数
+         */
+        int count;
+
+        /**
+         * 将链表转换为红黑树.已经是TreeNode的节点直接复用
+         *
+         * @param chain 链表的头节点
+         */
+        TreeBin(Node chain) {
+            for (Node node = chain, next; node != null; node = next) {
+                next = node.next;
+                TreeNode treeNode = node instanceof HashMap.TreeNode ? (TreeNode) node : new TreeNode(node.hash, node.key, node.value);
+                treeNode.left = treeNode.right = treeNode.parent = null;
+                insert(treeNode);
+            }
+        }
+
+        /**
+         * 查找key所在的节点
+         *
+         * @param hash key的hash
+         * @param key  键
+         * @return key所在的节点;不存在时返回null
+         */
+        TreeNode find(int hash, Object key) {
+            return find(root, hash, key);
+        }
+
+        /**
+         * 在以node为根的子树中查找key. <br/>
+         * hash相同且无法通过compareTo区分时,key可能在任一子树中(插入时使用了tieBreakOrder),需要两边都查找
+         */
+        private TreeNode find(TreeNode node, int hash, Object key) {
+            Class<?> keyClass = null;
+            boolean checked = false;
+            while (node != null) {
+                int result;
+                if (hash < node.hash) {
+                    node = node.left;
+                } else if (hash > node.hash) {
+                    node = node.right;
+                } else if (equalsKeyOrValue(node.key, key)) {
+                    return node;
+                } else if (node.left == null) {
+                    node = node.right;
+                } else if (node.right == null) {
+                    node = node.left;
+                } else {
+                    if (!checked) {
+                        keyClass = comparableClassFor(key);
+                        checked = true;
+                    }
+                    if (keyClass != null && (result = compareComparables(keyClass, key, node.key)) != 0) {
+                        node = result < 0 ? node.left : node.right;
+                    } else {
+                        TreeNode found = find(node.right, hash, key);
+                        if (found != null) {
+                            return found;
+                        }
+                        node = node.left;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 放入一个新的键值对.调用前需确认key不存在
+         */
+        void put(int hash, Object key, Object value) {
+            insert(new TreeNode(hash, key, value));
+        }
+
+        /**
+         * 将node放入红黑树,并加到链表的头部
+         */
+        private void insert(TreeNode node) {
+            Object key = node.key;
+            Class<?> keyClass = comparableClassFor(key);
+            TreeNode parent = null;
+            int direction = 0;
+            for (TreeNode current = root; current != null; current = direction < 0 ? current.left : current.right) {
+                parent = current;
+                if (node.hash != current.hash) {
+                    direction = node.hash < current.hash ? -1 : 1;
+                } else if (keyClass == null || (direction = compareComparables(keyClass, key, current.key)) == 0) {
+                    direction = tieBreakOrder(key, current.key);
+                }
+            }
+
+            node.parent = parent;
+            if (parent == null) {
+                root = node;
+            } else if (direction < 0) {
+                parent.left = node;
+            } else {
+                parent.right = node;
+            }
+            balanceInsertion(node);
+
+            node.prev = null;
+            node.next = first;
+            if (first != null) {
+                first.prev = node;
+            }
+            first = node;
+            count++;
+        }
+
+        /**
+         * 从红黑树和链表中移除node
+         */
+        void remove(TreeNode node) {
+            TreeNode next = (TreeNode) node.next, prev = node.prev;
+            if (prev == null) {
+                first = next;
+            } else {
+                prev.next = next;
+            }
+            if (next != null) {
+                next.prev = prev;
+            }
+            count--;
+
+            // 有两个子节点时,先与后继节点交换位置,转换为最多只有一个子节点的情况
+            TreeNode left = node.left, right = node.right, replacement;
+            if (left != null && right != null) {
+                TreeNode successor = right;
+                while (successor.left != null) {
+                    successor = successor.left;
+                }
+                boolean color = successor.red;
+                successor.red = node.red;
+                node.red = color;
+
+                TreeNode successorRight = successor.right, parent = node.parent;
+                if (successor == right) {
+                    node.parent = successor;
+                    successor.right = node;
+                } else {
+                    TreeNode successorParent = successor.parent;
+                    if ((node.parent = successorParent) != null) {
+                        if (successor == successorParent.left) {
+                            successorParent.left = node;
+                        } else {
+                            successorParent.right = node;
+                        }
+                    }
+                    if ((successor.right = right) != null) {
+                        right.parent = successor;
+                    }
+                }
+                node.left = null;
+                if ((node.right = successorRight) != null) {
+                    successorRight.parent = node;
+                }
+                if ((successor.left = left) != null) {
+                    left.parent = successor;
+                }
+                if ((successor.parent = parent) == null) {
+                    root = successor;
+                } else if (node == parent.left) {
+                    parent.left = successor;
+                } else {
+                    parent.right = successor;
+                }
+                replacement = successorRight != null ? successorRight : node;
+            } else if (left != null) {
+                replacement = left;
+            } else if (right != null) {
+                replacement = right;
+            } else {
+                replacement = node;
+            }
+
+            if (replacement != node) {
+                TreeNode parent = replacement.parent = node.parent;
+                if (parent == null) {
+                    root = replacement;
+                } else if (node == parent.left) {
+                    parent.left = replacement;
+                } else {
+                    parent.right = replacement;
+                }
+                node.left = node.right = node.parent = null;
+            }
+
+            if (!node.red) {
+                balanceDeletion(replacement);
+            }
+
+            // node没有子节点时,平衡之后再将其断开
+            if (replacement == node) {
+                TreeNode parent = node.parent;
+                node.parent = null;
+                if (parent != null) {
+                    if (node == parent.left) {
+                        parent.left = null;
+                    } else if (node == parent.right) {
+                        parent.right = null;
+                    }
+                }
+            }
+        }
+
+        /**
+         * 转换回链表,复用原有的节点
+         *
+         * @return 链表的头节点
+         */
+        Node untreeify() {
+            for (TreeNode node = first; node != null; node = (TreeNode) node.next) {
+                node.left = node.right = node.parent = node.prev = null;
+            }
+            return first;
+        }
+
+        private void rotateLeft(TreeNode node) {
+            TreeNode right = node.right, parent;
+            if ((node.right = right.left) != null) {
+                right.left.parent = node;
+            }
+            if ((parent = right.parent = node.parent) == null) {
+                (root = right).red = false;
+            } else if (parent.left == node) {
+                parent.left = right;
+            } else {
+                parent.right = right;
+            }
+            right.left = node;
+            node.parent = right;
+        }
+
+        private void rotateRight(TreeNode node) {
+            TreeNode left = node.left, parent;
+            if ((node.left = left.right) != null) {
+                left.right.parent = node;
+            }
+            if ((parent = left.parent = node.parent) == null) {
+                (root = left).red = false;
+            } else if (parent.right == node) {
+                parent.right = left;
+            } else {
+                parent.left = left;
+            }
+            left.right = node;
+            node.parent = left;
+        }
+
+        private void balanceInsertion(TreeNode node) {
+            node.red = true;
+            for (TreeNode parent, grand, uncle; ; ) {
+                if ((parent = node.parent) == null) {
+                    node.red = false;
+                    root = node;
+                    return;
+                }
+                if (!parent.red || (grand = parent.parent) == null) {
+                    return;
+                }
+                if (parent == grand.left) {
+                    if ((uncle = grand.right) != null && uncle.red) {
+                        uncle.red = parent.red = false;
+                        grand.red = true;
+                        node = grand;
+                    } else {
+                        if (node == parent.right) {
+                            rotateLeft(node = parent);
+                            grand = (parent = node.parent) == null ? null : parent.parent;
+                        }
+                        if (parent != null) {
+                            parent.red = false;
+                            if (grand != null) {
+                                grand.red = true;
+                                rotateRight(grand);
+                            }
+                        }
+                    }
+                } else {
+                    if ((uncle = grand.left) != null && uncle.red) {
+                        uncle.red = parent.red = false;
+                        grand.red = true;
+                        node = grand;
+                    } else {
+                        if (node == parent.left) {
+                            rotateRight(node = parent);
+                            grand = (parent = node.parent) == null ? null : parent.parent;
+                        }
+                        if (parent != null) {
+                            parent.red = false;
+                            if (grand != null) {
+                                grand.red = true;
+                                rotateLeft(grand);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private void balanceDeletion(TreeNode node) {
+            for (TreeNode parent, sibling; ; ) {
+                if (node == null || node == root) {
+                    return;
+                }
+                if ((parent = node.parent) == null) {
+                    node.red = false;
+                    root = node;
+                    return;
+                }
+                if (node.red) {
+                    node.red = false;
+                    return;
+                }
+                if (node == parent.left) {
+                    if ((sibling = parent.right) != null && sibling.red) {
+                        sibling.red = false;
+                        parent.red = true;
+                        rotateLeft(parent);
+                        sibling = (parent = node.parent) == null ? null : parent.right;
+                    }
+                    if (sibling == null) {
+                        node = parent;
+                        continue;
+                    }
+                    TreeNode nearChild = sibling.left, farChild = sibling.right;
+                    if (!isRed(nearChild) && !isRed(farChild)) {
+                        sibling.red = true;
+                        node = parent;
+                        continue;
+                    }
+                    if (!isRed(farChild)) {
+                        nearChild.red = false;
+                        sibling.red = true;
+                        rotateRight(sibling);
+                        sibling = (parent = node.parent) == null ? null : parent.right;
+                    }
+                    if (sibling != null) {
+                        sibling.red = parent != null && parent.red;
+                        if (sibling.right != null) {
+                            sibling.right.red = false;
+                        }
+                    }
+                    if (parent != null) {
+                        parent.red = false;
+                        rotateLeft(parent);
+                    }
+                } else {
+                    if ((sibling = parent.left) != null && sibling.red) {
+                        sibling.red = false;
+                        parent.red = true;
+                        rotateRight(parent);
+                        sibling = (parent = node.parent) == null ? null : parent.left;
+                    }
+                    if (sibling == null) {
+                        node = parent;
+                        continue;
+                    }
+                    TreeNode nearChild = sibling.right, farChild = sibling.left;
+                    if (!isRed(nearChild) && !isRed(farChild)) {
+                        sibling.red = true;
+                        node = parent;
+                        continue;
+                    }
+                    if (!isRed(farChild)) {
+                        nearChild.red = false;
+                        sibling.red = true;
+                        rotateLeft(sibling);
+                        sibling = (parent = node.parent) == null ? null : parent.left;
+                    }
+                    if (sibling != null) {
+                        sibling.red = parent != null && parent.red;
+                        if (sibling.left != null) {
+                            sibling.left.red = false;
+                        }
+                    }
+                    if (parent != null) {
+                        parent.red = false;
+                        rotateRight(parent);
+                    }
+                }
+                node = root;
+            }
+        }
+
+        private boolean isRed(TreeNode node) {
+            return node != null && node.red;
+        }
+    }
+
+    /**
+     * 依次遍历table中的每个桶;渐进式扩容中时,先遍历oldTable
+     */
+    private abstract class HashIterator<E> implements Iterator<E> {
+
+        /**
+         * 正在遍历的table
+         */
+        private Object[] current = oldTable != null ? oldTable : table;
+
+        /**
+         * 下一个要访问的桶
+         */
+        private int position;
+
+        /**
+         * 下一个节点
+         */
+        private Node node;
+
+        HashIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return node != null;
+        }
+
+        Node nextNode() {
+            Node current = node;
+            if (current == null) {
+                throw new NoSuchElementException();
+            }
+            node = current.next;
+            advance();
+            return current;
+        }
+
+        /**
+         * 当前桶遍历完后,找到下一个非空的桶
+         */
+        private void advance() {
+            while (node == null) {
+                if (position == current.length) {
+                    if (current == table) {
+                        return;
+                    }
+                    current = table;
+                    position = 0;
+                }
+                node = firstNode(current[position++]);
+            }
+        }
     }
 
     /**
@@ -115,38 +679,10 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
 
         @Override
         public Iterator<E> iterator() {
-            return new Iterator<E>() {
-
-                /**
-                 * 记录当前到table的何处
-                 */
-                private int position;
-
-                /**
-                 * 记录现在已经了的迭代元素个数
-                 */
-                private int size;
-
-                /**
-                 * 表示下一个节点
-                 */
-                private Node node = (Node) table[0];
-
-                @Override
-                public boolean hasNext() {
-                    return this.size < HashMap.this.size;
-                }
-
+            return new HashIterator<E>() {
                 @Override
                 public E next() {
-                    Node node = this.node;
-                    while (node == null) {
-                        node = (Node) table[position++];
-                    }
-                    Node oldNode = node;
-                    this.node = node.next;
-                    this.size++;
-                    return (E) oldNode.key;
+                    return (E) nextNode().key;
                 }
             };
         }
@@ -185,38 +721,10 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
 
         @Override
         public Iterator<Map.Entry<K, V>> iterator() {
-            return new Iterator<Map.Entry<K, V>>() {
-
-                /**
-                 * 记录当前到table的何处
-                 */
-                private int position;
-
-                /**
-                 * 记录现在已经了的迭代元素个数
-                 */
-                private int size;
-
-                /**
-                 * 表示下一个节点
-                 */
-                private Node node = (Node) table[0];
-
-                @Override
-                public boolean hasNext() {
-                    return this.size < HashMap.this.size;
-                }
-
+            return new HashIterator<Map.Entry<K, V>>() {
                 @Override
                 public Entry<K, V> next() {
-                    Node node = this.node;
-                    while (node == null) {
-                        node = (Node) table[position++];
-                    }
-                    Node oldNode = node;
-                    this.node = node.next;
-                    this.size++;
-                    return oldNode;
+                    return nextNode();
                 }
             };
         }
@@ -240,12 +748,24 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      * @throws IllegalArgumentException 当初始化容量超过最大容量时，抛出异常
      */
     public HashMap(int initCapacity, float initLoadFactor) throws IllegalArgumentException {
+        this(initCapacity, initLoadFactor, false);
+    }
+
+    /**
+     * @param initCapacity      初始化容量
+     * @param initLoadFactor    初始化负载因子 [0, 1)
+     * @param incrementalResize 是否渐进式扩容.为true时,扩容的耗时分摊到之后的put、remove中, <br/>
+     *                          适合元素很多、对单次操作延迟敏感的场景;代价是扩容期间查找可能需要访问两个table
+     * @throws IllegalArgumentException 当初始化容量超过最大容量时，抛出异常
+     */
+    public HashMap(int initCapacity, float initLoadFactor, boolean incrementalResize) throws IllegalArgumentException {
         //计算负载因子
         if (initLoadFactor <= 0 || initLoadFactor > 1) {
-            initLoadFactor = DEFAULT_LOAD_FACTOR;
+            loadFactor = DEFAULT_LOAD_FACTOR;
         } else {
             loadFactor = initLoadFactor;
         }
+        this.incrementalResize = incrementalResize;
 
         // 得出最靠近initCapacity的capacity = 2^n(n >= 4)的最小值,
         if (initCapacity <= DEFAULT_INIT_CAPACITY) {
@@ -266,18 +786,12 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
 
     @Override
     public Optional<V> put(K key, V value) {
-        return Optional.ofNullable(put(indexOfKey(key), key, value));
+        return Optional.ofNullable(putValue(key, value));
     }
 
     @Override
     public Optional<V> get(K key) {
-        // 先获取索引的位置，然后一个一个实际比较
-        // Note: JDK8为了性能当链表长度大于8时换成了红黑树
-        Node node = (Node) table[indexOfKey(key)];
-        while (node != null && !key.equals(node.key)) {
-            node = node.next;
-        }
-
+        Node node = findNode(key);
         return Optional.ofNullable(node == null ? null : (V) node.value);
     }
 
@@ -293,26 +807,13 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
 
     @Override
     public boolean containsKey(K key) {
-        Node node = (Node) table[indexOfKey(key)];
-        while (node != null) {
-            if (equalsKeyOrValue(node.key, key)) {
-                return true;
-            }
-            node = node.next;
-        }
-        return false;
+        return findNode(key) != null;
     }
 
     @Override
     public boolean containsEntry(K key, V value) {
-        Node node = (Node) table[indexOfKey(key)];
-        while (node != null) {
-            if (equalsKeyOrValue(node.key, key) && equalsKeyOrValue(node.value, value)) {
-                return true;
-            }
-            node = node.next;
-        }
-        return false;
+        Node node = findNode(key);
+        return node != null && equalsKeyOrValue(node.value, value);
     }
 
     @Override
@@ -332,6 +833,7 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
         size = 0;
         resetThreshold();
         table = new Object[capacity];
+        oldTable = null;
     }
 
     /**
@@ -353,78 +855,132 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
     }
 
     /**
-     * 通过求模(%)获得实际的索引值<br/>
-     * 当capacity为2的倍数时, hashcode % capacity 等价于 hashCode & (capacity - 1);<br/>
-     * 当key == null时,直接返回0
+     * key的hash.将hashCode()的高16位异或到低16位,使容量较小时高位也能参与计算索引;key == null时为0 <br/>
+     * 当capacity为2的倍数时, hash % capacity 等价于 hash & (capacity - 1),即在table中的索引
+     */
+    private static int hash(Object key) {
+        int hashCode;
+        return key == null ? 0 : (hashCode = key.hashCode()) ^ (hashCode >>> 16);
+    }
+
+    /**
+     * @param bin table中的一个桶
+     * @return 桶中链表的头节点
+     */
+    private Node firstNode(Object bin) {
+        return bin instanceof HashMap.TreeBin ? ((TreeBin) bin).first : (Node) bin;
+    }
+
+    /**
+     * 查找key所在的节点.先获取索引的位置，然后一个一个实际比较;桶已转换为红黑树时,在树中查找
      *
-     * @param key
-     * @return 返回在table的索引
+     * @param key 键
+     * @return key所在的节点;不存在时返回null
+     */
+    private Node findNode(Object key) {
+        int hash = hash(key);
+        if (oldTable != null) {
+            Node node = findNode(oldTable[hash & (oldTable.length - 1)], hash, key);
+            if (node != null) {
+                return node;
+            }
+        }
+        return findNode(table[hash & (capacity - 1)], hash, key);
+    }
+
+    /**
+     * 在一个桶中查找key所在的节点
      */
-    private int indexOfKey(K key) {
-        return key == null ? 0 : (key.hashCode() & 0x7FFF_FFFF) & (capacity - 1);
+    private Node findNode(Object bin, int hash, Object key) {
+        if (bin instanceof HashMap.TreeBin) {
+            return ((TreeBin) bin).find(hash, key);
+        }
+
+        Node node = (Node) bin;
+        while (node != null && (node.hash != hash || !equalsKeyOrValue(node.key, key))) {
+            node = node.next;
+        }
+        return node;
     }
 
     /**
      * 真正执行put操作
      *
-     * @param index 要放入数组中的位置
      * @param key
      * @param value
      * @return 返回旧值;如果不存在旧值,则为null
      */
-    private V put(int index, K key, V value) {
-        Node node = (Node) table[index];
-        while (node != null) {
-            if (equalsKeyOrValue(node.key, key)) {
-                break;
-            }
-            node = node.next;
+    private V putValue(K key, V value) {
+        int hash = hash(key);
+        if (oldTable != null) {
+            migrate(hash);
         }
-
-        V oldValue = null;
-
-        if (node != null) {
-            oldValue = (V) node.value;
-            node.value = value;
+        int index = hash & (capacity - 1);
+        Object bin = table[index];
+        if (bin instanceof HashMap.TreeBin) {
+            TreeBin tree = (TreeBin) bin;
+            TreeNode node = tree.find(hash, key);
+            if (node != null) {
+                V oldValue = (V) node.value;
+                node.value = value;
+                return oldValue;
+            }
+            tree.put(hash, key, value);
         } else {
-            if (++size > threshold) {
-                ensureCapacity();
+            int count = 0;
+            for (Node node = (Node) bin; node != null; node = node.next, count++) {
+                if (node.hash == hash && equalsKeyOrValue(node.key, key)) {
+                    V oldValue = (V) node.value;
+                    node.value = value;
+                    return oldValue;
+                }
+            }
+            table[index] = new Node(hash, key, value, (Node) bin);
+            if (count >= TREEIFY_THRESHOLD && size + 1 <= threshold) {
+                treeifyBin(index);
             }
-            addNode(table, index, key, value);
         }
 
-        return oldValue;
+        if (++size > threshold) {
+            ensureCapacity();
+        }
+        return null;
     }
 
-
     /**
-     * 向table中增加一个节点
+     * 桶中的节点过多时,容量较小则扩容,否则将该桶转换为红黑树
      *
-     * @param table
-     * @param index 处于table的哪个位置
-     * @param key
-     * @param value
+     * @param index 桶的位置
      */
-
-    private void addNode(Object[] table, int index, K key, V value) {
-        Node node = new Node();
-        node.key = key;
-        node.value = value;
-        node.next = (Node) table[index];
-        table[index] = node;
+    private void treeifyBin(int index) {
+        if (capacity < MIN_TREEIFY_CAPACITY) {
+            ensureCapacity();
+        } else {
+            table[index] = new TreeBin((Node) table[index]);
+        }
     }
 
     /**
      * 确保容量<br/>
-     * 当发生扩容时,会重新hash
+     * 当发生扩容时,会重新hash;渐进式扩容时,只分配新的table,元素在之后的操作中逐步迁移
      *
      * @throws RuntimeException 当容量超过最大容量时，抛出异常
      */
     private void ensureCapacity() throws RuntimeException {
         if (capacity < MAX_CAPACITY) {
+            // 负载因子很小时,上一次扩容可能还未迁移完
+            if (oldTable != null) {
+                migrateAll();
+            }
             capacity <<= 1;
             resetThreshold();
-            reHash();
+            if (incrementalResize) {
+                oldTable = table;
+                migrateIndex = 0;
+                table = new Object[capacity];
+            } else {
+                reHash();
+            }
         } else {
             throw new RuntimeException("up the max capacity");
         }
@@ -434,15 +990,105 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      * 对Map中的元素重新进行Hash
      */
     private void reHash() {
-        Object[] newTable = new Object[capacity];
-        for (Object node : table) {
-            Node temp = (Node) node;
-            while (temp != null) {
-                addNode(newTable, indexOfKey((K) temp.key), (K) temp.key, (V) temp.value);
-                temp = temp.next;
+        Object[] oldTable = table;
+        table = new Object[capacity];
+        for (int i = 0, length = oldTable.length; i < length; i++) {
+            transfer(oldTable, i);
+        }
+    }
+
+    /**
+     * 渐进式扩容的一步: 先迁移hash所在的旧桶,保证之后只需修改新table;再按顺序迁移最多MIGRATE_STEP个桶
+     *
+     * @param hash 本次操作的key的hash
+     */
+    private void migrate(int hash) {
+        Object[] oldTable = this.oldTable;
+        transfer(oldTable, hash & (oldTable.length - 1));
+        for (int end = Math.min(migrateIndex + MIGRATE_STEP, oldTable.length); migrateIndex < end; migrateIndex++) {
+            transfer(oldTable, migrateIndex);
+        }
+        if (migrateIndex == oldTable.length) {
+            this.oldTable = null;
+        }
+    }
+
+    /**
+     * 迁移oldTable中剩余的所有桶
+     */
+    private void migrateAll() {
+        for (int length = oldTable.length; migrateIndex < length; migrateIndex++) {
+            transfer(oldTable, migrateIndex);
+        }
+        oldTable = null;
+    }
+
+    /**
+     * 将oldTable中index处的桶移到table中,并将其置为null. <br/>
+     * 容量翻倍,因此桶中的节点按(hash & oldTable.length)拆分为两个链表,分别移到index和index + oldTable.length处. <br/>
+     * 拆分时直接修改next,保持节点原有的顺序,不创建新的节点,也不再调用hashCode(). <br/>
+     * Note: key所在的旧桶总是先于新桶中的put被迁移(见{@link #migrate(int)}),因此目标的两个新桶一定为空
+     *
+     * @param oldTable 旧的table
+     * @param index    桶的位置
+     */
+    private void transfer(Object[] oldTable, int index) {
+        Object bin = oldTable[index];
+        if (bin == null) {
+            return;
+        }
+        oldTable[index] = null;
+
+        int oldCapacity = oldTable.length, loCount = 0, hiCount = 0;
+        Node loHead = null, loTail = null, hiHead = null, hiTail = null;
+        for (Node node = firstNode(bin), next; node != null; node = next) {
+            next = node.next;
+            node.next = null;
+            if ((node.hash & oldCapacity) == 0) {
+                if (loTail == null) {
+                    loHead = node;
+                } else {
+                    loTail.next = node;
+                }
+                loTail = node;
+                loCount++;
+            } else {
+                if (hiTail == null) {
+                    hiHead = node;
+                } else {
+                    hiTail.next = node;
+                }
+                hiTail = node;
+                hiCount++;
+            }
+        }
+
+        table[index] = toBin(loHead, loCount, bin instanceof HashMap.TreeBin);
+        table[index + oldCapacity] = toBin(hiHead, hiCount, bin instanceof HashMap.TreeBin);
+    }
+
+    /**
+     * 将拆分出的链表转换为桶: 节点过多时转换为红黑树(复用已有的TreeNode),否则保留为链表
+     *
+     * @param head     链表的头节点
+     * @param count    节点个数
+     * @param fromTree 原来的桶是否为红黑树
+     * @return 放入table中的桶
+     */
+    private Object toBin(Node head, int count, boolean fromTree) {
+        if (head == null) {
+            return null;
+        }
+        if (fromTree ? count > UNTREEIFY_THRESHOLD : count > TREEIFY_THRESHOLD && capacity >= MIN_TREEIFY_CAPACITY) {
+            return new TreeBin(head);
+        }
+        if (fromTree) {
+            for (Node node = head; node != null; node = node.next) {
+                TreeNode treeNode = (TreeNode) node;
+                treeNode.left = treeNode.right = treeNode.parent = treeNode.prev = null;
             }
         }
-        table = newTable;
+        return head;
     }
 
     /**
@@ -454,27 +1100,66 @@ public class HashMap<K, V> extends AbstractMap<K, V> implements Map<K, V> {
      * @return 返回被移除的value或null
      */
     private V remove(K key, V value, boolean ignoreValue) {
-        int index = indexOfKey(key);
-        Node node = (Node) table[index];
-        Node prevNode = node;
-        boolean isRoot = true;
-        while (node != null) {
-            if (equalsKeyOrValue(node.key, key)) {
+        int hash = hash(key);
+        if (oldTable != null) {
+            migrate(hash);
+        }
+        int index = hash & (capacity - 1);
+        Object bin = table[index];
+        if (bin instanceof HashMap.TreeBin) {
+            TreeBin tree = (TreeBin) bin;
+            TreeNode node = tree.find(hash, key);
+            if (node == null || (!ignoreValue && !equalsKeyOrValue(node.value, value))) {
+                return null;
+            }
+            tree.remove(node);
+            if (tree.count <= UNTREEIFY_THRESHOLD) {
+                table[index] = tree.untreeify();
+            }
+            size--;
+            return (V) node.value;
+        }
+
+        Node prevNode = null;
+        for (Node node = (Node) bin; node != null; prevNode = node, node = node.next) {
+            if (node.hash == hash && equalsKeyOrValue(node.key, key)) {
                 if (!ignoreValue && !equalsKeyOrValue(node.value, value)) {
-                    continue;
+                    return null;
                 }
-                if (isRoot) {
-                    prevNode.next = node.next;
-                } else {
+                if (prevNode == null) {
                     table[index] = node.next;
+                } else {
+                    prevNode.next = node.next;
                 }
                 size--;
                 return (V) node.value;
             }
-            prevNode = node;
-            node = node.next;
-            isRoot = false;
         }
         return null;
     }
+
+    /**
+     * key实现了Comparable&lt;自身&gt;时返回key的类型,否则返回null
+     */
+    private static Class<?> comparableClassFor(Object key) {
+        return key instanceof Comparable && SELF_COMPARABLE.get(key.getClass()) ? key.getClass() : null;
+    }
+
+    /**
+     * other与key类型相同时返回key.compareTo(other),否则返回0
+     */
+    private static int compareComparables(Class<?> keyClass, Object key, Object other) {
+        return other == null || other.getClass() != keyClass ? 0 : ((Comparable) key).compareTo(other);
+    }
+
+    /**
+     * hash相同且无法通过compareTo区分时,为插入确定一个顺序.先比较类名,再比较identityHashCode
+     */
+    private static int tieBreakOrder(Object a, Object b) {
+        int result;
+        if (a == null || b == null || (result = a.getClass().getName().compareTo(b.getClass().getName())) == 0) {
+            result = System.identityHashCode(a) <= System.identityHashCode(b) ? -1 : 1;
+        }
+        return result;
+    }
 }
@@ -0,0 +1,321 @@
+package com.leo.util.datastructure.map.primitive;
+
+import java.util.Arrays;
+
+/**
+ * key为int的HashMap.开放寻址,线性探测: <br/>
+ * 1. key保存在int[]中,value保存在平行的Object[]中,key不装箱,也不为每个元素创建节点 <br/>
+ * 2. 数组中用0表示空槽;key为0的元素单独保存在zeroValue中,因此任何int都可以作为key <br/>
+ * 3. 删除时将后续同一探测序列中的元素前移(backward shift),不使用墓碑 <br/>
+ * value可以为null,此时需要用{@link #containsKey(int)}区分不存在的key. <br/>
+ * Note: 不是线程安全的
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/6/5
+ * @since 1.0
+ */
+public class IntObjectHashMap<V> {
+
+    /**
+     * 遍历所有键值对
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+
+        void accept(int key, V value);
+    }
+
+    /**
+     * 保存key.0表示空槽
+     */
+    private int[] keys;
+
+    /**
+     * 保存value,与keys一一对应
+     */
+    private Object[] values;
+
+    /**
+     * keys.length - 1
+     */
+    private int mask;
+
+    /**
+     * 是否包含key为0的元素
+     */
+    private boolean containsZeroKey;
+
+    /**
+     * key为0的元素的value
+     */
+    private V zeroValue;
+
+    /**
+     * 键值对个数,包含key为0的元素
+     */
+    private int size;
+
+    /**
+     * 数组中最多可放入的元素个数,超过时扩容
+     */
+    private int maxFill;
+
+    private final float loadFactor;
+
+    public IntObjectHashMap() {
+        this(PrimitiveHashing.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * @param expectedSize 预期的元素个数.放入不超过该数量的元素时不会扩容
+     * @throws IllegalArgumentException 当expectedSize < 0 或所需容量超过最大容量时抛出异常
+     */
+    public IntObjectHashMap(int expectedSize) throws IllegalArgumentException {
+        this(expectedSize, PrimitiveHashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize 预期的元素个数.放入不超过该数量的元素时不会扩容
+     * @param loadFactor   负载因子 (0, 1)
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. expectedSize < 0 <br/>
+     *                                  2. loadFactor不在(0,1)之间 <br/>
+     *                                  3. 所需容量超过最大容量 <br/>
+     */
+    public IntObjectHashMap(int expectedSize, float loadFactor) throws IllegalArgumentException {
+        int capacity = PrimitiveHashing.capacityFor(expectedSize, loadFactor);
+        this.loadFactor = loadFactor;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.maxFill = PrimitiveHashing.maxFill(capacity, loadFactor);
+    }
+
+    /**
+     * 获取key所对应的value
+     *
+     * @param key 键
+     * @return key所对应的value;不包含key时返回null
+     */
+    public V get(int key) {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * 获取key所对应的value
+     *
+     * @param key          键
+     * @param defaultValue 不包含key时返回的值
+     * @return key所对应的value;不包含key时返回defaultValue
+     */
+    public V getOrDefault(int key, V defaultValue) {
+        if (key == 0) {
+            return containsZeroKey ? zeroValue : defaultValue;
+        }
+
+        int[] keys = this.keys;
+        int mask = this.mask;
+        for (int index = PrimitiveHashing.mix(key) & mask; ; index = (index + 1) & mask) {
+            int current = keys[index];
+            if (current == key) {
+                return (V) values[index];
+            }
+            if (current == 0) {
+                return defaultValue;
+            }
+        }
+    }
+
+    /**
+     * 检测是否包含key
+     *
+     * @param key 待检测的键
+     * @return 返回true, 包含key;反之,不包含
+     */
+    public boolean containsKey(int key) {
+        return key == 0 ? containsZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * 放入键值对
+     *
+     * @param key   键
+     * @param value 值
+     * @return key所对应的旧value;之前不包含key时返回null
+     * @throws IllegalStateException 当元素个数超过最大容量时抛出异常
+     */
+    public V put(int key, V value) throws IllegalStateException {
+        if (key == 0) {
+            V oldValue = zeroValue;
+            if (!containsZeroKey) {
+                containsZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return oldValue;
+        }
+
+        int index = PrimitiveHashing.mix(key) & mask;
+        for (int current; (current = keys[index]) != 0; index = (index + 1) & mask) {
+            if (current == key) {
+                V oldValue = (V) values[index];
+                values[index] = value;
+                return oldValue;
+            }
+        }
+
+        // 已达到最大容量时不放入,直接抛出异常
+        if (size >= maxFill && keys.length == PrimitiveHashing.MAX_CAPACITY) {
+            throw new IllegalStateException("up the max capacity");
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (size++ >= maxFill) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * 根据key移除键值对
+     *
+     * @param key 键
+     * @return 被移除的value;不包含key时返回null
+     */
+    public V remove(int key) {
+        if (key == 0) {
+            if (!containsZeroKey) {
+                return null;
+            }
+            V oldValue = zeroValue;
+            containsZeroKey = false;
+            zeroValue = null;
+            size--;
+            return oldValue;
+        }
+
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V oldValue = (V) values[index];
+        size--;
+        shiftKeys(index);
+        return oldValue;
+    }
+
+    /**
+     * 遍历所有键值对,不保证顺序.遍历过程中不能修改map
+     *
+     * @param consumer 处理每个键值对
+     */
+    public void forEach(EntryConsumer<? super V> consumer) {
+        if (containsZeroKey) {
+            consumer.accept(0, zeroValue);
+        }
+        int[] keys = this.keys;
+        for (int i = 0, length = keys.length; i < length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 清空map,保留已分配的数组
+     */
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        containsZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * @return key在数组中的位置;不存在时返回-1
+     */
+    private int indexOf(int key) {
+        int[] keys = this.keys;
+        int mask = this.mask;
+        for (int index = PrimitiveHashing.mix(key) & mask; ; index = (index + 1) & mask) {
+            int current = keys[index];
+            if (current == key) {
+                return index;
+            }
+            if (current == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 移除index处的元素后,将同一探测序列中后续的元素前移,填补空槽
+     */
+    private void shiftKeys(int index) {
+        int[] keys = this.keys;
+        int mask = this.mask;
+        while (true) {
+            int last = index, current;
+            index = (index + 1) & mask;
+            while (true) {
+                if ((current = keys[index]) == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                // current的理想位置不在(last, index]之间时,可以前移到last
+                int slot = PrimitiveHashing.mix(current) & mask;
+                if (last <= index ? (last >= slot || slot > index) : (last >= slot && slot > index)) {
+                    break;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[last] = current;
+            values[last] = values[index];
+        }
+    }
+
+    /**
+     * 扩容并重新放入所有元素
+     *
+     * @param capacity 新的容量
+     * @throws IllegalStateException 当超过最大容量时抛出异常
+     */
+    private void rehash(int capacity) throws IllegalStateException {
+        if (capacity <= 0 || capacity > PrimitiveHashing.MAX_CAPACITY) {
+            throw new IllegalStateException("up the max capacity");
+        }
+
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] newKeys = new int[capacity];
+        Object[] newValues = new Object[capacity];
+        int newMask = capacity - 1;
+        for (int i = 0, length = oldKeys.length; i < length; i++) {
+            int key = oldKeys[i];
+            if (key != 0) {
+                int index = PrimitiveHashing.mix(key) & newMask;
+                while (newKeys[index] != 0) {
+                    index = (index + 1) & newMask;
+                }
+                newKeys[index] = key;
+                newValues[index] = oldValues[i];
+            }
+        }
+
+        keys = newKeys;
+        values = newValues;
+        mask = newMask;
+        maxFill = PrimitiveHashing.maxFill(capacity, loadFactor);
+    }
+}
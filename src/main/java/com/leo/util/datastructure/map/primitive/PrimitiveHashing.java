@@ -0,0 +1,77 @@
+package com.leo.util.datastructure.map.primitive;
+
+/**
+ * 基本类型开放寻址Map的公共计算: 扰动函数与容量
+ *
+ * @author leo
+ * @version 1.0
+ * @date: 2019/6/5
+ * @since 1.0
+ */
+final class PrimitiveHashing {
+
+    /**
+     * 默认的负载因子.线性探测在负载较高时探测长度增长很快,因此比拉链法低
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    /**
+     * 默认的预期元素个数
+     */
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    /**
+     * 最大容量
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    /**
+     * 2<sup>32</sup> / 黄金分割比
+     */
+    private static final int INT_PHI = 0x9E3779B9;
+
+    private static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    private PrimitiveHashing() {
+    }
+
+    /**
+     * 扰动函数.乘以黄金分割数后将高位异或到低位,使连续的key也能均匀地分散到各个槽
+     */
+    static int mix(int key) {
+        int hash = key * INT_PHI;
+        return hash ^ (hash >>> 16);
+    }
+
+    static int mix(long key) {
+        long hash = key * LONG_PHI;
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16));
+    }
+
+    /**
+     * 能容纳expectedSize个元素而不扩容的容量,为2的幂
+     *
+     * @throws IllegalArgumentException 当出现下列情况时,抛出异常: <br/>
+     *                                  1. expectedSize < 0 <br/>
+     *                                  2. loadFactor不在(0,1)之间 <br/>
+     *                                  3. 所需容量超过最大容量 <br/>
+     */
+    static int capacityFor(int expectedSize, float loadFactor) throws IllegalArgumentException {
+        if (expectedSize < 0 || !(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException();
+        }
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Illegal capacity: " + expectedSize);
+        }
+        return Math.max(4, Integer.highestOneBit((int) Math.max(needed - 1, 1)) << 1);
+    }
+
+    /**
+     * 容量为capacity时最多可放入的元素个数.至少保留一个空槽,保证探测能够结束
+     */
+    static int maxFill(int capacity, float loadFactor) {
+        return Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+    }
+}
@@ -3,9 +3,12 @@ package com.leo.util.algorithm;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -37,4 +40,719 @@ public class ArraysTest {
             Assert.assertArrayEquals(sortByJava, sortByMine);
         }
     }
+
+    @Test
+    public void testParallelMergeSortIsTrue() {
+        Random random = new Random();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int arrayLength : new int[]{0, 1, 7, 1_000, 100_003}) {
+                int[] sortByJava = random.ints(arrayLength, -1_000, 1_000).toArray();
+                int[] sortByMine = sortByJava.clone();
+
+                Arrays.parallelMergeSort(sortByMine, 0, arrayLength, 64, pool);
+                java.util.Arrays.sort(sortByJava);
+
+                Assert.assertArrayEquals(sortByJava, sortByMine);
+            }
+
+            // 阈值很小时,合并切分到1+1个元素也要能结束
+            Assert.assertArrayEquals(new int[]{1, 2, 3, 4}, sortWithThreshold(new int[]{1, 2, 3, 4}, 1, pool));
+            for (int threshold = 1; threshold <= 4; threshold++) {
+                int[] sortByJava = random.ints(1_000, -10, 10).toArray();
+                int[] sortByMine = sortWithThreshold(sortByJava.clone(), threshold, pool);
+                java.util.Arrays.sort(sortByJava);
+                Assert.assertArrayEquals(sortByJava, sortByMine);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        int[] sortByJava = random.ints(50_000).toArray();
+        int[] sortByMine = sortByJava.clone();
+        Arrays.parallelMergeSort(sortByMine, 1_000, 40_000);
+        java.util.Arrays.sort(sortByJava, 1_000, 40_000);
+        Assert.assertArrayEquals(sortByJava, sortByMine);
+    }
+
+    private static int[] sortWithThreshold(int[] array, int threshold, ForkJoinPool pool) {
+        Arrays.parallelMergeSort(array, 0, array.length, threshold, pool);
+        return array;
+    }
+
+    @Test
+    public void testQuickSortWithDuplicatesAndOrderedInput() {
+        int arrayLength = 1_000_000;
+        Random random = new Random();
+
+        int[][] inputs = {
+                random.ints(arrayLength, 0, 5).toArray(),
+                new int[arrayLength],
+                java.util.stream.IntStream.range(0, arrayLength).toArray(),
+                java.util.stream.IntStream.range(0, arrayLength).map(i -> arrayLength - i).toArray(),
+                java.util.stream.IntStream.range(0, arrayLength).map(i -> (i & 1) == 0 ? i : arrayLength - i).toArray(),
+                new int[0],
+        };
+        for (int[] sortByMine : inputs) {
+            int[] sortByJava = sortByMine.clone();
+
+            Arrays.quickSort(sortByMine);
+            java.util.Arrays.sort(sortByJava);
+
+            Assert.assertArrayEquals(sortByJava, sortByMine);
+        }
+    }
+
+    @Test
+    public void testRadixSortIsTrue() {
+        Random random = new Random();
+
+        int[][] intInputs = {
+                random.ints(100_000).toArray(),
+                random.ints(100_000, -300, 300).toArray(),
+                {Integer.MAX_VALUE, 0, -1, Integer.MIN_VALUE, 1, Integer.MIN_VALUE},
+                new int[0],
+        };
+        for (int[] sortByMine : intInputs) {
+            int[] sortByJava = sortByMine.clone();
+            Arrays.radixSort(sortByMine);
+            java.util.Arrays.sort(sortByJava);
+            Assert.assertArrayEquals(sortByJava, sortByMine);
+        }
+
+        long[][] longInputs = {
+                random.longs(100_000).toArray(),
+                random.longs(100_000, 1_500_000_000_000L, 1_600_000_000_000L).toArray(),
+                {Long.MAX_VALUE, 0, -1, Long.MIN_VALUE, 1, Long.MIN_VALUE},
+        };
+        for (long[] sortByMine : longInputs) {
+            long[] sortByJava = sortByMine.clone();
+            Arrays.radixSort(sortByMine, 1, sortByMine.length);
+            java.util.Arrays.sort(sortByJava, 1, sortByJava.length);
+            Assert.assertArrayEquals(sortByJava, sortByMine);
+        }
+    }
+
+    @Test
+    public void testPrimitiveSortsIsTrue() {
+        Random random = new Random();
+        int arrayLength = 10_000;
+
+        long[] longs = random.longs(arrayLength).toArray();
+        double[] doubles = random.doubles(arrayLength, -1, 1).toArray();
+        doubles[0] = Double.NaN;
+        doubles[1] = -0.0;
+        doubles[2] = 0.0;
+        doubles[3] = Double.NEGATIVE_INFINITY;
+        doubles[4] = Double.NaN;
+        float[] floats = new float[arrayLength];
+        short[] shorts = new short[arrayLength];
+        char[] chars = new char[arrayLength];
+        for (int i = 0; i < arrayLength; i++) {
+            floats[i] = (float) doubles[i];
+            shorts[i] = (short) random.nextInt();
+            chars[i] = (char) random.nextInt();
+        }
+
+        for (int algorithm = 0; algorithm < 4; algorithm++) {
+            long[] longsByMine = longs.clone();
+            double[] doublesByMine = doubles.clone();
+            float[] floatsByMine = floats.clone();
+            short[] shortsByMine = shorts.clone();
+            char[] charsByMine = chars.clone();
+            switch (algorithm) {
+                case 0:
+                    Arrays.insertSort(longsByMine);
+                    Arrays.insertSort(doublesByMine);
+                    Arrays.insertSort(floatsByMine);
+                    Arrays.insertSort(shortsByMine);
+                    Arrays.insertSort(charsByMine);
+                    break;
+                case 1:
+                    Arrays.shellSort(longsByMine);
+                    Arrays.shellSort(doublesByMine);
+                    Arrays.shellSort(floatsByMine);
+                    Arrays.shellSort(shortsByMine);
+                    Arrays.shellSort(charsByMine);
+                    break;
+                case 2:
+                    Arrays.mergeSort(longsByMine);
+                    Arrays.mergeSort(doublesByMine);
+                    Arrays.mergeSort(floatsByMine);
+                    Arrays.mergeSort(shortsByMine);
+                    Arrays.mergeSort(charsByMine);
+                    break;
+                default:
+                    Arrays.quickSort(longsByMine);
+                    Arrays.quickSort(doublesByMine);
+                    Arrays.quickSort(floatsByMine);
+                    Arrays.quickSort(shortsByMine);
+                    Arrays.quickSort(charsByMine);
+                    break;
+            }
+
+            long[] longsByJava = longs.clone();
+            double[] doublesByJava = doubles.clone();
+            float[] floatsByJava = floats.clone();
+            short[] shortsByJava = shorts.clone();
+            char[] charsByJava = chars.clone();
+            java.util.Arrays.sort(longsByJava);
+            java.util.Arrays.sort(doublesByJava);
+            java.util.Arrays.sort(floatsByJava);
+            java.util.Arrays.sort(shortsByJava);
+            java.util.Arrays.sort(charsByJava);
+
+            Assert.assertArrayEquals(longsByJava, longsByMine);
+            Assert.assertArrayEquals(doublesByJava, doublesByMine, 0);
+            Assert.assertArrayEquals(floatsByJava, floatsByMine, 0);
+            Assert.assertArrayEquals(shortsByJava, shortsByMine);
+            Assert.assertArrayEquals(charsByJava, charsByMine);
+        }
+
+        double[] sorted = {Double.NEGATIVE_INFINITY, -1.5, -0.0, 0.0, 2, Double.NaN};
+        for (int i = 0; i < sorted.length; i++) {
+            Assert.assertEquals(i, Arrays.binarySearch(sorted, sorted[i]));
+        }
+        Assert.assertEquals(-3, Arrays.binarySearch(sorted, -1.0));
+        Assert.assertEquals(-6, Arrays.binarySearch(sorted, 3.0));
+        Assert.assertEquals(-6, Arrays.binarySearch(new long[]{1, 3, 5, 7, 9, 11}, 2, 5, 10L));
+    }
+
+    @Test
+    public void testSortAndSearchInRange() {
+        Random random = new Random();
+        int[] sortByMine = random.ints(1_000, 0, 100).toArray();
+        int[] sortByJava = sortByMine.clone();
+
+        Arrays.shellSort(sortByMine, 100, 900);
+        java.util.Arrays.sort(sortByJava, 100, 900);
+        Assert.assertArrayEquals(sortByJava, sortByMine);
+
+        int[] sorted = {1, 3, 5, 7, 9, 11};
+        Assert.assertEquals(-6, Arrays.binarySearch(sorted, 2, 5, 10));
+        Assert.assertEquals(-3, Arrays.binarySearch(sorted, 2, 2, 4));
+        Assert.assertEquals(3, Arrays.binarySearch(sorted, 2, 5, 7));
+    }
+
+    @Test
+    public void testTimSortIsStable() {
+        Random random = new Random();
+        Comparator<int[]> byKey = Comparator.comparingInt(pair -> pair[0]);
+
+        for (int arrayLength : new int[]{0, 1, 31, 1_000, 100_000}) {
+            int[][] pairs = new int[arrayLength][];
+            for (int i = 0; i < arrayLength; i++) {
+                pairs[i] = new int[]{random.nextInt(100), i};
+            }
+            // 前半部分有序,后半部分倒序,测试run的识别
+            java.util.Arrays.sort(pairs, 0, arrayLength / 2, byKey);
+            java.util.Arrays.sort(pairs, arrayLength / 2, arrayLength, byKey.reversed());
+
+            int[][] sortByJava = pairs.clone();
+            int[][] sortByMine = pairs.clone();
+            java.util.Arrays.sort(sortByJava, byKey);
+            Arrays.timSort(sortByMine, byKey);
+
+            for (int i = 0; i < arrayLength; i++) {
+                Assert.assertSame(sortByJava[i], sortByMine[i]);
+            }
+        }
+
+        Integer[] sortByMine = random.ints(10_000).boxed().toArray(Integer[]::new);
+        Integer[] sortByJava = sortByMine.clone();
+        Arrays.timSort(sortByMine, 100, 9_000, Comparator.naturalOrder());
+        java.util.Arrays.sort(sortByJava, 100, 9_000);
+        Assert.assertArrayEquals(sortByJava, sortByMine);
+    }
+
+    @Test
+    public void testBranchFreeAndEytzingerSearchIsTrue() {
+        Random random = new Random();
+
+        for (int arrayLength : new int[]{0, 1, 2, 7, 8, 1_000, 65_537}) {
+            int[] sorted = random.ints(arrayLength << 1, -1_000_000, 1_000_000).distinct().limit(arrayLength).sorted().toArray();
+            StaticIntSearchIndex index = new StaticIntSearchIndex(sorted);
+
+            for (int i = 0; i < 2_000; i++) {
+                int key = (i & 1) == 0 && sorted.length > 0 ? sorted[random.nextInt(sorted.length)] : random.nextInt(2_100_000) - 1_050_000;
+                int expected = java.util.Arrays.binarySearch(sorted, key);
+
+                Assert.assertEquals(expected, Arrays.binarySearch(sorted, key));
+                Assert.assertEquals(expected, Arrays.branchFreeBinarySearch(sorted, key));
+                Assert.assertEquals(expected, index.binarySearch(key));
+            }
+        }
+
+        int[] duplicates = {1, 2, 2, 2, 3};
+        Assert.assertEquals(1, Arrays.branchFreeBinarySearch(duplicates, 2));
+        Assert.assertEquals(1, new StaticIntSearchIndex(duplicates).binarySearch(2));
+        Assert.assertEquals(-4, Arrays.branchFreeBinarySearch(new int[]{1, 3, 5, 7, 9}, 1, 4, 6));
+    }
+
+    @Test
+    public void testBinarySearchAllIsTrue() {
+        Random random = new Random();
+        int[] sorted = random.ints(200_000, -10_000_000, 10_000_000).distinct().sorted().toArray();
+        Integer[] boxedSorted = java.util.Arrays.stream(sorted).boxed().toArray(Integer[]::new);
+
+        for (boolean sortedKeys : new boolean[]{true, false}) {
+            int[] keys = java.util.stream.IntStream.range(0, 5_003)
+                    .map(i -> (i & 1) == 0 ? sorted[random.nextInt(sorted.length)] : random.nextInt(21_000_000) - 10_500_000)
+                    .toArray();
+            if (sortedKeys) {
+                java.util.Arrays.sort(keys);
+            }
+            Integer[] boxedKeys = java.util.Arrays.stream(keys).boxed().toArray(Integer[]::new);
+
+            int[] out = new int[keys.length];
+            int[] boxedOut = new int[keys.length];
+            Arrays.binarySearchAll(sorted, keys, out);
+            Arrays.binarySearchAll(boxedSorted, boxedKeys, boxedOut, Comparator.naturalOrder());
+            for (int i = 0; i < keys.length; i++) {
+                Assert.assertEquals(Arrays.binarySearch(sorted, keys[i]), out[i]);
+                Assert.assertEquals(out[i], boxedOut[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testSelectAndPartialSortIsTrue() {
+        Random random = new Random();
+
+        for (int arrayLength : new int[]{1, 10, 1_000, 100_000}) {
+            for (int maxRange : new int[]{5, Integer.MAX_VALUE}) {
+                int[] numbers = random.ints(arrayLength, 0, maxRange).toArray();
+                int[] sortByJava = numbers.clone();
+                java.util.Arrays.sort(sortByJava);
+                int k = random.nextInt(arrayLength);
+
+                int[] selected = numbers.clone();
+                Assert.assertEquals(sortByJava[k], Arrays.select(selected, k));
+                Assert.assertEquals(sortByJava[k], selected[k]);
+                for (int i = 0; i < arrayLength; i++) {
+                    Assert.assertTrue(i < k ? selected[i] <= selected[k] : selected[i] >= selected[k]);
+                }
+
+                int[] partial = numbers.clone();
+                Arrays.partialSort(partial, k + 1);
+                Assert.assertArrayEquals(java.util.Arrays.copyOf(sortByJava, k + 1), java.util.Arrays.copyOf(partial, k + 1));
+
+                Integer[] boxed = java.util.Arrays.stream(numbers).boxed().toArray(Integer[]::new);
+                Assert.assertEquals(Integer.valueOf(sortByJava[arrayLength - 1 - k]), Arrays.select(boxed.clone(), k, Comparator.<Integer>reverseOrder()));
+                Arrays.partialSort(boxed, k + 1, Comparator.reverseOrder());
+                for (int i = 0; i <= k; i++) {
+                    Assert.assertEquals(sortByJava[arrayLength - 1 - i], boxed[i].intValue());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSortIndicesAndPayloadIsTrue() {
+        Random random = new Random();
+        int arrayLength = 100_000;
+        int[] keys = random.ints(arrayLength, -50, 50).toArray();
+
+        int[] indices = Arrays.sortIndices(keys);
+        for (int i = 1; i < arrayLength; i++) {
+            int previous = keys[indices[i - 1]], current = keys[indices[i]];
+            Assert.assertTrue(previous < current || (previous == current && indices[i - 1] < indices[i]));
+        }
+
+        int[] sortedKeys = keys.clone();
+        int[] intPayload = java.util.stream.IntStream.range(0, arrayLength).toArray();
+        long[] longPayload = java.util.stream.LongStream.range(0, arrayLength).map(i -> i << 32).toArray();
+        Object[] objectPayload = java.util.stream.IntStream.range(0, arrayLength).boxed().toArray();
+        Arrays.sortWithPayload(sortedKeys.clone(), longPayload);
+        Arrays.sortWithPayload(sortedKeys.clone(), objectPayload);
+        Arrays.sortWithPayload(sortedKeys, intPayload);
+
+        for (int i = 0; i < arrayLength; i++) {
+            Assert.assertEquals(keys[indices[i]], sortedKeys[i]);
+            Assert.assertEquals(indices[i], intPayload[i]);
+            Assert.assertEquals((long) indices[i] << 32, longPayload[i]);
+            Assert.assertEquals(indices[i], objectPayload[i]);
+        }
+    }
+
+    @Test
+    public void testParallelSampleSortIsStable() {
+        Random random = new Random();
+        Comparator<int[]> byKey = Comparator.comparingInt(pair -> pair[0]);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelSampleSort sampleSort = new ParallelSampleSort(pool, 16, 8);
+
+            for (int maxRange : new int[]{1, 10, Integer.MAX_VALUE}) {
+                int arrayLength = 200_000;
+                int[][] pairs = new int[arrayLength][];
+                for (int i = 0; i < arrayLength; i++) {
+                    pairs[i] = new int[]{random.nextInt(maxRange), i};
+                }
+
+                int[][] sortByJava = pairs.clone();
+                int[][] sortByMine = pairs.clone();
+                java.util.Arrays.sort(sortByJava, byKey);
+                ParallelSampleSort.Statistics statistics = sampleSort.sort(sortByMine, byKey);
+
+                for (int i = 0; i < arrayLength; i++) {
+                    Assert.assertSame(sortByJava[i], sortByMine[i]);
+                }
+                Assert.assertEquals(arrayLength, java.util.Arrays.stream(statistics.getBucketSizes()).sum());
+                Assert.assertTrue(statistics.getComparisons() > arrayLength);
+                Assert.assertTrue(statistics.getSkew() >= 1);
+                if (maxRange == 1) {
+                    // 所有元素都进入同一个相等桶,每个元素只需比较两次,相等桶不再排序
+                    Assert.assertTrue(statistics.getComparisons() <= 2L * arrayLength + 16 * 8 * 17);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSortByKeyIsStable() {
+        Random random = new Random();
+        int arrayLength = 100_000;
+        long[][] records = new long[arrayLength][];
+        for (int i = 0; i < arrayLength; i++) {
+            records[i] = new long[]{random.nextInt(1_000) - 500, random.nextLong() >> random.nextInt(64), i};
+        }
+
+        long[][] sortByJava = records.clone();
+        long[][] sortByMine = records.clone();
+        java.util.Arrays.sort(sortByJava, Comparator.comparingLong(record -> record[0]));
+        Arrays.sortByIntKey(sortByMine, record -> (int) record[0]);
+        for (int i = 0; i < arrayLength; i++) {
+            Assert.assertSame(sortByJava[i], sortByMine[i]);
+        }
+
+        java.util.Arrays.sort(sortByJava, Comparator.comparingLong(record -> record[1]));
+        Arrays.sortByLongKey(sortByMine, record -> record[1]);
+        for (int i = 0; i < arrayLength; i++) {
+            Assert.assertSame(sortByJava[i], sortByMine[i]);
+        }
+    }
+
+    @Test
+    public void testAdaptiveSortIsTrue() {
+        Random random = new Random();
+        int arrayLength = 100_000;
+
+        int[] sorted = java.util.stream.IntStream.range(0, arrayLength).map(i -> i * 3).toArray();
+        int[] blocks = new int[arrayLength];
+        for (int i = 0; i < arrayLength; i++) {
+            blocks[i] = (i % 1_000) * 1_000 + i / 1_000 + random.nextInt(1_000_000);
+        }
+        java.util.Arrays.sort(blocks, 0, arrayLength / 2);
+        java.util.Arrays.sort(blocks, arrayLength / 2, arrayLength);
+
+        Object[][] cases = {
+                {random.ints(20).toArray(), SortProfile.Algorithm.INSERTION},
+                {sorted, SortProfile.Algorithm.INSERTION},
+                {random.ints(arrayLength, -500, 500).toArray(), SortProfile.Algorithm.COUNTING},
+                {blocks, SortProfile.Algorithm.MERGE},
+                {random.ints(arrayLength, 0, 3).map(i -> i * 1_000_000_000).toArray(), SortProfile.Algorithm.INTRO},
+                {random.ints(arrayLength).toArray(), SortProfile.Algorithm.RADIX},
+                {random.ints(1_000).toArray(), SortProfile.Algorithm.INTRO},
+        };
+        for (Object[] testCase : cases) {
+            int[] sortByMine = ((int[]) testCase[0]).clone();
+            int[] sortByJava = sortByMine.clone();
+
+            SortProfile profile = Arrays.sort(sortByMine);
+            java.util.Arrays.sort(sortByJava);
+
+            Assert.assertEquals(profile.toString(), testCase[1], profile.getAlgorithm());
+            Assert.assertArrayEquals(sortByJava, sortByMine);
+        }
+    }
+
+    @Test
+    public void testCountingSortIsTrue() {
+        Random random = new Random();
+        int arrayLength = 100_000;
+
+        int[] statusCodes = random.ints(arrayLength, 100, 600).toArray();
+        int[] sortByJava = statusCodes.clone();
+        java.util.Arrays.sort(sortByJava);
+        Arrays.countingSort(statusCodes, 100, 599);
+        Assert.assertArrayEquals(sortByJava, statusCodes);
+
+        for (int[] array : new int[][]{random.ints(arrayLength, -4096, 4096).toArray(), random.ints(arrayLength).toArray(), {1_000_000, 0}, {}, {1}}) {
+            sortByJava = array.clone();
+            java.util.Arrays.sort(sortByJava);
+            Arrays.countingSort(array);
+            Assert.assertArrayEquals(sortByJava, array);
+        }
+
+        int[] outOfRange = {3, 1, 2, 7};
+        try {
+            Arrays.countingSort(outOfRange, 0, 5);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            Assert.assertArrayEquals(new int[]{3, 1, 2, 7}, outOfRange);
+        }
+    }
+
+    @Test
+    public void testBucketSortIsTrue() {
+        Random random = new Random();
+        int arrayLength = 100_000;
+
+        double[][] arrays = {
+                random.doubles(arrayLength).toArray(),
+                random.doubles(arrayLength, -1e6, 1e6).toArray(),
+                random.ints(arrayLength, 0, 10).asDoubleStream().toArray(),
+                {Double.NaN, 1.5, -0.0, 0.0, Double.NaN, -3, 0.0, -0.0},
+                {Double.POSITIVE_INFINITY, 2, Double.NEGATIVE_INFINITY, 1},
+                {-Double.MAX_VALUE, Double.MAX_VALUE, 0},
+                {Double.NaN},
+                {},
+        };
+        for (double[] sortByMine : arrays) {
+            double[] sortByJava = sortByMine.clone();
+            java.util.Arrays.sort(sortByJava);
+            Arrays.bucketSort(sortByMine);
+            Assert.assertArrayEquals(sortByJava, sortByMine, 0);
+        }
+    }
+
+    @Test
+    public void testSetOperationsIsTrue() {
+        Random random = new Random();
+
+        int[][] sizes = {{0, 100}, {10, 10_000}, {5_000, 5_000}, {10_000, 10}, {300, 0}};
+        for (int[] size : sizes) {
+            int[] a = random.ints(size[0] * 2L, 0, 20_000).distinct().limit(size[0]).sorted().toArray();
+            int[] b = random.ints(size[1] * 2L, 0, 20_000).distinct().limit(size[1]).sorted().toArray();
+            java.util.Set<Integer> setB = java.util.Arrays.stream(b).boxed().collect(Collectors.toSet());
+            java.util.Set<Integer> setA = java.util.Arrays.stream(a).boxed().collect(Collectors.toSet());
+
+            int[] expectedIntersect = java.util.Arrays.stream(a).filter(setB::contains).toArray();
+            int[] expectedUnion = java.util.stream.IntStream.concat(java.util.Arrays.stream(a), java.util.Arrays.stream(b))
+                    .distinct().sorted().toArray();
+            int[] expectedDifference = java.util.Arrays.stream(a).filter(value -> !setB.contains(value)).toArray();
+            int[] expectedReverseDifference = java.util.Arrays.stream(b).filter(value -> !setA.contains(value)).toArray();
+
+            int[] out = new int[a.length + b.length];
+            Assert.assertArrayEquals(expectedIntersect, java.util.Arrays.copyOf(out, Arrays.intersect(a, b, out)));
+            Assert.assertArrayEquals(expectedIntersect, java.util.Arrays.copyOf(out, Arrays.intersect(b, a, out)));
+            Assert.assertEquals(expectedIntersect.length, Arrays.intersectCount(a, b));
+            Assert.assertArrayEquals(expectedUnion, java.util.Arrays.copyOf(out, Arrays.union(a, b, out)));
+            Assert.assertArrayEquals(expectedDifference, java.util.Arrays.copyOf(out, Arrays.difference(a, b, out)));
+            Assert.assertArrayEquals(expectedReverseDifference, java.util.Arrays.copyOf(out, Arrays.difference(b, a, out)));
+        }
+
+        // 重复元素按多重集合处理,线性归并与指数查找的结果一致
+        int[] duplicates = {1, 1, 2, 2, 2, 5};
+        int[] small = {1, 2, 2, 3};
+        int[] large = java.util.stream.IntStream.concat(java.util.Arrays.stream(small),
+                java.util.stream.IntStream.range(10, 200)).toArray();
+        int[] out = new int[300];
+        Assert.assertArrayEquals(new int[]{1, 2, 2}, java.util.Arrays.copyOf(out, Arrays.intersect(duplicates, small, out)));
+        Assert.assertArrayEquals(new int[]{1, 2, 2}, java.util.Arrays.copyOf(out, Arrays.intersect(duplicates, large, out)));
+        Assert.assertArrayEquals(new int[]{1, 1, 2, 2, 2, 3, 5}, java.util.Arrays.copyOf(out, Arrays.union(duplicates, small, out)));
+        Assert.assertEquals(6 + 1 + 190, Arrays.union(duplicates, large, out));
+        Assert.assertArrayEquals(new int[]{1, 2, 5}, java.util.Arrays.copyOf(out, Arrays.difference(duplicates, small, out)));
+        Assert.assertArrayEquals(new int[]{1, 2, 5}, java.util.Arrays.copyOf(out, Arrays.difference(duplicates, large, out)));
+    }
+
+    @Test
+    public void testBranchlessSortIsTrue() {
+        Random random = new Random();
+
+        List<int[]> arrays = new ArrayList<>();
+        for (int length = 0; length <= 40; length++) {
+            arrays.add(random.ints(length, -10, 10).toArray());
+        }
+        arrays.add(random.ints(100_000).toArray());
+        arrays.add(random.ints(100_000, 0, 4).toArray());
+        arrays.add(new int[100_000]);
+        arrays.add(java.util.stream.IntStream.range(0, 100_000).toArray());
+        arrays.add(java.util.stream.IntStream.range(0, 100_000).map(i -> 100_000 - i).toArray());
+        arrays.add(random.ints(100_000).map(i -> i % 2 == 0 ? Integer.MIN_VALUE : Integer.MAX_VALUE).toArray());
+
+        for (int[] array : arrays) {
+            int[] sortByJava = array.clone();
+            java.util.Arrays.sort(sortByJava);
+
+            int[] sortByQuick = array.clone();
+            BranchlessIntSort.sort(sortByQuick, 0, sortByQuick.length);
+            Assert.assertArrayEquals(sortByJava, sortByQuick);
+
+            int[] sortByMerge = array.clone();
+            BranchlessIntSort.mergeSort(sortByMerge, 0, sortByMerge.length);
+            Assert.assertArrayEquals(sortByJava, sortByMerge);
+        }
+    }
+
+    @Test
+    public void testStringSortIsTrue() {
+        Random random = new Random();
+        String[] prefixes = {"https://example.com/api/v1/users/", "https://example.com/api/v1/", "https://example.org/", "", "键/"};
+        String[] words = new String[20_000];
+        for (int i = 0; i < words.length; i++) {
+            StringBuilder builder = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+            for (int j = random.nextInt(6); j > 0; j--) {
+                builder.append((char) (random.nextInt(4) == 0 ? 0x4E00 + random.nextInt(16) : 'a' + random.nextInt(4)));
+            }
+            words[i] = builder.toString();
+        }
+
+        for (int length : new int[]{0, 1, 10, words.length}) {
+            String[] sortByJava = java.util.Arrays.copyOf(words, length);
+            java.util.Arrays.sort(sortByJava);
+
+            String[] sortByMultikey = java.util.Arrays.copyOf(words, length);
+            StringSort.multikeyQuickSort(sortByMultikey);
+            Assert.assertArrayEquals(sortByJava, sortByMultikey);
+
+            String[] sortByMsd = java.util.Arrays.copyOf(words, length);
+            StringSort.msdRadixSort(sortByMsd);
+            Assert.assertArrayEquals(sortByJava, sortByMsd);
+
+            Comparator<byte[]> unsigned = (v, w) -> {
+                for (int i = 0, n = Math.min(v.length, w.length); i < n; i++) {
+                    if (v[i] != w[i]) {
+                        return (v[i] & 0xFF) - (w[i] & 0xFF);
+                    }
+                }
+                return v.length - w.length;
+            };
+            byte[][] keys = java.util.Arrays.stream(sortByJava)
+                    .map(word -> word.getBytes(java.nio.charset.StandardCharsets.UTF_8)).toArray(byte[][]::new);
+            Collections.shuffle(java.util.Arrays.asList(keys), random);
+            byte[][] keysByJava = keys.clone();
+            java.util.Arrays.sort(keysByJava, unsigned);
+
+            byte[][] keysByMultikey = keys.clone();
+            StringSort.multikeyQuickSort(keysByMultikey);
+            Assert.assertArrayEquals(keysByJava, keysByMultikey);
+
+            byte[][] keysByMsd = keys.clone();
+            StringSort.msdRadixSort(keysByMsd);
+            Assert.assertArrayEquals(keysByJava, keysByMsd);
+        }
+    }
+
+    @Test
+    public void testSortContextIsAllocationFree() {
+        java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+        org.junit.Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        org.junit.Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        Random random = new Random();
+        int arrayLength = 10_000;
+        int[] ints = random.ints(arrayLength).toArray();
+        long[] longs = random.longs(arrayLength).toArray();
+        int[] smallRange = random.ints(arrayLength, 0, 4096).toArray();
+        Integer[] objects = random.ints(arrayLength).boxed().toArray(Integer[]::new);
+        int[] intWork = new int[arrayLength];
+        long[] longWork = new long[arrayLength];
+        Integer[] objectWork = new Integer[arrayLength];
+        Comparator<Integer> comparator = Integer::compare;
+        SortContext context = new SortContext();
+
+        Runnable sorts = () -> {
+            System.arraycopy(ints, 0, intWork, 0, arrayLength);
+            Arrays.mergeSort(intWork, 0, arrayLength, context);
+            System.arraycopy(ints, 0, intWork, 0, arrayLength);
+            Arrays.radixSort(intWork, 0, arrayLength, context);
+            System.arraycopy(smallRange, 0, intWork, 0, arrayLength);
+            Arrays.countingSort(intWork, 0, arrayLength, 0, 4095, context);
+            System.arraycopy(longs, 0, longWork, 0, arrayLength);
+            Arrays.mergeSort(longWork, 0, arrayLength, context);
+            System.arraycopy(longs, 0, longWork, 0, arrayLength);
+            Arrays.radixSort(longWork, 0, arrayLength, context);
+            System.arraycopy(objects, 0, objectWork, 0, arrayLength);
+            Arrays.timSort(objectWork, 0, arrayLength, comparator, context);
+            System.arraycopy(objects, 0, objectWork, 0, arrayLength);
+            Arrays.partialSort(objectWork, 100, comparator, context);
+            System.arraycopy(ints, 0, intWork, 0, arrayLength);
+            Arrays.sort(intWork, 0, arrayLength, context);
+            System.arraycopy(smallRange, 0, intWork, 0, arrayLength);
+            Arrays.sort(intWork, 0, arrayLength, context);
+        };
+
+        // 预热,使辅助数组增长到所需的大小并完成JIT编译
+        for (int i = 0; i < 200; i++) {
+            sorts.run();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100; i++) {
+            sorts.run();
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // 只允许测量本身产生的少量分配以及每次自适应排序返回的SortProfile,远小于一次排序所需的辅助数组
+        Assert.assertTrue("allocated " + allocated + " bytes", allocated < 4096 + 100 * 2 * 64);
+
+        int[] sortByJava = ints.clone();
+        java.util.Arrays.sort(sortByJava);
+        System.arraycopy(ints, 0, intWork, 0, arrayLength);
+        Arrays.mergeSort(intWork, 0, arrayLength, context);
+        Assert.assertArrayEquals(sortByJava, intWork);
+        System.arraycopy(ints, 0, intWork, 0, arrayLength);
+        Arrays.sort(intWork, 0, arrayLength, context);
+        Assert.assertArrayEquals(sortByJava, intWork);
+        Integer[] objectsByJava = objects.clone();
+        java.util.Arrays.sort(objectsByJava);
+        System.arraycopy(objects, 0, objectWork, 0, arrayLength);
+        Arrays.timSort(objectWork, 0, arrayLength, comparator, context);
+        Assert.assertArrayEquals(objectsByJava, objectWork);
+    }
+
+    @Test
+    public void testSortStatsIsTrue() {
+        Random random = new Random();
+        int arrayLength = 1 << 16;
+        int[] array = random.ints(arrayLength).toArray();
+        int[] sortByJava = array.clone();
+        java.util.Arrays.sort(sortByJava);
+
+        SortStats.Counter shell = new SortStats.Counter();
+        int[] sortByShell = array.clone();
+        Arrays.shellSort(sortByShell, shell);
+        Assert.assertArrayEquals(sortByJava, sortByShell);
+
+        SortStats.Counter merge = new SortStats.Counter();
+        int[] sortByMerge = array.clone();
+        Arrays.mergeSort(sortByMerge, merge);
+        Assert.assertArrayEquals(sortByJava, sortByMerge);
+
+        SortStats.Counter quick = new SortStats.Counter();
+        int[] sortByQuick = array.clone();
+        Arrays.quickSort(sortByQuick, quick);
+        Assert.assertArrayEquals(sortByJava, sortByQuick);
+
+        // 比较次数至少为log2(n!)的量级,归并的比较次数不超过nlog2n
+        long lowerBound = (long) arrayLength * 14;
+        for (SortStats.Counter counter : java.util.Arrays.asList(shell, merge, quick)) {
+            Assert.assertTrue(counter.toString(), counter.getComparisons() > lowerBound);
+            Assert.assertTrue(counter.toString(), counter.getElapsedNanos() > 0);
+        }
+        Assert.assertTrue(merge.toString(), merge.getComparisons() <= (long) arrayLength * 16);
+        Assert.assertTrue(merge.toString(), merge.getMoves() > 0);
+        Assert.assertTrue(merge.toString(), merge.getMaxDepth() <= 16);
+        Assert.assertTrue(quick.toString(), quick.getMaxDepth() <= 2 * 16);
+        Assert.assertEquals(0, shell.getMaxDepth());
+
+        // 已有序时,希尔排序只比较不交换
+        shell.reset();
+        Arrays.shellSort(sortByShell, shell);
+        Assert.assertEquals(0, shell.getSwaps());
+        Assert.assertTrue(shell.getComparisons() > 0);
+
+        // 数组为null时三个方法都不做任何事
+        shell.reset();
+        Arrays.shellSort(null, shell);
+        Arrays.mergeSort((int[]) null, shell);
+        Arrays.quickSort((int[]) null, shell);
+        Assert.assertEquals(0, shell.getComparisons());
+    }
 }
@@ -0,0 +1,85 @@
+package com.leo.util.algorithm;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * @author leo
+ * @date 2019/5/13
+ */
+public class ExternalSortTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSortIntFileIsTrue() throws IOException {
+        int[] numbers = new Random().ints(300_000).toArray();
+        ByteBuffer buffer = ByteBuffer.allocate(numbers.length * Integer.BYTES);
+        buffer.asIntBuffer().put(numbers);
+        Path input = folder.newFile().toPath(), output = folder.newFile().toPath();
+        Files.write(input, buffer.array());
+
+        // 每块最多128KB,共10个run,一次最多归并3路,需要多趟归并
+        ExternalSort.Statistics statistics = new ExternalSort(256 << 10, folder.getRoot().toPath())
+                .sort(input, output, ExternalSort.RecordType.INT);
+
+        int[] sortByMine = new int[numbers.length];
+        ByteBuffer.wrap(Files.readAllBytes(output)).asIntBuffer().get(sortByMine);
+        java.util.Arrays.sort(numbers);
+        Assert.assertArrayEquals(numbers, sortByMine);
+
+        long bytes = numbers.length * (long) Integer.BYTES;
+        Assert.assertEquals(10, statistics.getRunCount());
+        Assert.assertTrue(statistics.getMergePasses() > 1);
+        Assert.assertEquals(bytes, statistics.getChunkBytesRead());
+        Assert.assertEquals(bytes, statistics.getRunBytesWritten());
+        Assert.assertEquals(bytes * statistics.getMergePasses(), statistics.getMergeBytesWritten());
+        Assert.assertEquals(2, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void testSortLongFileIsTrue() throws IOException {
+        long[] numbers = new Random().longs(100_000).toArray();
+        ByteBuffer buffer = ByteBuffer.allocate(numbers.length * Long.BYTES);
+        buffer.asLongBuffer().put(numbers);
+        Path input = folder.newFile().toPath(), output = folder.newFile().toPath();
+        Files.write(input, buffer.array());
+
+        new ExternalSort(1 << 20, folder.getRoot().toPath()).sort(input, output, ExternalSort.RecordType.LONG);
+
+        long[] sortByMine = new long[numbers.length];
+        ByteBuffer.wrap(Files.readAllBytes(output)).asLongBuffer().get(sortByMine);
+        java.util.Arrays.sort(numbers);
+        Assert.assertArrayEquals(numbers, sortByMine);
+    }
+
+    @Test
+    public void testSortFileOntoItselfIsTrue() throws IOException {
+        // 300_000条记录在256KB的预算下分为多块,1000条只有一块
+        for (int length : new int[]{1_000, 300_000}) {
+            int[] numbers = new Random().ints(length).toArray();
+            ByteBuffer buffer = ByteBuffer.allocate(numbers.length * Integer.BYTES);
+            buffer.asIntBuffer().put(numbers);
+            Path file = folder.newFile().toPath();
+            Files.write(file, buffer.array());
+
+            new ExternalSort(256 << 10, folder.getRoot().toPath()).sort(file, file, ExternalSort.RecordType.INT);
+
+            int[] sortByMine = new int[numbers.length];
+            byte[] bytes = Files.readAllBytes(file);
+            Assert.assertEquals(numbers.length * Integer.BYTES, bytes.length);
+            ByteBuffer.wrap(bytes).asIntBuffer().get(sortByMine);
+            java.util.Arrays.sort(numbers);
+            Assert.assertArrayEquals(numbers, sortByMine);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.leo.util.algorithm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author leo
+ * @date 2019/6/9
+ */
+public class KWayMergerTest {
+
+    @Test
+    public void testMergeIsTrue() {
+        Random random = new Random();
+
+        for (int k : new int[]{0, 1, 2, 7, 100}) {
+            for (int bound : new int[]{100, Integer.MAX_VALUE}) {
+                int[][] sources = new int[k][];
+                Integer[][] boxedSources = new Integer[k][];
+                for (int i = 0; i < k; i++) {
+                    sources[i] = random.ints(random.nextInt(1_000), -bound, bound).sorted().toArray();
+                    boxedSources[i] = java.util.Arrays.stream(sources[i]).boxed().toArray(Integer[]::new);
+                }
+                int[] sortByJava = java.util.Arrays.stream(sources).flatMapToInt(java.util.Arrays::stream).sorted().toArray();
+
+                Assert.assertArrayEquals(sortByJava, KWayMerger.merge(sources));
+
+                List<Integer> merged = new ArrayList<>();
+                KWayMerger.merge(boxedSources, Integer::compare, merged::add);
+                Assert.assertArrayEquals(sortByJava, merged.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+    }
+
+    @Test
+    public void testIteratorIsStable() {
+        // 相等的元素按来源的先后顺序输出
+        List<Iterator<int[]>> iterators = new ArrayList<>();
+        for (int source = 0; source < 5; source++) {
+            int[][] pairs = new int[20][];
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = new int[]{i / 4, source};
+            }
+            iterators.add(java.util.Arrays.asList(pairs).iterator());
+        }
+        Iterator<int[]> merged = KWayMerger.iterator(iterators, Comparator.comparingInt(pair -> pair[0]));
+        int[] previous = {Integer.MIN_VALUE, Integer.MIN_VALUE};
+        int count = 0;
+        while (merged.hasNext()) {
+            int[] pair = merged.next();
+            Assert.assertTrue(pair[0] > previous[0] || (pair[0] == previous[0] && pair[1] >= previous[1]));
+            previous = pair;
+            count++;
+        }
+        Assert.assertEquals(100, count);
+        Assert.assertFalse(merged.hasNext());
+    }
+}
@@ -0,0 +1,96 @@
+package com.leo.util.datastructure.map;
+
+import com.leo.util.datastructure.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * @author leo
+ * @date 2019/6/8
+ */
+public class ConcurrentHashMapTest {
+
+    @Test
+    public void testMatchesHashMap() {
+        ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+        java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(20_000), value = random.nextInt(100);
+            switch (random.nextInt(4)) {
+                case 0:
+                    Assert.assertEquals(expected.remove(key), map.remove(key).orElse(null));
+                    break;
+                case 1:
+                    Assert.assertEquals(expected.remove(key, value), map.remove(key, value).isPresent());
+                    break;
+                default:
+                    Assert.assertEquals(expected.put(key, value), map.put(key, value).orElse(null));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+
+        int count = 0;
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            Assert.assertEquals(expected.get(entry.getKey().get()), entry.getValue().get());
+            count++;
+        }
+        Assert.assertEquals(expected.size(), count);
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void testConcurrentPutAndRemove() throws InterruptedException {
+        // 初始容量很小,使多个线程在并发put的同时协作扩容
+        ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>(2);
+        int threadCount = 8, perThread = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> errors = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int offset = t * perThread;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = offset; i < offset + perThread; i++) {
+                        map.put(i, i);
+                        // 其它线程的扩容过程中,自己放入的元素必须一直可见
+                        Assert.assertEquals(i, map.get(i).get().intValue());
+                    }
+                    for (int i = offset; i < offset + perThread; i += 2) {
+                        Assert.assertEquals(i, map.remove(i).get().intValue());
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertEquals(new ArrayList<Throwable>(), errors);
+        Assert.assertEquals(threadCount * perThread / 2, map.size());
+        for (int i = 0; i < threadCount * perThread; i++) {
+            Assert.assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), map.get(i).orElse(null));
+        }
+        int count = 0;
+        for (Integer ignored : map.keySet()) {
+            count++;
+        }
+        Assert.assertEquals(threadCount * perThread / 2, count);
+    }
+}
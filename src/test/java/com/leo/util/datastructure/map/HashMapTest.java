@@ -0,0 +1,156 @@
+package com.leo.util.datastructure.map;
+
+import com.leo.util.datastructure.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author leo
+ * @date 2019/6/6
+ */
+public class HashMapTest {
+
+    /**
+     * hashCode只有少数几个取值的key,使大量key落入同一个桶
+     */
+    private static class CollidingKey {
+
+        final int id;
+
+        CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 3;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof CollidingKey && ((CollidingKey) other).id == id;
+        }
+    }
+
+    private static final class ComparableCollidingKey extends CollidingKey implements Comparable<ComparableCollidingKey> {
+
+        ComparableCollidingKey(int id) {
+            super(id);
+        }
+
+        @Override
+        public int compareTo(ComparableCollidingKey other) {
+            return Integer.compare(id, other.id);
+        }
+    }
+
+    @Test
+    public void testCollidingComparableKeysMatchHashMap() {
+        checkMatchesHashMap(new HashMap<>(), ComparableCollidingKey::new);
+    }
+
+    @Test
+    public void testCollidingKeysMatchHashMap() {
+        checkMatchesHashMap(new HashMap<>(), CollidingKey::new);
+    }
+
+    @Test
+    public void testIncrementalResizeMatchesHashMap() {
+        checkMatchesHashMap(new HashMap<>(16, 0.75f, true), ComparableCollidingKey::new);
+
+        HashMap<Integer, Integer> map = new HashMap<>(16, 0.75f, true);
+        java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(50_000);
+            if (random.nextInt(4) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key).orElse(null));
+            } else {
+                Assert.assertEquals(expected.put(key, i), map.put(key, i).orElse(null));
+            }
+            // 迁移过程中,两个table中的元素都要能查到
+            int probe = random.nextInt(50_000);
+            Assert.assertEquals(expected.get(probe), map.get(probe).orElse(null));
+        }
+        int count = 0;
+        for (Integer key : map.keySet()) {
+            Assert.assertTrue(expected.containsKey(key));
+            count++;
+        }
+        Assert.assertEquals(expected.size(), count);
+    }
+
+    @Test
+    public void testResizeDoesNotRecomputeHashCode() {
+        int[] calls = new int[1];
+        class CountingKey extends CollidingKey {
+
+            CountingKey(int id) {
+                super(id);
+            }
+
+            @Override
+            public int hashCode() {
+                calls[0]++;
+                return id;
+            }
+        }
+
+        for (boolean incrementalResize : new boolean[]{false, true}) {
+            calls[0] = 0;
+            HashMap<CountingKey, Integer> map = new HashMap<>(16, 0.75f, incrementalResize);
+            for (int i = 0; i < 10_000; i++) {
+                map.put(new CountingKey(i), i);
+            }
+            Assert.assertEquals(10_000, calls[0]);
+            Assert.assertEquals(9_999, map.get(new CountingKey(9_999)).get().intValue());
+        }
+    }
+
+    @Test
+    public void testRemoveWithValue() {
+        HashMap<String, Integer> map = new HashMap<>();
+        map.put("a", 1);
+        map.put("b", 2);
+        Assert.assertFalse(map.remove("a", 2).isPresent());
+        Assert.assertEquals(1, map.remove("a", 1).get().intValue());
+        Assert.assertFalse(map.containsKey("a"));
+        Assert.assertEquals(1, map.size());
+        map.put(null, 3);
+        Assert.assertEquals(3, map.get(null).get().intValue());
+    }
+
+    private static void checkMatchesHashMap(HashMap<CollidingKey, Integer> map, java.util.function.IntFunction<CollidingKey> keys) {
+        java.util.HashMap<CollidingKey, Integer> expected = new java.util.HashMap<>();
+        Random random = new Random(3);
+        for (int i = 0; i < 50_000; i++) {
+            // 先集中放入,再集中删除,使桶反复转换为红黑树和链表
+            int bound = i < 20_000 ? 600 : 100;
+            CollidingKey key = keys.apply(random.nextInt(bound));
+            switch (random.nextInt(i < 20_000 ? 2 : 3)) {
+                case 0:
+                    Assert.assertEquals(expected.put(key, i), map.put(key, i).orElse(null));
+                    break;
+                case 1:
+                    Assert.assertEquals(expected.get(key), map.get(key).orElse(null));
+                    break;
+                default:
+                    Assert.assertEquals(expected.remove(key), map.remove(key).orElse(null));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+
+        for (int id = 0; id < 600; id++) {
+            CollidingKey key = keys.apply(id);
+            Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+        }
+        int count = 0;
+        for (Map.Entry<CollidingKey, Integer> entry : map.entrySet()) {
+            Assert.assertEquals(expected.get(entry.getKey().get()), entry.getValue().get());
+            count++;
+        }
+        Assert.assertEquals(expected.size(), count);
+    }
+}
@@ -0,0 +1,84 @@
+package com.leo.util.datastructure.map.primitive;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * @author leo
+ * @date 2019/6/5
+ */
+public class PrimitiveHashMapTest {
+
+    @Test
+    public void testIntIntHashMapMatchesHashMap() {
+        IntIntHashMap map = new IntIntHashMap(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            // 小范围的key使删除和重复放入足够频繁,并覆盖key为0
+            int key = random.nextInt(2_000) - 1_000, value = random.nextInt();
+            switch (random.nextInt(3)) {
+                case 0:
+                    Integer old = expected.put(key, value);
+                    Assert.assertEquals(old == null ? -1 : old, map.put(key, value, -1));
+                    break;
+                case 1:
+                    Integer removed = expected.remove(key);
+                    Assert.assertEquals(removed == null ? -1 : removed, map.remove(key, -1));
+                    break;
+                default:
+                    Assert.assertEquals(expected.getOrDefault(key, -1).intValue(), map.get(key, -1));
+                    Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+
+        Map<Integer, Integer> actual = new HashMap<>();
+        map.forEach(actual::put);
+        Assert.assertEquals(expected, actual);
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertEquals(3, map.addTo(0, 3));
+        Assert.assertEquals(5, map.addTo(0, 2));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testLongObjectHashMapMatchesHashMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 200_000; i++) {
+            // 高位不同、低位相同的key检验扰动函数
+            long key = ((long) random.nextInt(1_000) << 40) | random.nextInt(2);
+            String value = Integer.toString(i);
+            switch (random.nextInt(3)) {
+                case 0:
+                    Assert.assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+                case 1:
+                    Assert.assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    Assert.assertEquals(expected.get(key), map.get(key));
+                    Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+
+        Map<Long, String> actual = new HashMap<>();
+        map.forEach(actual::put);
+        Assert.assertEquals(expected, actual);
+
+        IntObjectHashMap<String> ints = new IntObjectHashMap<>();
+        Assert.assertNull(ints.put(0, null));
+        Assert.assertTrue(ints.containsKey(0));
+        Assert.assertEquals("x", ints.getOrDefault(1, "x"));
+        Assert.assertNull(ints.getOrDefault(0, "x"));
+    }
+}